@@ -111,6 +111,27 @@ dependencies {
     testImplementation("org.mockito:mockito-core:3.12.4")
 }
 
+// Benchmarks:
+// ./gradlew jmh -PjmhArgs="FlyPathfinderBenchmark -prof gc" runs the JMH benchmarks under src/jmh against the main classes
+
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets.main.get().runtimeClasspath
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks, JMH options go in -PjmhArgs"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args((project.findProperty("jmhArgs") as String? ?: "").split(" ").filter { it.isNotBlank() })
+}
+
 // Tasks:
 
 tasks.withType(JavaCompile::class) {
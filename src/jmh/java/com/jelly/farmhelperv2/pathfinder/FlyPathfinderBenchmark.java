@@ -0,0 +1,90 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import net.minecraft.util.Vec3;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search, smoothing and steering of the fly pathfinder on a synthetic garden, for short trips inside a plot,
+ * trips across a few plots and trips from one corner of the garden to the other.
+ * Throughput gives ops/s and sample time gives the latency percentiles, {@code -prof gc} adds the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlyPathfinderBenchmark {
+    // Same budgets FlyPathFinderExecutor searches with
+    private static final int MAX_NODES = 400_000;
+    private static final float MAX_DISTANCE = 1500;
+
+    public enum Trip {
+        SHORT(-200, -200, -170, -180),
+        MEDIUM(-200, -200, -20, -120),
+        GARDEN(-230, -230, 230, 230);
+
+        private final int startX;
+        private final int startZ;
+        private final int goalX;
+        private final int goalZ;
+
+        Trip(int startX, int startZ, int goalX, int goalZ) {
+            this.startX = startX;
+            this.startZ = startZ;
+            this.goalX = goalX;
+            this.goalZ = goalZ;
+        }
+    }
+
+    @Param({"SHORT", "MEDIUM", "GARDEN"})
+    public Trip trip;
+
+    private SyntheticGarden garden;
+    private final FlyAStar flyAStar = new FlyAStar(1, 2, 1);
+    private final SteeringProbes probes = new SteeringProbes();
+    private int startY;
+    private int goalY;
+    private List<Vec3> path;
+    private List<Vec3> smoothed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        garden = new SyntheticGarden(42);
+        startY = garden.airAbove(trip.startX, trip.startZ);
+        goalY = garden.airAbove(trip.goalX, trip.goalZ);
+        path = search();
+        if (path == null) {
+            throw new IllegalStateException("No path for " + trip + ", stopped because of " + flyAStar.getLastStopReason());
+        }
+        smoothed = LineOfSight.smooth(garden, path);
+    }
+
+    @Benchmark
+    public List<Vec3> search() {
+        return flyAStar.search(garden, trip.startX, startY, trip.startZ, trip.goalX, goalY, trip.goalZ, MAX_DISTANCE, MAX_NODES);
+    }
+
+    @Benchmark
+    public List<Vec3> smooth() {
+        return LineOfSight.smooth(garden, path);
+    }
+
+    /**
+     * One steering tick at every point of the smoothed path: the probes in front of the player, facing the next point.
+     */
+    @Benchmark
+    public void steer(Blackhole blackhole) {
+        for (int index = 0; index < smoothed.size() - 1; index++) {
+            Vec3 from = smoothed.get(index);
+            Vec3 to = smoothed.get(index + 1);
+            float yaw = (float) Math.toDegrees(Math.atan2(to.zCoord - from.zCoord, to.xCoord - from.xCoord)) - 90;
+            probes.update(garden, from.xCoord + 0.5, from.yCoord + 0.15, from.zCoord + 0.5, 1.8f, yaw);
+            blackhole.consume(probes.isHit(SteeringProbes.CENTER_UP));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import java.util.Random;
+
+/**
+ * A garden-like world for benchmarks, with no Minecraft client behind it.
+ * The 25 plots follow the PlotUtils grid: 6 by 6 chunks each, starting at chunk -15, with the barn in the middle one.
+ * Plots get rows of crops of different heights and a few trees, and everything below the soil is solid like the garden bounds make it.
+ * The layout only depends on the seed, so runs can be compared with each other.
+ */
+public class SyntheticGarden implements FlyAStar.Passability {
+    public static final int MIN = -240;
+    public static final int SIZE = 480;
+    public static final int HEIGHT = 128;
+    public static final int PLOT_SIZE = 96;
+    public static final int SOIL_Y = 66;
+
+    // One bit per block, x major then z then y
+    private final long[] solid = new long[SIZE * SIZE * HEIGHT / 64];
+
+    public SyntheticGarden(long seed) {
+        Random random = new Random(seed);
+        fill(MIN, 0, MIN, MIN + SIZE - 1, SOIL_Y, MIN + SIZE - 1);
+        for (int plotX = 0; plotX < 5; plotX++) {
+            for (int plotZ = 0; plotZ < 5; plotZ++) {
+                int minX = MIN + plotX * PLOT_SIZE;
+                int minZ = MIN + plotZ * PLOT_SIZE;
+                if (plotX == 2 && plotZ == 2) {
+                    buildBarn(minX, minZ);
+                } else {
+                    plantPlot(random, minX, minZ);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isFree(int x, int y, int z) {
+        // Same bounds as a garden view of the passability snapshot
+        if (y < 65 || x < -300 || x > 300 || z < -300 || z > 300) return false;
+        int localX = x - MIN;
+        int localZ = z - MIN;
+        if (localX < 0 || localX >= SIZE || localZ < 0 || localZ >= SIZE || y >= HEIGHT) return true;
+        int index = index(localX, y, localZ);
+        return (solid[index >> 6] & 1L << index) == 0;
+    }
+
+    /**
+     * Returns the lowest y above the soil where the player fits at a column.
+     */
+    public int airAbove(int x, int z) {
+        int y = SOIL_Y + 1;
+        while (!isFree(x, y, z) || !isFree(x, y + 1, z)) {
+            y++;
+        }
+        return y;
+    }
+
+    /**
+     * Rows of crops along x, every plot gets one kind: flat ones that can be flown over, melon and pumpkin blocks,
+     * or tall cocoa and cane walls. A few trees are scattered on top.
+     */
+    private void plantPlot(Random random, int minX, int minZ) {
+        int kind = random.nextInt(3);
+        int rowHeight = kind == 0 ? 0 : kind == 1 ? 1 : 4;
+        if (rowHeight > 0) {
+            for (int z = minZ + 3; z < minZ + PLOT_SIZE - 3; z += 3) {
+                // Every row leaves a gap at both ends to walk around it
+                fill(minX + 3, SOIL_Y + 1, z, minX + PLOT_SIZE - 4, SOIL_Y + rowHeight, z);
+            }
+        }
+        int trees = 2 + random.nextInt(4);
+        for (int tree = 0; tree < trees; tree++) {
+            int x = minX + 8 + random.nextInt(PLOT_SIZE - 16);
+            int z = minZ + 8 + random.nextInt(PLOT_SIZE - 16);
+            int height = 5 + random.nextInt(4);
+            fill(x, SOIL_Y + 1, z, x, SOIL_Y + height, z);
+            fill(x - 2, SOIL_Y + height - 1, z - 2, x + 2, SOIL_Y + height + 1, z + 2);
+        }
+    }
+
+    /**
+     * A closed building with a single door, the desk area of the real barn is open to the sky around it.
+     */
+    private void buildBarn(int minX, int minZ) {
+        int x0 = minX + 30;
+        int z0 = minZ + 30;
+        int x1 = minX + 65;
+        int z1 = minZ + 55;
+        int top = SOIL_Y + 14;
+        fill(x0, SOIL_Y + 1, z0, x1, top, z0);
+        fill(x0, SOIL_Y + 1, z1, x1, top, z1);
+        fill(x0, SOIL_Y + 1, z0, x0, top, z1);
+        fill(x1, SOIL_Y + 1, z0, x1, top, z1);
+        fill(x0, top, z0, x1, top, z1);
+        clear((x0 + x1) / 2 - 1, SOIL_Y + 1, z1, (x0 + x1) / 2 + 1, SOIL_Y + 4, z1);
+    }
+
+    private void fill(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        set(fromX, fromY, fromZ, toX, toY, toZ, true);
+    }
+
+    private void clear(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        set(fromX, fromY, fromZ, toX, toY, toZ, false);
+    }
+
+    private void set(int fromX, int fromY, int fromZ, int toX, int toY, int toZ, boolean value) {
+        for (int x = fromX; x <= toX; x++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                for (int y = fromY; y <= toY; y++) {
+                    int index = index(x - MIN, y, z - MIN);
+                    if (value) {
+                        solid[index >> 6] |= 1L << index;
+                    } else {
+                        solid[index >> 6] &= ~(1L << index);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int index(int localX, int y, int localZ) {
+        return (localX * SIZE + localZ) * HEIGHT + y;
+    }
+}
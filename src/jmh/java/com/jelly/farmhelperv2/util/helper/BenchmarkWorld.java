@@ -0,0 +1,88 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.multiplayer.ChunkProviderClient;
+import net.minecraft.init.Blocks;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.WorldSettings;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraft.world.storage.WorldInfo;
+
+import java.util.Random;
+
+/**
+ * A client-like world with no Minecraft client behind it, for benchmarks of code that reads a real {@link World}.
+ * Chunks are loaded the way the client loads them and blocks are written straight into their storage, so nothing
+ * gets lit, updated or sent anywhere. {@code Bootstrap.register()} has to be called before creating one.
+ */
+public class BenchmarkWorld extends World {
+    public static final int RADIUS_CHUNKS = 4;
+    public static final int FLOOR_Y = 66;
+
+    private final ChunkProviderClient chunks;
+
+    public BenchmarkWorld(long seed) {
+        super(null, new WorldInfo(new WorldSettings(seed, WorldSettings.GameType.CREATIVE, false, false, WorldType.FLAT), "benchmark"),
+                new WorldProviderSurface(), new Profiler(), true);
+        chunks = new ChunkProviderClient(this);
+        chunkProvider = chunks;
+        for (int chunkX = -RADIUS_CHUNKS; chunkX < RADIUS_CHUNKS; chunkX++) {
+            for (int chunkZ = -RADIUS_CHUNKS; chunkZ < RADIUS_CHUNKS; chunkZ++) {
+                chunks.loadChunk(chunkX, chunkZ);
+            }
+        }
+        fill(seed);
+    }
+
+    /**
+     * A solid floor with scattered full blocks, slabs, fences and leaves above it, about as dense as a farm with trees.
+     */
+    private void fill(long seed) {
+        Random random = new Random(seed);
+        IBlockState[] obstacles = {
+                Blocks.stone.getDefaultState(),
+                Blocks.stone_slab.getDefaultState(),
+                Blocks.oak_fence.getDefaultState(),
+                Blocks.leaves.getDefaultState(),
+                Blocks.glass.getDefaultState()
+        };
+        int min = -RADIUS_CHUNKS * 16;
+        int max = RADIUS_CHUNKS * 16;
+        for (int x = min; x < max; x++) {
+            for (int z = min; z < max; z++) {
+                for (int y = FLOOR_Y - 2; y <= FLOOR_Y; y++) {
+                    set(x, y, z, Blocks.dirt.getDefaultState());
+                }
+                for (int y = FLOOR_Y + 1; y < FLOOR_Y + 12; y++) {
+                    if (random.nextInt(12) == 0) {
+                        set(x, y, z, obstacles[random.nextInt(obstacles.length)]);
+                    }
+                }
+            }
+        }
+    }
+
+    private void set(int x, int y, int z, IBlockState state) {
+        Chunk chunk = chunks.provideChunk(x >> 4, z >> 4);
+        ExtendedBlockStorage[] storages = chunk.getBlockStorageArray();
+        if (storages[y >> 4] == null) {
+            storages[y >> 4] = new ExtendedBlockStorage(y >> 4 << 4, true);
+        }
+        storages[y >> 4].set(x & 15, y & 15, z & 15, state);
+    }
+
+    @Override
+    protected IChunkProvider createChunkProvider() {
+        return chunks;
+    }
+
+    @Override
+    protected int getRenderDistanceChunks() {
+        return RADIUS_CHUNKS;
+    }
+}
@@ -7,22 +7,31 @@ import com.google.gson.GsonBuilder;
 import com.jelly.farmhelperv2.command.FarmHelperMainCommand;
 import com.jelly.farmhelperv2.command.RewarpCommand;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
-import com.jelly.farmhelperv2.event.MillisecondEvent;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.FeatureManager;
 import com.jelly.farmhelperv2.feature.impl.BanInfoWS;
+import com.jelly.farmhelperv2.feature.impl.LagDetector;
 import com.jelly.farmhelperv2.feature.impl.MovRecPlayer;
+import com.jelly.farmhelperv2.feature.impl.ProfitCalculator;
+import com.jelly.farmhelperv2.handler.BlockChangeRouter;
 import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.MacroHandler;
+import com.jelly.farmhelperv2.handler.PacketRouter;
 import com.jelly.farmhelperv2.handler.RotationHandler;
 import com.jelly.farmhelperv2.pathfinder.FlyPathFinderExecutor;
+import com.jelly.farmhelperv2.pathfinder.PassabilitySnapshot;
+import com.jelly.farmhelperv2.pathfinder.RouteCache;
 import com.jelly.farmhelperv2.remote.DiscordBotHandler;
 import com.jelly.farmhelperv2.remote.WebsocketHandler;
 import com.jelly.farmhelperv2.util.*;
 import com.jelly.farmhelperv2.util.helper.AudioManager;
 import com.jelly.farmhelperv2.util.helper.BaritoneEventListener;
+import com.jelly.farmhelperv2.util.helper.CropIndex;
+import com.jelly.farmhelperv2.util.helper.PlayerBlockWindow;
+import com.jelly.farmhelperv2.util.helper.ScoreboardModel;
 import com.jelly.farmhelperv2.util.helper.TickTask;
 import net.minecraft.client.Minecraft;
+import net.minecraft.network.play.server.*;
 import net.minecraftforge.client.ClientCommandHandler;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.Loader;
@@ -30,6 +39,7 @@ import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.ModContainer;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import org.lwjgl.opengl.Display;
@@ -38,9 +48,6 @@ import java.io.File;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Optional;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Mod(modid = "farmhelperv2", useMetadata = true)
 public class FarmHelper {
@@ -61,6 +68,8 @@ public class FarmHelper {
     public void init(FMLInitializationEvent event) {
         initializeFields();
         initializeListeners();
+        initializePacketRoutes();
+        initializeBlockChangeRoutes();
         initializeCommands();
         FeatureManager.getInstance().fillFeatures().forEach(MinecraftForge.EVENT_BUS::register);
 
@@ -75,8 +84,6 @@ public class FarmHelper {
         FailsafeUtils.getInstance();
         PlotUtils.init();
 
-        ScheduledExecutorService executorService = Executors.newScheduledThreadPool(1);
-        executorService.scheduleAtFixedRate(() -> MinecraftForge.EVENT_BUS.post(new MillisecondEvent()), 0, 1, TimeUnit.MILLISECONDS);
         BaritoneAPI.getProvider().getPrimaryBaritone().getGameEventHandler().registerEventListener(new BaritoneEventListener());
     }
 
@@ -185,17 +192,48 @@ public class FarmHelper {
         MinecraftForge.EVENT_BUS.register(GameStateHandler.getInstance());
         MinecraftForge.EVENT_BUS.register(MacroHandler.getInstance());
         MinecraftForge.EVENT_BUS.register(TickTask.getInstance());
+        MinecraftForge.EVENT_BUS.register(PlayerBlockWindow.getInstance());
+        MinecraftForge.EVENT_BUS.register(CropIndex.getInstance());
         MinecraftForge.EVENT_BUS.register(MovRecPlayer.getInstance());
         MinecraftForge.EVENT_BUS.register(WebsocketHandler.getInstance());
         if (Loader.isModLoaded("farmhelperjdadependency") && checkIfJDAVersionCorrect())
             MinecraftForge.EVENT_BUS.register(DiscordBotHandler.getInstance());
         MinecraftForge.EVENT_BUS.register(AudioManager.getInstance());
         MinecraftForge.EVENT_BUS.register(RotationHandler.getInstance());
+        MinecraftForge.EVENT_BUS.register(PassabilitySnapshot.getInstance());
         MinecraftForge.EVENT_BUS.register(FlyPathFinderExecutor.getInstance());
+        MinecraftForge.EVENT_BUS.register(RouteCache.getInstance());
+        MinecraftForge.EVENT_BUS.register(BlockChangeRouter.getInstance());
         MinecraftForge.EVENT_BUS.register(new TablistUtils());
         MinecraftForge.EVENT_BUS.register(new ScoreboardUtils());
     }
 
+    private void initializePacketRoutes() {
+        PacketRouter router = PacketRouter.getInstance();
+        router.subscribe(S08PacketPlayerPosLook.class, EventPriority.HIGHEST, FailsafeManager.getInstance()::onReceivedPacketDetection);
+        router.subscribe(S12PacketEntityVelocity.class, EventPriority.HIGHEST, FailsafeManager.getInstance()::onReceivedPacketDetection);
+        router.subscribe(S2FPacketSetSlot.class, EventPriority.HIGHEST, FailsafeManager.getInstance()::onReceivedPacketDetection);
+        router.subscribe(S08PacketPlayerPosLook.class, MacroHandler.getInstance()::onTeleportPacket);
+        router.subscribe(S08PacketPlayerPosLook.class, EventPriority.LOWEST, FlyPathFinderExecutor.getInstance()::onTeleportPacket);
+        router.subscribe(S2FPacketSetSlot.class, GameStateHandler.getInstance()::onSetSlotPacket);
+        router.subscribe(S2FPacketSetSlot.class, ProfitCalculator.getInstance()::onSetSlotPacket);
+        router.subscribe(S03PacketTimeUpdate.class, LagDetector.getInstance()::onTimeUpdatePacket);
+        router.subscribe(S40PacketDisconnect.class, BanInfoWS.getInstance()::onDisconnectPacket);
+        router.subscribe(S01PacketJoinGame.class, ScoreboardModel.getInstance()::onJoinGame);
+        router.subscribe(S3BPacketScoreboardObjective.class, ScoreboardModel.getInstance()::onObjective);
+        router.subscribe(S3CPacketUpdateScore.class, ScoreboardModel.getInstance()::onScore);
+        router.subscribe(S3DPacketDisplayScoreboard.class, ScoreboardModel.getInstance()::onDisplayObjective);
+        router.subscribe(S3EPacketTeams.class, ScoreboardModel.getInstance()::onTeam);
+    }
+
+    private void initializeBlockChangeRoutes() {
+        BlockChangeRouter router = BlockChangeRouter.getInstance();
+        router.subscribe(BlockChangeRouter.whileMacroToggled().and(FailsafeManager.getInstance()::isWatchingBlocks), EventPriority.HIGHEST, FailsafeManager.getInstance()::onBlockChanges);
+        router.subscribe(PlayerBlockWindow.getInstance()::isInWindow, PlayerBlockWindow.getInstance()::onBlockChanges);
+        router.subscribe(CropIndex.getInstance()::isTracked, CropIndex.getInstance()::onBlockChanges);
+        router.subscribe(PassabilitySnapshot.getInstance()::mayChangePassability, PassabilitySnapshot.getInstance()::onBlockChanges);
+    }
+
     private void initializeFields() {
         config = new FarmHelperConfig();
     }
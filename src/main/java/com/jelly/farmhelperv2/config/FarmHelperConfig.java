@@ -1408,6 +1408,12 @@ public class FarmHelperConfig extends Config {
     )
     public static boolean flyPathfinderOringoCompatible = false;
 
+    @Switch(
+            name = "Remember fly routes between restarts", category = PESTS_DESTROYER, subcategory = "Pests Destroyer",
+            description = "Saves the fly pathfinder's most used routes to config/farmhelperv2/fly_routes.json. They are checked against the world before being reused."
+    )
+    public static boolean persistFlyRoutes = false;
+
     @Switch(
             name = "Pause the Pests Destroyer during Jacob's contests", category = PESTS_DESTROYER, subcategory = "Pests Destroyer",
             description = "Pauses the Pests Destroyer during Jacob's contests",
@@ -1,13 +1,11 @@
 package com.jelly.farmhelperv2.config.struct;
 
+import com.jelly.farmhelperv2.util.HttpClient;
 import lombok.Getter;
 
-import javax.net.ssl.HttpsURLConnection;
 import java.awt.*;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.lang.reflect.Array;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.*;
@@ -16,6 +14,7 @@ import java.util.*;
  * Class used to execute Discord Webhooks with low effort
  */
 @SuppressWarnings("unused")
+@Getter
 public class DiscordWebhook {
 
     private final String url;
@@ -55,6 +54,16 @@ public class DiscordWebhook {
     }
 
     public void execute() throws IOException {
+        String json = toJson();
+
+        System.out.println("Sending request: " + json);
+
+        HttpClient.getInstance().post(this.url, "application/json", json.getBytes(StandardCharsets.UTF_8))
+                .header("User-Agent", "Java-DiscordWebhook-BY-Gelox_")
+                .send();
+    }
+
+    public String toJson() {
         if (this.content == null && this.embeds.isEmpty()) {
             throw new IllegalArgumentException("Set content or add at least one EmbedObject");
         }
@@ -140,22 +149,7 @@ public class DiscordWebhook {
             json.put("embeds", embedObjects.toArray());
         }
 
-        URL url = new URL(this.url);
-        HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-        connection.addRequestProperty("Content-Type", "application/json");
-        connection.addRequestProperty("User-Agent", "Java-DiscordWebhook-BY-Gelox_");
-        connection.setDoOutput(true);
-        connection.setRequestMethod("POST");
-
-        System.out.println("Sending request: " + json);
-
-        OutputStream stream = connection.getOutputStream();
-        stream.write(json.toString().getBytes(StandardCharsets.UTF_8));
-        stream.flush();
-        stream.close();
-
-        connection.getInputStream().close(); //I'm not sure why but it doesn't work without getting the InputStream
-        connection.disconnect();
+        return json.toString();
     }
 
     @Getter
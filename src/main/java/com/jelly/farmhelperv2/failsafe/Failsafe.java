@@ -1,8 +1,8 @@
 package com.jelly.farmhelperv2.failsafe;
 
 import com.jelly.farmhelperv2.event.BlockChangeEvent;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import net.minecraft.client.Minecraft;
+import net.minecraft.network.Packet;
 import net.minecraftforge.client.event.ClientChatReceivedEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
@@ -26,7 +26,7 @@ public abstract class Failsafe {
     public void onBlockChange(BlockChangeEvent event) {
     }
 
-    public void onReceivedPacketDetection(ReceivePacketEvent event) {
+    public void onReceivedPacketDetection(Packet<?> packet) {
     }
 
     public void onTickDetection(TickEvent.ClientTickEvent event) {
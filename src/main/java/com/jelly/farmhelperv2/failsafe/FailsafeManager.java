@@ -3,7 +3,6 @@ package com.jelly.farmhelperv2.failsafe;
 import cc.polyfrost.oneconfig.utils.Multithreading;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.event.BlockChangeEvent;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.impl.*;
 import com.jelly.farmhelperv2.feature.FeatureManager;
 import com.jelly.farmhelperv2.feature.impl.BanInfoWS;
@@ -16,8 +15,11 @@ import com.jelly.farmhelperv2.util.helper.AudioManager;
 import com.jelly.farmhelperv2.util.helper.Clock;
 import lombok.Getter;
 import lombok.Setter;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
+import net.minecraft.network.Packet;
 import net.minecraft.util.StringUtils;
+import net.minecraft.world.World;
 import net.minecraftforge.client.event.ClientChatReceivedEvent;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.event.world.WorldEvent;
@@ -141,29 +143,30 @@ public class FailsafeManager {
         restartMacroAfterFailsafeDelay.reset();
     }
 
-    @SubscribeEvent(priority = EventPriority.HIGHEST)
-    public void onBlockChange(BlockChangeEvent event) {
-        if (mc.thePlayer == null || mc.theWorld == null) return;
-        if (!MacroHandler.getInstance().isMacroToggled()) return;
-        if (triggeredFailsafe.isPresent()) return;
-        if (FeatureManager.getInstance().shouldIgnoreFalseCheck()) return;
+    public boolean isWatchingBlocks(World world, int x, int y, int z, IBlockState old, IBlockState update) {
+        if (mc.thePlayer == null || mc.theWorld == null) return false;
+        if (triggeredFailsafe.isPresent()) return false;
+        return !FeatureManager.getInstance().shouldIgnoreFalseCheck();
+    }
 
-        failsafes.forEach(failsafe -> failsafe.onBlockChange(event));
+    public void onBlockChanges(List<BlockChangeEvent> changes) {
+        for (BlockChangeEvent event : changes) {
+            failsafes.forEach(failsafe -> failsafe.onBlockChange(event));
+        }
     }
 
-    @SubscribeEvent(priority = EventPriority.HIGHEST)
-    public void onReceivedPacketDetection(ReceivePacketEvent event) {
+    public void onReceivedPacketDetection(Packet<?> packet) {
         if (mc.thePlayer == null || mc.theWorld == null) return;
         if (!MacroHandler.getInstance().isMacroToggled()) return;
         if (triggeredFailsafe.isPresent()) {
             if (triggeredFailsafe.get().equals(BedrockCageFailsafe.getInstance())) {
-                BedrockCageFailsafe.getInstance().onReceivedPacketDetection(event);
+                BedrockCageFailsafe.getInstance().onReceivedPacketDetection(packet);
             }
             return;
         }
         if (FeatureManager.getInstance().shouldIgnoreFalseCheck()) return;
 
-        failsafes.forEach(failsafe -> failsafe.onReceivedPacketDetection(event));
+        failsafes.forEach(failsafe -> failsafe.onReceivedPacketDetection(packet));
     }
 
     @SubscribeEvent(priority = EventPriority.HIGHEST)
@@ -3,7 +3,6 @@ package com.jelly.farmhelperv2.failsafe.impl;
 import cc.polyfrost.oneconfig.utils.Multithreading;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.config.page.FailsafeNotificationsPage;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.Failsafe;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.impl.AutoReconnect;
@@ -13,6 +12,7 @@ import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.util.LogUtils;
 import com.jelly.farmhelperv2.util.helper.AudioManager;
 import net.minecraft.util.ChatComponentText;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 import java.util.concurrent.TimeUnit;
 
@@ -98,7 +98,7 @@ public class BanwaveFailsafe extends Failsafe {
     }
 
     @Override
-    public void onReceivedPacketDetection(ReceivePacketEvent event) {
+    public void onTickDetection(TickEvent.ClientTickEvent event) {
         if (!BanInfoWS.getInstance().isBanwave()) return;
         if (!FarmHelperConfig.banwaveCheckerEnabled) return;
         if (!FarmHelperConfig.enableLeavePauseOnBanwave) return;
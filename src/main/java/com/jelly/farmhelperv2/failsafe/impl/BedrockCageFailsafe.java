@@ -4,7 +4,6 @@ import cc.polyfrost.oneconfig.utils.Multithreading;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.config.page.CustomFailsafeMessagesPage;
 import com.jelly.farmhelperv2.config.page.FailsafeNotificationsPage;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.Failsafe;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.impl.MovRecPlayer;
@@ -18,6 +17,7 @@ import com.jelly.farmhelperv2.util.PlayerUtils;
 import com.jelly.farmhelperv2.util.helper.Rotation;
 import com.jelly.farmhelperv2.util.helper.RotationConfiguration;
 import net.minecraft.init.Blocks;
+import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.S08PacketPlayerPosLook;
 import net.minecraft.util.BlockPos;
 
@@ -64,15 +64,15 @@ public class BedrockCageFailsafe extends Failsafe {
     }
 
     @Override
-    public void onReceivedPacketDetection(ReceivePacketEvent event) {
+    public void onReceivedPacketDetection(Packet<?> packet) {
         if (MacroHandler.getInstance().isTeleporting()) return;
-        if (!(event.packet instanceof S08PacketPlayerPosLook)) {
+        if (!(packet instanceof S08PacketPlayerPosLook)) {
             return;
         }
         if (mc.thePlayer.getPosition().getY() < 66) return;
-        S08PacketPlayerPosLook packet = (S08PacketPlayerPosLook) event.packet;
+        S08PacketPlayerPosLook posLookPacket = (S08PacketPlayerPosLook) packet;
 
-        if (packet.getY() > 80) {
+        if (posLookPacket.getY() > 80) {
             rotationBeforeTeleporting = new Rotation(mc.thePlayer.prevRotationYaw, mc.thePlayer.prevRotationPitch);
             positionBeforeTeleporting = mc.thePlayer.getPosition();
             Multithreading.schedule(() -> {
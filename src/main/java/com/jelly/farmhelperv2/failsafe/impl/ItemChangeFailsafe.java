@@ -2,7 +2,6 @@ package com.jelly.farmhelperv2.failsafe.impl;
 
 import cc.polyfrost.oneconfig.utils.Multithreading;
 import com.jelly.farmhelperv2.config.page.FailsafeNotificationsPage;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.Failsafe;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.impl.MovRecPlayer;
@@ -13,6 +12,7 @@ import com.jelly.farmhelperv2.util.PlayerUtils;
 import net.minecraft.item.ItemAxe;
 import net.minecraft.item.ItemHoe;
 import net.minecraft.item.ItemStack;
+import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.S2FPacketSetSlot;
 
 import java.util.concurrent.TimeUnit;
@@ -57,13 +57,13 @@ public class ItemChangeFailsafe extends Failsafe {
     }
 
     @Override
-    public void onReceivedPacketDetection(ReceivePacketEvent event) {
+    public void onReceivedPacketDetection(Packet<?> packet) {
         if (MacroHandler.getInstance().isTeleporting()) return;
 
-        if (!(event.packet instanceof S2FPacketSetSlot)) return;
+        if (!(packet instanceof S2FPacketSetSlot)) return;
 
-        S2FPacketSetSlot packet = (S2FPacketSetSlot) event.packet;
-        int slot = packet.func_149173_d();
+        S2FPacketSetSlot setSlotPacket = (S2FPacketSetSlot) packet;
+        int slot = setSlotPacket.func_149173_d();
 
 //        if (slot >= 36 && slot < 45 && mc.thePlayer.inventory.currentItem + 36 == slot)
 //            LogUtils.sendSuccess("[Failsafe] Failsafe triggered!");
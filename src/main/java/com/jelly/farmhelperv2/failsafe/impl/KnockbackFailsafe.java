@@ -3,7 +3,6 @@ package com.jelly.farmhelperv2.failsafe.impl;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.config.page.CustomFailsafeMessagesPage;
 import com.jelly.farmhelperv2.config.page.FailsafeNotificationsPage;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.Failsafe;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.FeatureManager;
@@ -21,6 +20,7 @@ import com.jelly.farmhelperv2.util.helper.Rotation;
 import com.jelly.farmhelperv2.util.helper.RotationConfiguration;
 import net.minecraft.block.Block;
 import net.minecraft.init.Blocks;
+import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.S12PacketEntityVelocity;
 import net.minecraft.util.AxisAlignedBB;
 import net.minecraft.util.BlockPos;
@@ -66,15 +66,15 @@ public class KnockbackFailsafe extends Failsafe {
     }
 
     @Override
-    public void onReceivedPacketDetection(ReceivePacketEvent event) {
+    public void onReceivedPacketDetection(Packet<?> packet) {
         if (MacroHandler.getInstance().isTeleporting())
             return;
-        if (!(event.packet instanceof S12PacketEntityVelocity)) {
+        if (!(packet instanceof S12PacketEntityVelocity)) {
             return;
         }
-        if (((S12PacketEntityVelocity) event.packet).getEntityID() != mc.thePlayer.getEntityId())
+        if (((S12PacketEntityVelocity) packet).getEntityID() != mc.thePlayer.getEntityId())
             return;
-        if (((S12PacketEntityVelocity) event.packet).getMotionY() < FarmHelperConfig.verticalKnockbackThreshold)
+        if (((S12PacketEntityVelocity) packet).getMotionY() < FarmHelperConfig.verticalKnockbackThreshold)
             return;
 
         if (FlyPathFinderExecutor.getInstance().isRunning()) {
@@ -90,7 +90,7 @@ public class KnockbackFailsafe extends Failsafe {
 
         rotationBeforeReacting = new Rotation(mc.thePlayer.rotationYaw, mc.thePlayer.rotationPitch);
         positionBeforeReacting = mc.thePlayer.getPosition();
-        LogUtils.sendWarning("[Failsafe] Knockback detected! MotionY: " + ((S12PacketEntityVelocity) event.packet).getMotionY());
+        LogUtils.sendWarning("[Failsafe] Knockback detected! MotionY: " + ((S12PacketEntityVelocity) packet).getMotionY());
 
         FailsafeManager.getInstance().possibleDetection(this);
     }
@@ -62,7 +62,8 @@ public class LowerAvgBpsFailsafe extends Failsafe {
     public void onTickDetection(TickEvent.ClientTickEvent event) {
         if (event.phase != TickEvent.Phase.END) return;
 
-        float currentBPS = BPSTracker.getInstance().getBPSFloat();
+        // The moving average, so short dips like a lag spike don't count as farming slower
+        float currentBPS = BPSTracker.getInstance().getBPSEma();
         boolean shouldReset = FeatureManager.getInstance().shouldPauseMacroExecution()
                 || BPSTracker.getInstance().dontCheckForBPS()
                 || !FarmHelperConfig.enableBpsCheck
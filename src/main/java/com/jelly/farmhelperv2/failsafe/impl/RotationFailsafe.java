@@ -3,7 +3,6 @@ package com.jelly.farmhelperv2.failsafe.impl;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.config.page.CustomFailsafeMessagesPage;
 import com.jelly.farmhelperv2.config.page.FailsafeNotificationsPage;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.Failsafe;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.FeatureManager;
@@ -20,6 +19,7 @@ import com.jelly.farmhelperv2.util.LogUtils;
 import com.jelly.farmhelperv2.util.helper.Clock;
 import com.jelly.farmhelperv2.util.helper.Rotation;
 import com.jelly.farmhelperv2.util.helper.RotationConfiguration;
+import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.S08PacketPlayerPosLook;
 import net.minecraft.util.BlockPos;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
@@ -65,10 +65,10 @@ public class RotationFailsafe extends Failsafe {
     }
 
     @Override
-    public void onReceivedPacketDetection(ReceivePacketEvent event) {
+    public void onReceivedPacketDetection(Packet<?> packet) {
         if (MacroHandler.getInstance().isTeleporting())
             return;
-        if (!(event.packet instanceof S08PacketPlayerPosLook)) {
+        if (!(packet instanceof S08PacketPlayerPosLook)) {
             return;
         }
 
@@ -77,9 +77,9 @@ public class RotationFailsafe extends Failsafe {
             return;
         }
 
-        S08PacketPlayerPosLook packet = (S08PacketPlayerPosLook) event.packet;
-        double packetYaw = packet.getYaw();
-        double packetPitch = packet.getPitch();
+        S08PacketPlayerPosLook posLookPacket = (S08PacketPlayerPosLook) packet;
+        double packetYaw = posLookPacket.getYaw();
+        double packetPitch = posLookPacket.getPitch();
         double playerYaw = mc.thePlayer.rotationYaw;
         double playerPitch = mc.thePlayer.rotationPitch;
         double yawDiff = Math.abs(packetYaw - playerYaw);
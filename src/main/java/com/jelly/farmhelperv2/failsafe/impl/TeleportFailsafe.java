@@ -4,7 +4,6 @@ import com.google.common.collect.EvictingQueue;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.config.page.CustomFailsafeMessagesPage;
 import com.jelly.farmhelperv2.config.page.FailsafeNotificationsPage;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.Failsafe;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.FeatureManager;
@@ -21,6 +20,7 @@ import com.jelly.farmhelperv2.util.*;
 import com.jelly.farmhelperv2.util.helper.Clock;
 import com.jelly.farmhelperv2.util.helper.Rotation;
 import com.jelly.farmhelperv2.util.helper.RotationConfiguration;
+import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.S08PacketPlayerPosLook;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.Tuple;
@@ -76,10 +76,10 @@ public class TeleportFailsafe extends Failsafe {
     }
 
     @Override
-    public void onReceivedPacketDetection(ReceivePacketEvent event) {
+    public void onReceivedPacketDetection(Packet<?> packet) {
         if (MacroHandler.getInstance().isTeleporting())
             return;
-        if (!(event.packet instanceof S08PacketPlayerPosLook)) {
+        if (!(packet instanceof S08PacketPlayerPosLook)) {
             return;
         }
 
@@ -88,12 +88,12 @@ public class TeleportFailsafe extends Failsafe {
             return;
         }
 
-        S08PacketPlayerPosLook packet = (S08PacketPlayerPosLook) event.packet;
+        S08PacketPlayerPosLook posLookPacket = (S08PacketPlayerPosLook) packet;
         Vec3 currentPlayerPos = mc.thePlayer.getPositionVector();
         Vec3 packetPlayerPos = new Vec3(
-                packet.getX() + (packet.func_179834_f().contains(S08PacketPlayerPosLook.EnumFlags.X) ? currentPlayerPos.xCoord : 0),
-                packet.getY() + (packet.func_179834_f().contains(S08PacketPlayerPosLook.EnumFlags.Y) ? currentPlayerPos.yCoord : 0),
-                packet.getZ() + (packet.func_179834_f().contains(S08PacketPlayerPosLook.EnumFlags.Z) ? currentPlayerPos.zCoord : 0)
+                posLookPacket.getX() + (posLookPacket.func_179834_f().contains(S08PacketPlayerPosLook.EnumFlags.X) ? currentPlayerPos.xCoord : 0),
+                posLookPacket.getY() + (posLookPacket.func_179834_f().contains(S08PacketPlayerPosLook.EnumFlags.Y) ? currentPlayerPos.yCoord : 0),
+                posLookPacket.getZ() + (posLookPacket.func_179834_f().contains(S08PacketPlayerPosLook.EnumFlags.Z) ? currentPlayerPos.zCoord : 0)
         );
 
         BlockPos packetPlayerBlockPos = new BlockPos(packetPlayerPos);
@@ -154,7 +154,7 @@ public class TeleportFailsafe extends Failsafe {
             return;
         }
 
-        if (packet.getY() >= 90 || BlockUtils.bedrockCount() > 2) {
+        if (posLookPacket.getY() >= 90 || BlockUtils.bedrockCount() > 2) {
             LogUtils.sendDebug("[Failsafe] Most likely a bedrock check! Will check in a moment to be sure.");
             return;
         }
@@ -176,7 +176,7 @@ public class TeleportFailsafe extends Failsafe {
         double distance = currentPlayerPos.distanceTo(packetPlayerPos);
 
         LogUtils.sendDebug("[Failsafe] Teleport packet received! Distance: " + distance);
-        if (distance >= FarmHelperConfig.teleportDistanceThreshold || (MacroHandler.getInstance().getCurrentMacro().isPresent() && Math.abs(packet.getY()) - Math.abs(MacroHandler.getInstance().getCurrentMacro().get().getLayerY()) > 0.8)) {
+        if (distance >= FarmHelperConfig.teleportDistanceThreshold || (MacroHandler.getInstance().getCurrentMacro().isPresent() && Math.abs(posLookPacket.getY()) - Math.abs(MacroHandler.getInstance().getCurrentMacro().get().getLayerY()) > 0.8)) {
             LogUtils.sendDebug("[Failsafe] Teleport detected! Distance: " + distance);
             final double lastReceivedPacketDistance = currentPlayerPos.distanceTo(LagDetector.getInstance().getLastPacketPosition());
             // blocks per tick
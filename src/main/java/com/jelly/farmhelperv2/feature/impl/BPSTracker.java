@@ -8,24 +8,23 @@ import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.macro.AbstractMacro;
 import com.jelly.farmhelperv2.util.LogUtils;
+import com.jelly.farmhelperv2.util.helper.BlockRateWindow;
 import net.minecraft.block.BlockCrops;
 import net.minecraft.block.BlockNetherWart;
 import net.minecraft.block.BlockReed;
 import net.minecraft.client.Minecraft;
 import net.minecraft.init.Blocks;
-import net.minecraft.util.Tuple;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 import java.text.NumberFormat;
-import java.util.LinkedList;
 import java.util.Locale;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.TimeUnit;
 
 public class BPSTracker implements IFeature {
     private static BPSTracker instance;
-    public final ConcurrentLinkedDeque<Tuple<Long, Long>> bpsQueue = new ConcurrentLinkedDeque<>();
+    // 10 seconds of client ticks, with headroom for ticks that run late and catch up
+    public final BlockRateWindow bpsWindow = new BlockRateWindow(512, 10_000L);
     public long blocksBroken = 0;
     public long totalBlocksBroken = 0;
     private final NumberFormat oneDecimalDigitFormatter = NumberFormat.getNumberInstance(Locale.US);
@@ -55,15 +54,6 @@ public class BPSTracker implements IFeature {
         }
     }
 
-    private void adjustQueueTimestamps(long pauseDuration) {
-        LinkedList<Tuple<Long, Long>> adjustedQueue = new LinkedList<>();
-        for (Tuple<Long, Long> element : bpsQueue) {
-            adjustedQueue.add(new Tuple<>(element.getFirst(), element.getSecond() + pauseDuration));
-        }
-        bpsQueue.clear();
-        bpsQueue.addAll(adjustedQueue);
-    }
-
     @Override
     public void resume() {
         if (isPaused && !isResumingScheduled) {
@@ -77,7 +67,7 @@ public class BPSTracker implements IFeature {
                 if (pauseDuration < 0 || pauseDuration > 3600000) {
                     LogUtils.sendDebug("BPSTracker: Invalid pause duration: " + pauseDuration + "ms. Ignoring.");
                 } else {
-                    adjustQueueTimestamps(pauseDuration);
+                    bpsWindow.shiftTimestamps(pauseDuration);
                 }
                 isPaused = false;
                 pauseStartTime = 0;
@@ -87,7 +77,7 @@ public class BPSTracker implements IFeature {
 
     @Override
     public void start() {
-        bpsQueue.clear();
+        bpsWindow.clear();
         totalBlocksBroken = 0;
         IFeature.super.start();
     }
@@ -108,27 +98,12 @@ public class BPSTracker implements IFeature {
             resume();
         if (isPaused) return;
 
-        long currentTime = System.currentTimeMillis();
-        bpsQueue.add(new Tuple<>(blocksBroken, currentTime));
+        bpsWindow.add(blocksBroken, System.currentTimeMillis());
         blocksBroken = 0;
 
-        while (!bpsQueue.isEmpty() && bpsQueue.getFirst() == null) {
-            bpsQueue.removeFirst();
-        }
-
-        if (bpsQueue.size() > 1) {
-            // added small epsilon to prevent division by very small numbers and zero
-            elapsedTime = Math.max((bpsQueue.getLast().getSecond() - bpsQueue.getFirst().getSecond()) / 1000f, 0.001f);
-            while (elapsedTime > 10f && bpsQueue.size() > 1) {
-                bpsQueue.pollFirst();
-                elapsedTime = (currentTime - bpsQueue.getFirst().getSecond()) / 1000f;
-            }
-
-            totalBlocksBroken = 0;
-            for (Tuple<Long, Long> element : bpsQueue) {
-                totalBlocksBroken += element.getFirst();
-            }
-            totalBlocksBroken -= bpsQueue.getFirst().getFirst();
+        if (bpsWindow.size() > 1) {
+            elapsedTime = bpsWindow.getElapsedSeconds();
+            totalBlocksBroken = bpsWindow.getBlocksInWindow();
         }
     }
 
@@ -151,15 +126,30 @@ public class BPSTracker implements IFeature {
 
     public float getBPSFloat() {
         if (!MacroHandler.getInstance().getMacroingTimer().isScheduled()) return 0;
-        if (dontCheckForBPS() || isPaused || bpsQueue.size() < 2) {
+        if (dontCheckForBPS() || isPaused || bpsWindow.size() < 2) {
             return lastKnownBPS;
         }
 
-        float elapsedTime = (bpsQueue.getLast().getSecond() - bpsQueue.getFirst().getSecond()) / 1000f;
+        float elapsedTime = bpsWindow.getElapsedSeconds();
         lastKnownBPS = totalBlocksBroken == 0 ? 0.1f : Math.max(((int) ((double) this.totalBlocksBroken / elapsedTime * 10.0D)) / 10.0F, 0.1f);
         return lastKnownBPS;
     }
 
+    /**
+     * Blocks per second averaged over the last few seconds, a single slow tick barely moves it.
+     */
+    public float getBPSEma() {
+        if (!MacroHandler.getInstance().getMacroingTimer().isScheduled()) return 0;
+        if (dontCheckForBPS() || isPaused || bpsWindow.size() < 2) {
+            return lastKnownBPS;
+        }
+        return bpsWindow.getEma(System.currentTimeMillis());
+    }
+
+    public float getBPSPercentile(double percentile) {
+        return bpsWindow.getPercentile(percentile);
+    }
+
     @SubscribeEvent
     public void onBlockChange(PlayerDestroyBlockEvent event) {
         if (!MacroHandler.getInstance().isMacroToggled()) return;
@@ -237,7 +227,7 @@ public class BPSTracker implements IFeature {
 
     @Override
     public void resetStatesAfterMacroDisabled() {
-        bpsQueue.clear();
+        bpsWindow.clear();
         totalBlocksBroken = 0;
         blocksBroken = 0;
         lastKnownBPS = 0;
@@ -4,7 +4,6 @@ import cc.polyfrost.oneconfig.utils.Multithreading;
 import com.google.gson.*;
 import com.jelly.farmhelperv2.FarmHelper;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.IFeature;
 import com.jelly.farmhelperv2.handler.GameStateHandler;
@@ -12,11 +11,11 @@ import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.util.FailsafeUtils;
 import com.jelly.farmhelperv2.util.LogUtils;
 import com.jelly.farmhelperv2.util.helper.Clock;
+import com.jelly.farmhelperv2.util.helper.SessionLog;
 import com.mojang.authlib.exceptions.AuthenticationException;
 import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.client.Minecraft;
-import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.S40PacketDisconnect;
 import net.minecraft.util.StringUtils;
 import net.minecraftforge.fml.common.Loader;
@@ -33,11 +32,9 @@ import java.io.*;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
-import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 public class BanInfoWS implements IFeature {
@@ -77,6 +74,8 @@ public class BanInfoWS implements IFeature {
 
     public static final File statsDirectory = new File(Minecraft.getMinecraft().mcDataDir, "farmhelper");
     public static final String fileNamePrefix = "fh_stats_";
+    private static SessionLog sessionLog;
+    private static String sessionLogUUID;
 
     public BanInfoWS() {
         try {
@@ -241,13 +240,9 @@ public class BanInfoWS implements IFeature {
         }
     }
 
-    @SubscribeEvent
-    public void onReceivePacket(ReceivePacketEvent event) {
-        Packet<?> packet = event.packet;
-        if (packet instanceof S40PacketDisconnect) {
-            String reason = ((S40PacketDisconnect) packet).getReason().getFormattedText();
-            processBanScreen(reason);
-        }
+    public void onDisconnectPacket(S40PacketDisconnect packet) {
+        String reason = packet.getReason().getFormattedText();
+        processBanScreen(reason);
     }
 
     // SKYSKIPPED BAN STATS
@@ -465,95 +460,46 @@ public class BanInfoWS implements IFeature {
     }
 
     public void saveStats() {
-        JsonObject jsonObject = new JsonObject();
-        jsonObject.addProperty("id", Minecraft.getMinecraft().getSession().getPlayerID());
-        jsonObject.addProperty("modVersion", FarmHelper.VERSION);
-        jsonObject.addProperty("timeMacroing", MacroHandler.getInstance().getAnalyticsTimer().getElapsedTime());
-        jsonObject.addProperty("fastBreak", FarmHelperConfig.fastBreak);
-        jsonObject.addProperty("timestamp", System.currentTimeMillis());
-
-        JsonArray jsonArray = readJsonArrayFromFile();
-        jsonArray.add(jsonObject);
-        writeJsonArrayToFile(jsonArray);
+        long timeMacroing = MacroHandler.getInstance().getAnalyticsTimer().getElapsedTime();
+        long timestamp = System.currentTimeMillis();
+        try {
+            getSessionLog().append(timestamp, timeMacroing, FarmHelperConfig.fastBreak);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        UsageStatsTracker.getInstance().onSessionSaved(timestamp, timeMacroing);
     }
 
     public long getLongestSessionLast7D() {
-        if (FarmHelperConfig.longTermUserStats) {
-            long sevenDaysAgo = System.currentTimeMillis() - 604800000L; // 7 days in milliseconds
-            JsonArray jsonArray = readJsonArrayFromFile();
-            long longestSessionLength = 0L;
-
-            for (JsonElement element : jsonArray) {
-                JsonObject session = element.getAsJsonObject();
-                long sessionTimestamp = session.get("timestamp").getAsLong();
-                if (sessionTimestamp >= sevenDaysAgo) {
-                    long sessionLength = session.get("timeMacroing").getAsLong();
-                    if (sessionLength > longestSessionLength) {
-                        longestSessionLength = sessionLength;
-                    }
-                }
-            }
-            return longestSessionLength;
-        }
-
         long sevenDaysAgo = System.currentTimeMillis() - 604800000L; // 7 days in milliseconds
-        JsonArray jsonArray = readJsonArrayFromFile();
-        JsonArray updatedJsonArray = new JsonArray();
         long longestSessionLength = 0L;
-
-        for (JsonElement element : jsonArray) {
-            JsonObject session = element.getAsJsonObject();
-            long sessionTimestamp = session.get("timestamp").getAsLong();
-            if (sessionTimestamp >= sevenDaysAgo) {
-                long sessionLength = session.get("timeMacroing").getAsLong();
-                if (sessionLength > longestSessionLength) {
-                    longestSessionLength = sessionLength;
-                }
-                updatedJsonArray.add(session);
+        for (SessionLog.Record session : getSessionLog().readSince(sevenDaysAgo)) {
+            if (session.timeMacroing > longestSessionLength) {
+                longestSessionLength = session.timeMacroing;
             }
         }
-        // every time a user gets banned this function will run. it will delete entries in the json that are older than 7d
-        writeJsonArrayToFile(updatedJsonArray);
-        return longestSessionLength;
-
-    }
-
-    private JsonArray readJsonArrayFromFile() {
-        String playerUUID = Minecraft.getMinecraft().getSession().getPlayerID().replace("-", "");
-        File statsFile = new File(statsDirectory, fileNamePrefix + playerUUID + ".dat");
-
-        if (statsFile.exists()) {
-            try (FileInputStream fis = new FileInputStream(statsFile);
-                 GZIPInputStream gzis = new GZIPInputStream(fis);
-                 InputStreamReader isr = new InputStreamReader(gzis, StandardCharsets.UTF_8)) {
-                JsonElement parsedElement = new JsonParser().parse(isr);
-                if (parsedElement.isJsonArray()) {
-                    return parsedElement.getAsJsonArray();
-                }
-            } catch (Exception e) {
+        if (!FarmHelperConfig.longTermUserStats) {
+            // every time a user gets banned this function will run. it will delete entries that are older than 7d
+            try {
+                getSessionLog().compact(sevenDaysAgo);
+            } catch (IOException e) {
                 e.printStackTrace();
             }
         }
-        return new JsonArray(); // return an empty array if file doesn't exist or error occurs
+        return longestSessionLength;
     }
 
-    private void writeJsonArrayToFile(JsonArray jsonArray) {
+    /**
+     * The log of the current account, a new one is opened after switching accounts.
+     */
+    public static synchronized SessionLog getSessionLog() {
         String playerUUID = Minecraft.getMinecraft().getSession().getPlayerID().replace("-", "");
-        File statsFile = new File(statsDirectory, fileNamePrefix + playerUUID + ".dat");
-
-        try {
-            if (!statsDirectory.exists()) {
-                statsDirectory.mkdirs();
-            }
-            try (FileOutputStream fos = new FileOutputStream(statsFile);
-                 GZIPOutputStream gzos = new GZIPOutputStream(fos);
-                 OutputStreamWriter osw = new OutputStreamWriter(gzos, StandardCharsets.UTF_8)) {
-                osw.write(jsonArray.toString());
-                osw.flush();
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (sessionLog == null || !playerUUID.equals(sessionLogUUID)) {
+            sessionLog = new SessionLog(new File(statsDirectory, fileNamePrefix + playerUUID + ".dat"));
+            sessionLogUUID = playerUUID;
         }
+        return sessionLog;
     }
 
     public void sendFailsafeInfo(FailsafeManager.EmergencyType type) {
@@ -7,15 +7,10 @@ import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.feature.IFeature;
 import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.util.LogUtils;
+import com.jelly.farmhelperv2.util.helper.CropIndex;
 import com.jelly.farmhelperv2.util.helper.FifoQueue;
 import lombok.Getter;
-import net.minecraft.block.Block;
-import net.minecraft.block.BlockCocoa;
-import net.minecraft.block.BlockCrops;
-import net.minecraft.block.BlockNetherWart;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.client.Minecraft;
-import net.minecraft.init.Blocks;
+import net.minecraft.util.BlockPos;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 
 import java.util.ArrayList;
@@ -24,7 +19,6 @@ import java.util.concurrent.TimeUnit;
 
 public class DesyncChecker implements IFeature {
     private static DesyncChecker instance;
-    private final Minecraft mc = Minecraft.getMinecraft();
     @Getter
     private final FifoQueue<ClickedBlockEvent> clickedBlocks = new FifoQueue<>(60);
     private boolean enabled = false;
@@ -87,7 +81,9 @@ public class DesyncChecker implements IFeature {
     public void onClickedBlock(ClickedBlockEvent event) {
         if (!isToggled()) return;
         if (!MacroHandler.getInstance().isMacroToggled()) return;
-        if (!isCrop(mc.theWorld.getBlockState(event.getPos()).getBlock())) return;
+        // Small mushrooms are indexed too, but they are never what the macro breaks
+        CropIndex cropIndex = CropIndex.getInstance();
+        if (!cropIndex.isIndexed(event.getPos()) || cropIndex.getCrop(event.getPos()) == FarmHelperConfig.CropEnum.MUSHROOM) return;
         if (FailsafeManager.getInstance().triggeredFailsafe.isPresent()) return;
         clickedBlocks.add(event);
         if (!clickedBlocks.isAtFullCapacity()) return;
@@ -105,57 +101,15 @@ public class DesyncChecker implements IFeature {
         }, FarmHelperConfig.desyncPauseDelay, TimeUnit.MILLISECONDS);
     }
 
-    private boolean isCrop(Block block) {
-        return block instanceof BlockNetherWart ||
-                block instanceof BlockCrops ||
-                block.equals(Blocks.melon_block) ||
-                block.equals(Blocks.pumpkin) ||
-                block.equals(Blocks.reeds) ||
-                block.equals(Blocks.cactus) ||
-                block.equals(Blocks.cocoa) ||
-                block.equals(Blocks.brown_mushroom_block) ||
-                block.equals(Blocks.red_mushroom_block);
-    }
-
+    /**
+     * Melon and pumpkin spots only count while they still hold a melon or pumpkin.
+     */
     private boolean checkIfDesync() {
         float RATIO = 0.75f;
-        List<ClickedBlockEvent> list = new ArrayList<>(clickedBlocks);
-        int count = 0;
-        for (ClickedBlockEvent pos : list) {
-            IBlockState state = mc.theWorld.getBlockState(pos.getPos());
-            if (state == null) continue;
-
-            switch (MacroHandler.getInstance().getCrop()) {
-                case NETHER_WART:
-                    if (state.getBlock() instanceof BlockNetherWart && state.getValue(BlockNetherWart.AGE) == 3)
-                        count++;
-                    break;
-                case SUGAR_CANE:
-                    if (state.getBlock().equals(Blocks.reeds)) count++;
-                    break;
-                case CACTUS:
-                    if (state.getBlock().equals(Blocks.cactus)) count++;
-                    break;
-                case MELON:
-                case PUMPKIN:
-                    if (!state.getBlock().equals(Blocks.air)) count++;
-                    break;
-                case MUSHROOM:
-                    if (state.getBlock().equals(Blocks.brown_mushroom_block) || state.getBlock().equals(Blocks.red_mushroom_block))
-                        count++;
-                    break;
-                case COCOA_BEANS:
-                    if (state.getBlock().equals(Blocks.cocoa) && state.getValue(BlockCocoa.AGE) == 2) count++;
-                    break;
-                case CARROT:
-                case POTATO:
-                case WHEAT:
-                    if (state.getBlock() instanceof BlockCrops && state.getValue(BlockCrops.AGE) == 7) count++;
-                    break;
-                default:
-                    // Unknown crop
-            }
+        List<BlockPos> positions = new ArrayList<>(clickedBlocks.size());
+        for (ClickedBlockEvent event : clickedBlocks) {
+            positions.add(event.getPos());
         }
-        return count / (float) list.size() >= RATIO;
+        return CropIndex.getInstance().getReadyFraction(positions, MacroHandler.getInstance().getCrop()) >= RATIO;
     }
 }
@@ -1,6 +1,5 @@
 package com.jelly.farmhelperv2.feature.impl;
 
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.feature.IFeature;
 import com.jelly.farmhelperv2.util.helper.Clock;
 import com.jelly.farmhelperv2.util.helper.FifoQueue;
@@ -99,10 +98,8 @@ public class LagDetector implements IFeature {
         tpsHistory.clear();
     }
 
-    @SubscribeEvent
-    public void onReceivePacket(ReceivePacketEvent event) {
+    public void onTimeUpdatePacket(S03PacketTimeUpdate packet) {
         if (mc.thePlayer == null || mc.theWorld == null) return;
-        if (!(event.packet instanceof S03PacketTimeUpdate)) return;
         long now = System.currentTimeMillis();
         float timeElapsed = (now - lastReceivedPacketTime) / 1000F;
         tpsHistory.add(clamp(20F / timeElapsed, 0F, 20F));
@@ -13,11 +13,13 @@ import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.handler.RotationHandler;
 import com.jelly.farmhelperv2.mixin.client.EntityPlayerAccessor;
 import com.jelly.farmhelperv2.pathfinder.FlyPathFinderExecutor;
+import com.jelly.farmhelperv2.pathfinder.MultiGoalSearch;
 import com.jelly.farmhelperv2.util.*;
 import com.jelly.farmhelperv2.util.helper.Clock;
 import com.jelly.farmhelperv2.util.helper.Rotation;
 import com.jelly.farmhelperv2.util.helper.RotationConfiguration;
 import com.jelly.farmhelperv2.util.helper.Target;
+import com.jelly.farmhelperv2.util.helper.VoxelRaycaster;
 import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.block.Block;
@@ -86,6 +88,8 @@ public class PestsDestroyer implements IFeature {
     private final Clock delayBetweenBackTaps = new Clock();
     private final Clock delayBetweenFireworks = new Clock();
     private final Clock suffocateEscapeTimer = new Clock();
+    private final VoxelRaycaster raycaster = new VoxelRaycaster();
+    private final double[] aroundTargets = new double[12];
     @Getter
     private Optional<Entity> currentEntityTarget = Optional.empty();
     private boolean enabled = false;
@@ -783,12 +787,11 @@ public class PestsDestroyer implements IFeature {
                     break;
                 }
                 float yaw = -1;
-                Vec3 playerPos = mc.thePlayer.getPositionEyes(1);
+                double eyeY = mc.thePlayer.posY + mc.thePlayer.getEyeHeight();
                 for (float i = 0; i < 360; i += 10) {
                     Vec3 testRotation = AngleUtils.getVectorForRotation(0, i);
-                    Vec3 lookVector = playerPos.addVector(testRotation.xCoord * 5, testRotation.yCoord * 5, testRotation.zCoord * 5);
-                    MovingObjectPosition mop2 = mc.theWorld.rayTraceBlocks(playerPos, lookVector, false, true, false);
-                    if (mop2 == null || mop2.typeOfHit != MovingObjectPosition.MovingObjectType.BLOCK) {
+                    if (!raycaster.cast(mc.theWorld, mc.thePlayer.posX, eyeY, mc.thePlayer.posZ,
+                            mc.thePlayer.posX + testRotation.xCoord * 5, eyeY + testRotation.yCoord * 5, mc.thePlayer.posZ + testRotation.zCoord * 5)) {
                         yaw = i;
                         break;
                     }
@@ -882,7 +885,7 @@ public class PestsDestroyer implements IFeature {
                     return;
                 }
 
-                Entity closestPest = getClosestPest();
+                Entity closestPest = getQuickestPest();
 
                 if (closestPest == null) {
                     if (lastLocation == null) {
@@ -1067,7 +1070,7 @@ public class PestsDestroyer implements IFeature {
                 }
                 System.out.println("Curr plot pests: " + GameStateHandler.getInstance().getCurrentPlotPestsCount());
                 isPlotObstructed = false;
-                Entity closestPest2 = getClosestPest();
+                Entity closestPest2 = getQuickestPest();
                 KeyBindUtils.stopMovement();
                 if (closestPest2 != null) {
                     LogUtils.sendDebug("Found another pest");
@@ -1124,6 +1127,14 @@ public class PestsDestroyer implements IFeature {
         return closestPest;
     }
 
+    /**
+     * The pest with the cheapest flight from the player, which may not be the closest one when blocks are in the way.
+     */
+    @Nullable
+    private Entity getQuickestPest() {
+        return MultiGoalSearch.getInstance().nearest(pestsLocations, Entity::getPositionVector);
+    }
+
     public boolean getVacuum(ItemStack currentItem2) {
         if (currentItem2 == null || !currentItem2.getDisplayName().contains("Vacuum")) {
             int vacuum = InventoryUtils.getSlotIdOfItemInHotbar("Vacuum");
@@ -1188,27 +1199,14 @@ public class PestsDestroyer implements IFeature {
     }
 
     private boolean hasBlocksAround() {
-        Vec3 angle0 = AngleUtils.getVectorForRotation(0, mc.thePlayer.rotationYaw);
-        Vec3 angle90 = AngleUtils.getVectorForRotation(90, mc.thePlayer.rotationYaw);
-        Vec3 angle180 = AngleUtils.getVectorForRotation(180, mc.thePlayer.rotationYaw);
-        Vec3 angle270 = AngleUtils.getVectorForRotation(270, mc.thePlayer.rotationYaw);
-        Vec3 playerPos = mc.thePlayer.getPositionEyes(1);
-        if (checkIfBlockExists(angle0, playerPos)) {
-            return true;
-        }
-        if (checkIfBlockExists(angle90, playerPos)) {
-            return true;
-        }
-        if (checkIfBlockExists(angle180, playerPos)) {
-            return true;
-        }
-        return checkIfBlockExists(angle270, playerPos);
-    }
-
-    private boolean checkIfBlockExists(Vec3 angle0, Vec3 playerPos) {
-        MovingObjectPosition mop0 = mc.theWorld.rayTraceBlocks(playerPos,
-                playerPos.addVector(angle0.xCoord * 1.5, angle0.yCoord * 1.5, angle0.zCoord * 1.5), false, true, false);
-        return mop0 != null && mop0.typeOfHit == MovingObjectPosition.MovingObjectType.BLOCK;
+        double eyeY = mc.thePlayer.posY + mc.thePlayer.getEyeHeight();
+        for (int ray = 0; ray < 4; ray++) {
+            Vec3 angle = AngleUtils.getVectorForRotation(ray * 90, mc.thePlayer.rotationYaw);
+            aroundTargets[ray * 3] = mc.thePlayer.posX + angle.xCoord * 1.5;
+            aroundTargets[ray * 3 + 1] = eyeY + angle.yCoord * 1.5;
+            aroundTargets[ray * 3 + 2] = mc.thePlayer.posZ + angle.zCoord * 1.5;
+        }
+        return raycaster.castFan(mc.theWorld, mc.thePlayer.posX, eyeY, mc.thePlayer.posZ, aroundTargets, null) > 0;
     }
 
     @SubscribeEvent(receiveCanceled = true)
@@ -1377,11 +1375,12 @@ public class PestsDestroyer implements IFeature {
     }
 
     private boolean canEntityBeSeenIgnoreNonCollidable(Entity entity) {
-        Vec3 vec3 = new Vec3(entity.posX, entity.posY + entity.getEyeHeight() + 0.5, entity.posZ);
-        Vec3 vec31 = new Vec3(mc.thePlayer.posX, mc.thePlayer.posY + mc.thePlayer.getEyeHeight(), mc.thePlayer.posZ);
-        MovingObjectPosition mop = mc.theWorld.rayTraceBlocks(vec31, vec3, false, true, false);
-        return mop == null || mop.typeOfHit == MovingObjectPosition.MovingObjectType.BLOCK && (
-                mc.theWorld.getBlockState(mop.getBlockPos()).getBlock().equals(Blocks.cactus) || !BlockUtils.hasCollision(mop.getBlockPos()));
+        if (!raycaster.cast(mc.theWorld, mc.thePlayer.posX, mc.thePlayer.posY + mc.thePlayer.getEyeHeight(), mc.thePlayer.posZ,
+                entity.posX, entity.posY + entity.getEyeHeight() + 0.5, entity.posZ)) {
+            return true;
+        }
+        return raycaster.getState().getBlock().equals(Blocks.cactus)
+                || !BlockUtils.hasCollision(new BlockPos(raycaster.getBlockX(), raycaster.getBlockY(), raycaster.getBlockZ()));
     }
 
     @SubscribeEvent(receiveCanceled = true, priority = EventPriority.HIGHEST)
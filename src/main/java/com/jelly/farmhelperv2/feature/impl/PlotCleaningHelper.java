@@ -1,13 +1,13 @@
 package com.jelly.farmhelperv2.feature.impl;
 
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
-import com.jelly.farmhelperv2.event.MillisecondEvent;
 import com.jelly.farmhelperv2.feature.IFeature;
 import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.RotationHandler;
 import com.jelly.farmhelperv2.util.*;
 import com.jelly.farmhelperv2.util.helper.Clock;
 import com.jelly.farmhelperv2.util.helper.RotationConfiguration;
+import com.jelly.farmhelperv2.util.helper.SubTickScheduler;
 import com.jelly.farmhelperv2.util.helper.Target;
 import net.minecraft.block.*;
 import net.minecraft.block.material.Material;
@@ -25,6 +25,7 @@ import java.awt.*;
 import java.util.List;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 // Credits to GTC's nuker
 public class PlotCleaningHelper implements IFeature {
@@ -45,6 +46,7 @@ public class PlotCleaningHelper implements IFeature {
     private BlockPos longBreakTarget = null;
     private BlockPos target = null;
     private long lastBlockBroken = 0;
+    private SubTickScheduler.Registration breakTask = null;
 
     public static PlotCleaningHelper getInstance() {
         if (instance == null) {
@@ -85,6 +87,7 @@ public class PlotCleaningHelper implements IFeature {
         brokenBlockPosArrayList.clear();
         lastBlockBroken = 0;
         stuckClock.schedule(7_000);
+        breakTask = SubTickScheduler.getInstance().schedulePeriodic(getName(), 10, TimeUnit.MILLISECONDS, this::onBreakTick);
         LogUtils.sendSuccess("[Plot Cleaning Helper] Enabled.");
         IFeature.super.start();
     }
@@ -95,6 +98,10 @@ public class PlotCleaningHelper implements IFeature {
         enabled = false;
         longBreakTarget = null;
         target = null;
+        if (breakTask != null) {
+            breakTask.cancel();
+            breakTask = null;
+        }
         LogUtils.sendSuccess("[Plot Cleaning Helper] Disabled.");
         stop();
     }
@@ -191,8 +198,7 @@ public class PlotCleaningHelper implements IFeature {
         return (float) (yaw * -1.0);
     }
 
-    @SubscribeEvent
-    public void onMillisecond(MillisecondEvent event) {
+    private void onBreakTick() {
         if (!isRunning()) return;
         if (mc.thePlayer == null || mc.theWorld == null) return;
 
@@ -200,8 +206,9 @@ public class PlotCleaningHelper implements IFeature {
             longBreakTarget = null;
         }
 
-        if (event.timestamp - lastBlockBroken > 1000f / 20 && (!RotationHandler.getInstance().isRotating() || (RotationHandler.getInstance().isRotating() && RotationHandler.getInstance().getConfiguration() != null && RotationHandler.getInstance().getConfiguration().goingBackToClientSide()))) {
-            lastBlockBroken = event.timestamp;
+        long timestamp = System.currentTimeMillis();
+        if (timestamp - lastBlockBroken > 1000f / 20 && (!RotationHandler.getInstance().isRotating() || (RotationHandler.getInstance().isRotating() && RotationHandler.getInstance().getConfiguration() != null && RotationHandler.getInstance().getConfiguration().goingBackToClientSide()))) {
+            lastBlockBroken = timestamp;
 
             brokenBlockPosArrayList.removeIf(tup -> tup.getSecond() + 2_500 < System.currentTimeMillis());
 
@@ -222,7 +229,7 @@ public class PlotCleaningHelper implements IFeature {
                     int id = getBestTool(Objects.requireNonNull(BlockUtils.getBlockState(target)).getBlock());
                     if (id != -1 && mc.thePlayer.inventory.currentItem != id) {
                         mc.thePlayer.inventory.currentItem = id;
-                        lastBlockBroken = event.timestamp + 100;
+                        lastBlockBroken = timestamp + 100;
                         return;
                     }
                 }
@@ -1,16 +1,14 @@
 package com.jelly.farmhelperv2.feature.impl;
 
 import cc.polyfrost.oneconfig.utils.Multithreading;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.event.UpdateScoreboardLineEvent;
 import com.jelly.farmhelperv2.failsafe.impl.LowerAvgBpsFailsafe;
 import com.jelly.farmhelperv2.feature.IFeature;
 import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.MacroHandler;
-import com.jelly.farmhelperv2.util.APIUtils;
+import com.jelly.farmhelperv2.util.BazaarPriceExtractor;
+import com.jelly.farmhelperv2.util.HttpClient;
 import com.jelly.farmhelperv2.util.LogUtils;
 import com.jelly.farmhelperv2.util.helper.Clock;
 import lombok.Getter;
@@ -286,39 +284,34 @@ public class ProfitCalculator implements IFeature {
         }
     }
 
-    @SubscribeEvent(receiveCanceled = true)
-    public void onReceivedPacket(ReceivePacketEvent event) {
+    public void onSetSlotPacket(S2FPacketSetSlot packet) {
         if (!MacroHandler.getInstance().isMacroToggled()) return;
         if (!MacroHandler.getInstance().isCurrentMacroEnabled()) return;
         if (!GameStateHandler.getInstance().inGarden()) return;
         if (mc.currentScreen != null) return;
 
-        if (event.packet instanceof S2FPacketSetSlot) {
-            S2FPacketSetSlot packet = (S2FPacketSetSlot) event.packet;
-
-            int slotNumber = packet.func_149173_d();
-            if (slotNumber < 0 || slotNumber > 44) return;
-            Slot currentSlot = mc.thePlayer.inventoryContainer.getSlot(slotNumber);
-            ItemStack heldItem = mc.thePlayer.getHeldItem();
-            ItemStack newItem = packet.func_149174_e();
-            if (FarmHelperConfig.profitCalculatorCultivatingEnchant && newItem != null && heldItem != null && StringUtils.stripControlCodes(newItem.getDisplayName()).equals(MacroHandler.getInstance().getCrop().getLocalizedName()) && GameStateHandler.getInstance().getCurrentCultivating().getOrDefault(heldItem.getDisplayName(), 0L) > 0) {
-                return;
-            }
-            ItemStack oldItem = currentSlot.getStack();
-            if (newItem == null || newItem.getItem() instanceof ItemTool || newItem.getItem() instanceof ItemArmor || newItem.getItem() instanceof ItemHoe)
-                return;
+        int slotNumber = packet.func_149173_d();
+        if (slotNumber < 0 || slotNumber > 44) return;
+        Slot currentSlot = mc.thePlayer.inventoryContainer.getSlot(slotNumber);
+        ItemStack heldItem = mc.thePlayer.getHeldItem();
+        ItemStack newItem = packet.func_149174_e();
+        if (FarmHelperConfig.profitCalculatorCultivatingEnchant && newItem != null && heldItem != null && StringUtils.stripControlCodes(newItem.getDisplayName()).equals(MacroHandler.getInstance().getCrop().getLocalizedName()) && GameStateHandler.getInstance().getCurrentCultivating().getOrDefault(heldItem.getDisplayName(), 0L) > 0) {
+            return;
+        }
+        ItemStack oldItem = currentSlot.getStack();
+        if (newItem == null || newItem.getItem() instanceof ItemTool || newItem.getItem() instanceof ItemArmor || newItem.getItem() instanceof ItemHoe)
+            return;
 
-            if (oldItem == null || !oldItem.getItem().equals(newItem.getItem())) {
-                int newStackSize = newItem.stackSize;
-                String name = StringUtils.stripControlCodes(newItem.getDisplayName());
-                addDroppedItem(name, newStackSize);
-            } else if (oldItem.getItem().equals(newItem.getItem())) {
-                int newStackSize = newItem.stackSize;
-                int oldStackSize = oldItem.stackSize;
-                String name = StringUtils.stripControlCodes(newItem.getDisplayName());
-                int amount = Math.max((newStackSize - oldStackSize), 0);
-                addDroppedItem(name, amount);
-            }
+        if (oldItem == null || !oldItem.getItem().equals(newItem.getItem())) {
+            int newStackSize = newItem.stackSize;
+            String name = StringUtils.stripControlCodes(newItem.getDisplayName());
+            addDroppedItem(name, newStackSize);
+        } else if (oldItem.getItem().equals(newItem.getItem())) {
+            int newStackSize = newItem.stackSize;
+            int oldStackSize = oldItem.stackSize;
+            String name = StringUtils.stripControlCodes(newItem.getDisplayName());
+            int amount = Math.max((newStackSize - oldStackSize), 0);
+            addDroppedItem(name, amount);
         }
     }
 
@@ -408,21 +401,22 @@ public class ProfitCalculator implements IFeature {
     }
 
     public void fetchBazaarPrices() {
+        fetchBazaarPrices("https://api.hypixel.net/skyblock/bazaar");
+    }
+
+    public void fetchBazaarPrices(String url) {
+        String userAgent = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_11_5) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/50.0.2661.102 Safari/537.36";
+        Set<String> productIds = new HashSet<>();
+        cropsToCount.forEach(item -> productIds.add(item.bazaarId));
+        rngDropToCount.forEach(item -> productIds.add(item.bazaarId));
         try {
-            String url = "https://api.hypixel.net/skyblock/bazaar";
-            String userAgent = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_11_5) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/50.0.2661.102 Safari/537.36";
-            JsonObject request = APIUtils.readJsonFromUrl(url, "User-Agent", userAgent);
-            if (request == null) {
-                LogUtils.sendDebug("Failed to update bazaar prices!");
-                cantConnectToApi = true;
-                return;
-            }
-            JsonObject json = request.getAsJsonObject();
-            JsonObject json1 = json.getAsJsonObject("products");
+            Map<String, Double> prices = HttpClient.getInstance().get(url)
+                    .header("User-Agent", userAgent)
+                    .stream(response -> BazaarPriceExtractor.extract(response.reader(), productIds));
 
-            getPrices(json1, cropsToCount);
+            getPrices(prices, cropsToCount);
 
-            getPrices(json1, rngDropToCount);
+            getPrices(prices, rngDropToCount);
 
             LogUtils.sendDebug("Bazaar prices updated.");
             cantConnectToApi = false;
@@ -434,26 +428,15 @@ public class ProfitCalculator implements IFeature {
         }
     }
 
-    private void getPrices(JsonObject json1, List<BazaarItem> cropsToCount) {
-        getPricesPerList(json1, cropsToCount);
-    }
-
-    private void getPricesPerList(JsonObject bazaarData, List<BazaarItem> itemList) {
+    private void getPrices(Map<String, Double> prices, List<BazaarItem> itemList) {
         for (BazaarItem item : itemList) {
-            JsonObject itemData = bazaarData.getAsJsonObject(item.bazaarId);
-            JsonArray sellSummary = itemData.getAsJsonArray("sell_summary");
-
-            JsonObject summaryData = (sellSummary.size() > 1) ? sellSummary.get(1).getAsJsonObject() :
-                    (sellSummary.size() > 0) ? sellSummary.get(0).getAsJsonObject() : null;
-
-            if (summaryData != null) {
-                double buyPrice = summaryData.get("pricePerUnit").getAsDouble();
-                bazaarPrices.computeIfPresent(item.localizedName, (name, apiCrop) -> {
-                    apiCrop.currentPrice = buyPrice;
-                    return apiCrop;
-                });
-                bazaarPrices.putIfAbsent(item.localizedName, new APICrop(item.localizedName, buyPrice));
-            }
+            Double price = prices.get(item.bazaarId);
+            if (price == null) continue;
+            bazaarPrices.computeIfPresent(item.localizedName, (name, apiCrop) -> {
+                apiCrop.currentPrice = price;
+                return apiCrop;
+            });
+            bazaarPrices.putIfAbsent(item.localizedName, new APICrop(item.localizedName, price));
         }
     }
 
@@ -1,18 +1,14 @@
 package com.jelly.farmhelperv2.feature.impl;
 
-import com.google.gson.*;
 import com.jelly.farmhelperv2.feature.IFeature;
-import com.jelly.farmhelperv2.util.LogUtils;
-import net.minecraft.client.Minecraft;
+import com.jelly.farmhelperv2.util.helper.SessionLog;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.io.File;
 import java.time.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPInputStream;
-
-import static com.jelly.farmhelperv2.feature.impl.BanInfoWS.fileNamePrefix;
-import static com.jelly.farmhelperv2.feature.impl.BanInfoWS.statsDirectory;
 
 
 public class UsageStatsTracker implements IFeature {
@@ -21,40 +17,72 @@ public class UsageStatsTracker implements IFeature {
         return instance == null ? (instance = new UsageStatsTracker()) : instance;
     }
 
-    private long baseTodayMillis = 0;
-    private long baseTotalMillis = 0;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final long FILE_CHECK_INTERVAL = 1_000L;
+
+    // Saved sessions sorted by timestamp, with prefix sums so every rolling window is a subtraction
+    private long[] sessionTimestamps = new long[64];
+    private long[] sessionPrefix = new long[65];
+    private int sessionCount = 0;
+    private int cursor7d = 0;
+    private int cursor30d = 0;
+    private final Map<Long, Long> millisByDay = new HashMap<>();
+
     private LocalDate todayDate = LocalDate.now();
     private long sessionMillis = 0;
     private long lastTickMillis = System.currentTimeMillis();
     private boolean running = false;
 
+    private long fileLastModified = -1;
+    private long fileLength = -1;
+    private long lastFileCheck = 0;
+
     private UsageStatsTracker() { loadFromFile(); }
 
     public String getTodayString() {
-        return fmt(baseTodayMillis + sessionMillis);
+        return fmt(getTodayMillis());
     }
     public String getTotalString() {
-        return fmt(baseTotalMillis + sessionMillis);
+        return fmt(getTotalMillis());
     }
 
-    public long  getTodayMillis() { return baseTodayMillis + sessionMillis; }
+    public synchronized long getTodayMillis() {
+        refreshIfFileChanged();
+        return millisByDay.getOrDefault(todayDate.toEpochDay(), 0L) + sessionMillis;
+    }
+
+    public synchronized long getTotalMillis() {
+        refreshIfFileChanged();
+        return sessionPrefix[sessionCount] + sessionMillis;
+    }
 
     private long rollingMillis(int days) {
-        long cutoff = System.currentTimeMillis() - days * 86_400_000L;
-        long sum = 0;
-        for (JsonElement e : readArray()) {
-            JsonObject o = e.getAsJsonObject();
-            if (o.get("timestamp").getAsLong() >= cutoff)
-                sum += o.get("timeMacroing").getAsLong();
-        }
-        return sum + sessionMillis;
+        refreshIfFileChanged();
+        long cutoff = System.currentTimeMillis() - days * DAY_MILLIS;
+        // The cutoff only moves forward, so each cursor walks every session at most once
+        int cursor = days == 7 ? cursor7d : cursor30d;
+        while (cursor < sessionCount && sessionTimestamps[cursor] < cutoff) cursor++;
+        if (days == 7) cursor7d = cursor; else cursor30d = cursor;
+        return sessionPrefix[sessionCount] - sessionPrefix[cursor] + sessionMillis;
     }
 
-    public long get7dMillis() { return rollingMillis(7);  }
-    public long get30dMillis() { return rollingMillis(30); }
+    public synchronized long get7dMillis() { return rollingMillis(7);  }
+    public synchronized long get30dMillis() { return rollingMillis(30); }
     public String get7dString() { return fmt(get7dMillis()); }
     public String get30dString() { return fmt(get30dMillis()); }
 
+    /**
+     * Called once a session was appended to the stats file, so the index doesn't need to read it again.
+     * The live counter is folded into the saved session, otherwise it would be counted twice.
+     */
+    public synchronized void onSessionSaved(long timestamp, long timeMacroing) {
+        addSession(timestamp, timeMacroing);
+        sessionMillis = 0;
+        File f = statsFile();
+        fileLastModified = f.lastModified();
+        fileLength = f.length();
+    }
+
     @Override public String  getName() { return "User Stats Tracker"; }
     @Override public boolean isRunning() { return running; }
     @Override public boolean shouldPauseMacroExecution() { return false; }
@@ -66,30 +94,67 @@ public class UsageStatsTracker implements IFeature {
     @Override public void resume() { start(); }
     @Override public void stop() { running = false ;}
 
-    public void tick(boolean macroRunning) {
+    public synchronized void tick(boolean macroRunning) {
         long now = System.currentTimeMillis();
         long delta = now - lastTickMillis;
         lastTickMillis = now;
         if (!todayDate.equals(LocalDate.now())) {
-            todayDate      = LocalDate.now();
-            baseTodayMillis = 0;
+            todayDate = LocalDate.now();
         }
         if (macroRunning && delta > 0 && delta < 5000) {
             sessionMillis += delta;
         }
     }
 
+    private void refreshIfFileChanged() {
+        long now = System.currentTimeMillis();
+        if (now - lastFileCheck < FILE_CHECK_INTERVAL) return;
+        lastFileCheck = now;
+        File f = statsFile();
+        if (f.lastModified() != fileLastModified || f.length() != fileLength) {
+            loadFromFile();
+        }
+    }
+
     private void loadFromFile() {
-        JsonArray arr = readArray();
-        LocalDate today = LocalDate.now();
-        for (JsonElement e : arr) {
-            JsonObject o = e.getAsJsonObject();
-            long ms = o.get("timeMacroing").getAsLong();
-            baseTotalMillis += ms;
-            long ts = o.get("timestamp").getAsLong();
-            LocalDate d = Instant.ofEpochMilli(ts).atZone(ZoneId.systemDefault()).toLocalDate();
-            if (d.equals(today)) baseTodayMillis += ms;
+        File f = statsFile();
+        sessionCount = 0;
+        cursor7d = 0;
+        cursor30d = 0;
+        millisByDay.clear();
+        for (SessionLog.Record session : BanInfoWS.getSessionLog().readAll()) {
+            addSession(session.timestamp, session.timeMacroing);
+        }
+        // Reading may have migrated a legacy file, take the stamp of what is on disk now
+        fileLastModified = f.lastModified();
+        fileLength = f.length();
+    }
+
+    private void addSession(long timestamp, long timeMacroing) {
+        if (sessionCount == sessionTimestamps.length) {
+            sessionTimestamps = Arrays.copyOf(sessionTimestamps, sessionCount * 2);
+            sessionPrefix = Arrays.copyOf(sessionPrefix, sessionCount * 2 + 1);
+        }
+        int i = sessionCount;
+        if (i > 0 && sessionTimestamps[i - 1] > timestamp) {
+            // Out of order entry, shift it into place and rebuild the prefix sums behind it
+            while (i > 0 && sessionTimestamps[i - 1] > timestamp) i--;
+            System.arraycopy(sessionTimestamps, i, sessionTimestamps, i + 1, sessionCount - i);
+            sessionTimestamps[i] = timestamp;
+            sessionCount++;
+            for (int j = sessionCount; j > i + 1; j--) {
+                sessionPrefix[j] = sessionPrefix[j - 1] + timeMacroing;
+            }
+            sessionPrefix[i + 1] = sessionPrefix[i] + timeMacroing;
+            cursor7d = Math.min(cursor7d, i);
+            cursor30d = Math.min(cursor30d, i);
+        } else {
+            sessionTimestamps[i] = timestamp;
+            sessionPrefix[i + 1] = sessionPrefix[i] + timeMacroing;
+            sessionCount++;
         }
+        long day = Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+        millisByDay.merge(day, timeMacroing, Long::sum);
     }
 
     private String fmt(long ms) {
@@ -99,21 +164,6 @@ public class UsageStatsTracker implements IFeature {
     }
 
     private File statsFile() {
-        String uuid = Minecraft.getMinecraft().getSession().getPlayerID().replace("-", "");
-        return new File(statsDirectory, fileNamePrefix + uuid + ".dat");
-    }
-
-    private JsonArray readArray() {
-        File f = statsFile();
-        if (!f.exists()) return new JsonArray();
-        try (GZIPInputStream gzis = new GZIPInputStream(new FileInputStream(f));
-             InputStreamReader isr = new InputStreamReader(gzis, StandardCharsets.UTF_8)) {
-            JsonElement el = new JsonParser().parse(isr);
-            return el.isJsonArray() ? el.getAsJsonArray() : new JsonArray();
-        } catch (Exception e) {
-            LogUtils.sendDebug("Error Reading Usage Stats Array");
-//            e.printStackTrace();
-        }
-        return new JsonArray();
+        return BanInfoWS.getSessionLog().getFile();
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.handler.RotationHandler;
 import com.jelly.farmhelperv2.pathfinder.FlyPathFinderExecutor;
+import com.jelly.farmhelperv2.pathfinder.MultiGoalSearch;
 import com.jelly.farmhelperv2.util.*;
 import com.jelly.farmhelperv2.util.helper.Clock;
 import com.jelly.farmhelperv2.util.helper.Rotation;
@@ -1188,9 +1189,8 @@ public class VisitorsMacro implements IFeature {
     }
 
     private Entity getClosestVisitor() {
-        Optional<Entity> visitorsFiltered = getVisitors()
-                .min(Comparator.comparingDouble(e -> mc.thePlayer.getDistanceToEntity(e)));
-        return visitorsFiltered.orElse(null);
+        // Picked by flight cost, a visitor behind the desk can be closer in a straight line but further to reach
+        return MultiGoalSearch.getInstance().nearest(getVisitors().collect(Collectors.toList()), Entity::getPositionVector);
     }
 
     private Stream<Entity> getVisitors() {
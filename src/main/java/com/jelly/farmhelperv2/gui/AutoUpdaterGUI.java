@@ -7,6 +7,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.jelly.farmhelperv2.FarmHelper;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
+import com.jelly.farmhelperv2.util.HttpClient;
 import com.jelly.farmhelperv2.util.MarkdownFormatter;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.*;
@@ -16,9 +17,6 @@ import org.lwjgl.opengl.GL11;
 
 import java.awt.*;
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -70,17 +68,16 @@ public class AutoUpdaterGUI extends GuiScreen {
 
     public static void getLatestVersion() { // don't skid or i'll find you - yuro
         try {
-            URL url = new URL(GITHUB_API_URL);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                System.out.println("Failed to fetch data from GitHub API. Response code: " + responseCode);
+            JsonArray releasesArray;
+            try {
+                releasesArray = HttpClient.getInstance().get(GITHUB_API_URL)
+                        .timeouts(CONNECT_TIMEOUT, READ_TIMEOUT)
+                        .conditional()
+                        .stream(response -> new JsonParser().parse(response.reader()).getAsJsonArray());
+            } catch (HttpClient.HttpStatusException e) {
+                System.out.println("Failed to fetch data from GitHub API. Response code: " + e.getStatus());
                 return;
             }
-
-            JsonArray releasesArray = getJsonElements(connection);
             JsonObject latestRelease = null;
             int releaseCount = 0;
             for (JsonElement release : releasesArray) {
@@ -146,21 +143,6 @@ public class AutoUpdaterGUI extends GuiScreen {
         }
     }
 
-    private static JsonArray getJsonElements(HttpURLConnection connection) throws IOException {
-        BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        String inputLine;
-        StringBuilder response = new StringBuilder();
-
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-        }
-        in.close();
-
-        JsonParser jsonParser = new JsonParser();
-        JsonElement jsonElement = jsonParser.parse(response.toString());
-        return jsonElement.getAsJsonArray();
-    }
-
     private static List<String> splitLongStrings(List<String> inputList, int maxLength) {
         List<String> splitStrings = new ArrayList<>();
         if (inputList == null || inputList.isEmpty()) return splitStrings;
@@ -439,25 +421,27 @@ public class AutoUpdaterGUI extends GuiScreen {
     }
 
     private void downloadFileWithProgress(String downloadURL, File outputFile) throws IOException {
-        URL url = new URL(downloadURL);
-        URLConnection connection = url.openConnection();
-        connection.setConnectTimeout(AutoUpdaterGUI.CONNECT_TIMEOUT);
-        connection.setReadTimeout(AutoUpdaterGUI.READ_TIMEOUT);
-
-        int fileSize = connection.getContentLength();
-        int downloadedBytes = 0;
-
-        try (InputStream in = connection.getInputStream();
-             FileOutputStream out = new FileOutputStream(outputFile)) {
-
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            while ((bytesRead = in.read(buffer)) != -1) {
-                out.write(buffer, 0, bytesRead);
-                downloadedBytes += bytesRead;
-                downloadProgress = (int) ((downloadedBytes / (double) fileSize) * 100);
-            }
-        }
+        HttpClient.getInstance().get(downloadURL)
+                .timeouts(AutoUpdaterGUI.CONNECT_TIMEOUT, AutoUpdaterGUI.READ_TIMEOUT)
+                .stream(response -> {
+                    long fileSize = response.getContentLength();
+                    long downloadedBytes = 0;
+
+                    try (InputStream in = response.body();
+                         FileOutputStream out = new FileOutputStream(outputFile)) {
+
+                        byte[] buffer = new byte[8192];
+                        int bytesRead;
+                        while ((bytesRead = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, bytesRead);
+                            downloadedBytes += bytesRead;
+                            if (fileSize > 0) {
+                                downloadProgress = (int) ((downloadedBytes / (double) fileSize) * 100);
+                            }
+                        }
+                    }
+                    return null;
+                });
     }
 
     private class ScrollableList extends GuiSlot { // spent way too much time on this - yuro
@@ -0,0 +1,165 @@
+package com.jelly.farmhelperv2.handler;
+
+import com.jelly.farmhelperv2.event.BlockChangeEvent;
+import lombok.Getter;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Routes client block changes to the handlers whose filter accepts them, instead of posting every change on the Forge bus.
+ * Filters see the change as plain values, the {@link BlockChangeEvent} is only created once some filter accepts it and is
+ * then shared by every handler that asked for it. Changes of a multi block change packet are collected and handed to
+ * each handler as one list when the packet is done.
+ * Chunks of the integrated server call in from the server thread too, those changes are dropped before anything else is read.
+ * Subscribing is safe from any thread. Routing, batching and the handlers themselves only ever run on the client thread.
+ */
+public class BlockChangeRouter {
+    // Created eagerly, the server thread can ask for it at the same time as the client thread
+    private static final BlockChangeRouter INSTANCE = new BlockChangeRouter();
+    private final Object lock = new Object();
+    private volatile Route[] routes = new Route[0];
+    private boolean batching = false;
+
+    // Changes of the current second, and of the last full one for the debug HUD
+    private int emitted = 0;
+    private int filtered = 0;
+    @Getter
+    private int emittedPerSecond = 0;
+    @Getter
+    private int filteredPerSecond = 0;
+    private long secondStart = System.currentTimeMillis();
+
+    public static BlockChangeRouter getInstance() {
+        return INSTANCE;
+    }
+
+    public interface Filter {
+        boolean accepts(World world, int x, int y, int z, IBlockState old, IBlockState update);
+
+        default Filter and(Filter other) {
+            return (world, x, y, z, old, update) -> accepts(world, x, y, z, old, update) && other.accepts(world, x, y, z, old, update);
+        }
+    }
+
+    public static Filter whileMacroToggled() {
+        return (world, x, y, z, old, update) -> MacroHandler.getInstance().isMacroToggled();
+    }
+
+    /**
+     * Handlers are called in {@link EventPriority} order with the changes their filter accepted, one at a time or a whole packet at once.
+     * The list is only valid during the call.
+     */
+    public void subscribe(Filter filter, EventPriority priority, Consumer<List<BlockChangeEvent>> handler) {
+        synchronized (lock) {
+            Route[] newRoutes = Arrays.copyOf(routes, routes.length + 1);
+            newRoutes[newRoutes.length - 1] = new Route(filter, priority, handler);
+            Arrays.sort(newRoutes, (a, b) -> Integer.compare(a.priority.ordinal(), b.priority.ordinal()));
+            routes = newRoutes;
+        }
+    }
+
+    public void subscribe(Filter filter, Consumer<List<BlockChangeEvent>> handler) {
+        subscribe(filter, EventPriority.NORMAL, handler);
+    }
+
+    public boolean hasRoutes() {
+        return routes.length > 0;
+    }
+
+    public void onBlockChange(World world, BlockPos pos, IBlockState old, IBlockState update) {
+        // Server chunks of the integrated server go through here too, nobody wants those
+        if (!world.isRemote) return;
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+        BlockChangeEvent event = null;
+        for (Route route : routes) {
+            boolean accepted;
+            try {
+                accepted = route.filter.accepts(world, x, y, z, old, update);
+            } catch (Exception e) {
+                e.printStackTrace();
+                continue;
+            }
+            if (!accepted) continue;
+            if (event == null) {
+                // The batch keeps positions until the packet is done, so mutable ones have to be copied
+                event = new BlockChangeEvent(batching && pos.getClass() != BlockPos.class ? new BlockPos(x, y, z) : pos, old, update, world);
+            }
+            if (batching) {
+                route.pending.add(event);
+            } else {
+                deliver(route, Collections.singletonList(event));
+            }
+        }
+        if (event != null) {
+            emitted++;
+        } else {
+            filtered++;
+        }
+    }
+
+    /**
+     * Collects changes until {@link #endBatch()}. A batch that was left open is delivered first.
+     */
+    public void beginBatch() {
+        if (batching) endBatch();
+        batching = true;
+    }
+
+    public void endBatch() {
+        if (!batching) return;
+        batching = false;
+        for (Route route : routes) {
+            if (route.pending.isEmpty()) continue;
+            deliver(route, route.pending);
+            route.pending.clear();
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.START) return;
+        // A packet handler that threw never ended its batch
+        endBatch();
+        long now = System.currentTimeMillis();
+        if (now - secondStart >= 1000) {
+            emittedPerSecond = emitted;
+            filteredPerSecond = filtered;
+            emitted = 0;
+            filtered = 0;
+            secondStart = now;
+        }
+    }
+
+    private static void deliver(Route route, List<BlockChangeEvent> changes) {
+        try {
+            route.handler.accept(changes);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static class Route {
+        private final Filter filter;
+        private final EventPriority priority;
+        private final Consumer<List<BlockChangeEvent>> handler;
+        private final List<BlockChangeEvent> pending = new ArrayList<>();
+
+        private Route(Filter filter, EventPriority priority, Consumer<List<BlockChangeEvent>> handler) {
+            this.filter = filter;
+            this.priority = priority;
+            this.handler = handler;
+        }
+    }
+}
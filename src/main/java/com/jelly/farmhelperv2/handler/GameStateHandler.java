@@ -41,7 +41,7 @@ import java.util.regex.Pattern;
 public class GameStateHandler {
     private static GameStateHandler INSTANCE;
     private final Minecraft mc = Minecraft.getMinecraft();
-    private final Pattern areaPattern = Pattern.compile("Area:\\s(.+)");
+    private final TablistParser tablistParser = new TablistParser();
     private final Timer notMovingTimer = new Timer();
     private final Timer reWarpTimer = new Timer();
     @Getter
@@ -50,7 +50,6 @@ public class GameStateHandler {
     public final Pattern jacobsStartsInTimePattern = Pattern.compile("Starts In: ([1-3]?[0-9])?m ?([1-5]?[0-9])?s?");
     private final Pattern serverClosingPattern = Pattern.compile("Server closing: (?<minutes>\\d+):(?<seconds>\\d+) .*");
     private final Pattern pestsFromVacuumPattern = Pattern.compile("Vacuum Bag: ([\\d,]+) Pest(s)?");
-    private final Pattern composterResourceTablistPattern = Pattern.compile("\\s(Organic Matter|Fuel): (\\d{1,3}(\\.\\d{1,3})?)k");
     @Getter
     private Location lastLocation = Location.TELEPORTING;
     @Getter
@@ -165,7 +164,7 @@ public class GameStateHandler {
     @SubscribeEvent
     public void onTablistUpdate(UpdateTablistEvent event) {
         if (event.tablist.isEmpty()) return;
-        List<String> tabList = new ArrayList<>(event.tablist);
+        List<String> tabList = event.tablist;
 
         List<String> scoreboardLines = ScoreboardUtils.getScoreboardLines(true);
         if (PlayerUtils.isInventoryEmpty(mc.thePlayer) && scoreboardLines.isEmpty() && mc.thePlayer.experienceLevel == 0 && mc.thePlayer.dimension == 1) {
@@ -184,40 +183,15 @@ public class GameStateHandler {
         int nextJacobCropFound = -1;
         List<FarmHelperConfig.CropEnum> newJacobsContestNextCrop = new ArrayList<>();
 
-        for (String cleanedLine : tabList) {
-            if (cleanedLine.matches(areaPattern.pattern())) {
-                Matcher matcher = areaPattern.matcher(cleanedLine);
-                if (matcher.find()) {
-                    String area = matcher.group(1);
-                    for (Location island : Location.values()) {
-                        if (area.equals(island.getName())) {
-                            lastLocation = location;
-                            location = island;
-                            foundLocation = true;
-                            break;
-                        }
-                    }
-                    if (foundLocation) continue;
-                }
-            }
-            if (!hasGuestsOnTabList) {
-                if (checkGuestInGardenTabList(cleanedLine)) {
-                    hasGuestsOnTabList = true;
-                }
-            }
-            checkInfestedPlotsTabList(cleanedLine);
-            if (!foundPestHunterBonus) {
-                int retPestHunter = checkPestHunterBonusTabList(cleanedLine);
-                if (retPestHunter == 1) {
-                    pestHunterBonus = BuffState.ACTIVE;
-                    foundPestHunterBonus = true;
-                } else if (retPestHunter == 2) {
-                    pestHunterBonus = BuffState.NOT_ACTIVE;
-                    foundPestHunterBonus = true;
-                }
+        for (TablistParser.Line line : tablistParser.parse(tabList)) {
+            if (line.kind == TablistParser.Kind.AREA) {
+                lastLocation = location;
+                location = line.location;
+                foundLocation = true;
+                continue;
             }
             if (nextJacobCropFound >= 0 && nextJacobCropFound < 3) { // Make sure only 3 crops are added and no irrelevant text are being scanned
-                FarmHelperConfig.CropEnum crop = convertCrop(cleanedLine);
+                FarmHelperConfig.CropEnum crop = convertCrop(line.text);
                 if (crop != FarmHelperConfig.CropEnum.NONE && !newJacobsContestNextCrop.contains(crop))
                     newJacobsContestNextCrop.add(crop);
                 nextJacobCropFound++;
@@ -225,31 +199,42 @@ public class GameStateHandler {
             if (nextJacobCropFound == 3) {
                 jacobsContestNextCrop = newJacobsContestNextCrop;
             }
-            if (cleanedLine.contains("Starts In")) {
-                nextJacobCropFound = 0;
-            }
-            if (cleanedLine.startsWith(" Spray: ")) {
-                sprayonatorState = cleanedLine.endsWith("None") ? BuffState.NOT_ACTIVE : BuffState.ACTIVE;
-                foundSpray = true;
-            }
-            if (cleanedLine.startsWith(" Time Left:")) {
-                composterState = cleanedLine.endsWith("INACTIVE") ? BuffState.NOT_ACTIVE : BuffState.ACTIVE;
-                foundComposter = true;
-            }
-            if (cleanedLine.matches(composterResourceTablistPattern.pattern())) {
-                Matcher matcher = composterResourceTablistPattern.matcher(cleanedLine);
-                if (matcher.find()) {
-                    String resource = matcher.group(1);
-                    String count = matcher.group(2);
-
-                    if (resource.equalsIgnoreCase("Organic Matter")) {
-                        organicMatterCount = (int) (Double.parseDouble(count) * 1_000);
-                        foundOrganicMatterCount = true;
-                    } else if (resource.equalsIgnoreCase("Fuel")) {
-                        fuelCount = (int) (Double.parseDouble(count) * 1_000);
-                        foundFuelCount = true;
+            switch (line.kind) {
+                case GUESTS:
+                    if (!hasGuestsOnTabList) {
+                        isGuestInGarden = line.active;
+                        hasGuestsOnTabList = true;
                     }
-                }
+                    break;
+                case INFESTED_PLOTS:
+                    infestedPlots.clear();
+                    infestedPlots.addAll(line.plots);
+                    break;
+                case PEST_HUNTER_BONUS:
+                    if (!foundPestHunterBonus) {
+                        pestHunterBonus = line.active ? BuffState.ACTIVE : BuffState.NOT_ACTIVE;
+                        foundPestHunterBonus = true;
+                    }
+                    break;
+                case JACOB_STARTS_IN:
+                    nextJacobCropFound = 0;
+                    break;
+                case SPRAY:
+                    sprayonatorState = line.active ? BuffState.ACTIVE : BuffState.NOT_ACTIVE;
+                    foundSpray = true;
+                    break;
+                case COMPOSTER_TIME_LEFT:
+                    composterState = line.active ? BuffState.ACTIVE : BuffState.NOT_ACTIVE;
+                    foundComposter = true;
+                    break;
+                case ORGANIC_MATTER:
+                    organicMatterCount = line.amount;
+                    foundOrganicMatterCount = true;
+                    break;
+                case FUEL:
+                    fuelCount = line.amount;
+                    foundFuelCount = true;
+                    break;
             }
         }
         if (!foundPestHunterBonus) {
@@ -478,45 +463,6 @@ public class GameStateHandler {
         }
     }
 
-    private int checkPestHunterBonusTabList(String cleanedLine) {
-        if (cleanedLine.contains("Bonus: +")) {
-            return 1;
-        }
-        if (cleanedLine.contains("Bonus: INACTIVE")) {
-            return 2;
-        }
-        return -1;
-    }
-
-    private void checkInfestedPlotsTabList(String cleanedLine) {
-        if (cleanedLine.contains("Plots:")) {
-            try {
-                String[] split = cleanedLine.trim().split(" ");
-                infestedPlots.clear();
-                for (int i = 1; i < split.length; i++) {
-                    try {
-                        infestedPlots.add(Integer.parseInt(split[i].replace(",", "")));
-                    } catch (Exception ignored) {
-                    }
-                }
-            } catch (Exception ignored) {
-                infestedPlots.clear();
-            }
-        }
-    }
-
-    private boolean checkGuestInGardenTabList(String cleanedLine) {
-        if (cleanedLine.contains("Guests (0)")) {
-            isGuestInGarden = false;
-            return true;
-        }
-        if (cleanedLine.contains("Guests ")) {
-            isGuestInGarden = true;
-            return true;
-        }
-        return false;
-    }
-
     public void onTickCheckPlot() {
         if (inGarden()) {
             PlotUtils.Plot plot = PlotUtils.getPlotNumberBasedOnLocation();
@@ -642,18 +588,14 @@ public class GameStateHandler {
         }
     }
 
-    @SubscribeEvent
-    public void onReceivePacket(ReceivePacketEvent event) {
+    public void onSetSlotPacket(S2FPacketSetSlot packet) {
         if (mc.theWorld == null || mc.thePlayer == null) return;
-        if (event.packet instanceof S2FPacketSetSlot) {
-            S2FPacketSetSlot packet = (S2FPacketSetSlot) event.packet;
-            ItemStack slot = packet.func_149174_e();
-            if (slot == null || slot.getItem() == null || (!(slot.getItem() instanceof ItemHoe) && !(slot.getItem() instanceof ItemAxe)))
-                return;
-            long cult = getCultivating(slot);
-            if (cult == 0) return;
-            currentCultivating.put(slot.getDisplayName(), cult);
-        }
+        ItemStack slot = packet.func_149174_e();
+        if (slot == null || slot.getItem() == null || (!(slot.getItem() instanceof ItemHoe) && !(slot.getItem() instanceof ItemAxe)))
+            return;
+        long cult = getCultivating(slot);
+        if (cult == 0) return;
+        currentCultivating.put(slot.getDisplayName(), cult);
     }
 
     public boolean canRewarp() {
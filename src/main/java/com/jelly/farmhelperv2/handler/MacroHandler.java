@@ -3,7 +3,6 @@ package com.jelly.farmhelperv2.handler;
 import cc.polyfrost.oneconfig.utils.Multithreading;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.config.struct.Rewarp;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.failsafe.impl.WorldChangeFailsafe;
 import com.jelly.farmhelperv2.feature.FeatureManager;
@@ -24,6 +23,7 @@ import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.SoundCategory;
+import net.minecraft.network.play.server.S08PacketPlayerPosLook;
 import net.minecraft.util.BlockPos;
 import net.minecraftforge.client.event.ClientChatReceivedEvent;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
@@ -420,14 +420,13 @@ public class MacroHandler {
         });
     }
 
-    @SubscribeEvent
-    public void onReceivePacket(ReceivePacketEvent event) {
+    public void onTeleportPacket(S08PacketPlayerPosLook packet) {
         if (!isMacroToggled()) {
             return;
         }
         currentMacro.ifPresent(m -> {
             if (!m.isEnabledAndNoFeature()) return;
-            m.onPacketReceived(event);
+            m.onTeleportPacket(packet);
         });
     }
 
@@ -0,0 +1,69 @@
+package com.jelly.farmhelperv2.handler;
+
+import net.minecraft.network.Packet;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Routes inbound packets straight to the handlers that asked for their exact class.
+ * Handlers are run on the Netty thread, packet types nobody subscribed to are dropped after a single table lookup.
+ */
+public class PacketRouter {
+    private static PacketRouter instance;
+    private final Object lock = new Object();
+    private volatile Map<Class<?>, Route[]> table = new IdentityHashMap<>();
+
+    public static PacketRouter getInstance() {
+        if (instance == null) {
+            instance = new PacketRouter();
+        }
+        return instance;
+    }
+
+    public <T extends Packet<?>> void subscribe(Class<T> packetClass, Consumer<? super T> handler) {
+        subscribe(packetClass, EventPriority.NORMAL, handler);
+    }
+
+    /**
+     * Handlers of the same packet are called in {@link EventPriority} order, the same way Forge orders {@code @SubscribeEvent} methods.
+     */
+    public <T extends Packet<?>> void subscribe(Class<T> packetClass, EventPriority priority, Consumer<? super T> handler) {
+        synchronized (lock) {
+            // Copy on write, so dispatch never has to lock
+            Map<Class<?>, Route[]> newTable = new IdentityHashMap<>(table);
+            Route[] routes = newTable.get(packetClass);
+            Route[] newRoutes = routes == null ? new Route[1] : Arrays.copyOf(routes, routes.length + 1);
+            newRoutes[newRoutes.length - 1] = new Route(priority, handler);
+            Arrays.sort(newRoutes, (a, b) -> Integer.compare(a.priority.ordinal(), b.priority.ordinal()));
+            newTable.put(packetClass, newRoutes);
+            table = newTable;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void dispatch(Packet<?> packet) {
+        Route[] routes = table.get(packet.getClass());
+        if (routes == null) return;
+        for (Route route : routes) {
+            try {
+                ((Consumer<Packet<?>>) route.handler).accept(packet);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static class Route {
+        private final EventPriority priority;
+        private final Consumer<?> handler;
+
+        private Route(EventPriority priority, Consumer<?> handler) {
+            this.priority = priority;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.jelly.farmhelperv2.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies tablist lines by their leading label and runs only the extractor that belongs to it.
+ * Results are cached per row, so a row whose text didn't change since the previous update is not parsed again.
+ */
+public class TablistParser {
+    private final Pattern areaPattern = Pattern.compile("Area:\\s(.+)");
+    private final Pattern composterResourcePattern = Pattern.compile("\\s(Organic Matter|Fuel): (\\d{1,3}(\\.\\d{1,3})?)k");
+    private final Map<String, GameStateHandler.Location> locationsByName = new HashMap<>();
+    private final List<Line> lines = new ArrayList<>();
+
+    public TablistParser() {
+        for (GameStateHandler.Location location : GameStateHandler.Location.values()) {
+            locationsByName.putIfAbsent(location.getName(), location);
+        }
+    }
+
+    /**
+     * The returned list and its entries are reused by the next call.
+     */
+    public List<Line> parse(List<String> tablist) {
+        while (lines.size() < tablist.size()) {
+            lines.add(new Line());
+        }
+        while (lines.size() > tablist.size()) {
+            lines.remove(lines.size() - 1);
+        }
+        for (int i = 0; i < tablist.size(); i++) {
+            String text = tablist.get(i);
+            Line line = lines.get(i);
+            if (text.equals(line.text)) continue;
+            line.reset(text);
+            classify(line);
+        }
+        return lines;
+    }
+
+    private void classify(Line line) {
+        String text = line.text;
+        int start = 0;
+        while (start < text.length() && text.charAt(start) == ' ') {
+            start++;
+        }
+        if (start == text.length()) return;
+        switch (text.charAt(start)) {
+            case 'A':
+                if (start == 0 && text.startsWith("Area:")) {
+                    Matcher matcher = areaPattern.matcher(text);
+                    if (matcher.matches()) {
+                        line.location = locationsByName.get(matcher.group(1));
+                        if (line.location != null) line.kind = Kind.AREA;
+                    }
+                }
+                break;
+            case 'G':
+                if (text.startsWith("Guests ", start)) {
+                    line.kind = Kind.GUESTS;
+                    line.active = !text.startsWith("Guests (0)", start);
+                }
+                break;
+            case 'P':
+                if (text.startsWith("Plots:", start)) {
+                    line.kind = Kind.INFESTED_PLOTS;
+                    String[] split = text.trim().split(" ");
+                    for (int i = 1; i < split.length; i++) {
+                        try {
+                            line.plots.add(Integer.parseInt(split[i].replace(",", "")));
+                        } catch (Exception ignored) {
+                        }
+                    }
+                }
+                break;
+            case 'B':
+                if (text.startsWith("Bonus: +", start)) {
+                    line.kind = Kind.PEST_HUNTER_BONUS;
+                    line.active = true;
+                } else if (text.startsWith("Bonus: INACTIVE", start)) {
+                    line.kind = Kind.PEST_HUNTER_BONUS;
+                    line.active = false;
+                }
+                break;
+            case 'S':
+                if (text.startsWith("Starts In", start)) {
+                    line.kind = Kind.JACOB_STARTS_IN;
+                } else if (start == 1 && text.startsWith("Spray: ", start)) {
+                    line.kind = Kind.SPRAY;
+                    line.active = !text.endsWith("None");
+                }
+                break;
+            case 'T':
+                if (start == 1 && text.startsWith("Time Left:", start)) {
+                    line.kind = Kind.COMPOSTER_TIME_LEFT;
+                    line.active = !text.endsWith("INACTIVE");
+                }
+                break;
+            case 'O':
+            case 'F':
+                if (start == 1) {
+                    Matcher matcher = composterResourcePattern.matcher(text);
+                    if (matcher.matches()) {
+                        line.kind = matcher.group(1).equals("Fuel") ? Kind.FUEL : Kind.ORGANIC_MATTER;
+                        line.amount = (int) (Double.parseDouble(matcher.group(2)) * 1_000);
+                    }
+                }
+                break;
+        }
+    }
+
+    public enum Kind {
+        OTHER,
+        AREA,
+        GUESTS,
+        INFESTED_PLOTS,
+        PEST_HUNTER_BONUS,
+        JACOB_STARTS_IN,
+        SPRAY,
+        COMPOSTER_TIME_LEFT,
+        ORGANIC_MATTER,
+        FUEL
+    }
+
+    public static class Line {
+        public String text;
+        public Kind kind = Kind.OTHER;
+        public GameStateHandler.Location location;
+        public boolean active;
+        public int amount;
+        public final List<Integer> plots = new ArrayList<>();
+
+        private void reset(String text) {
+            this.text = text;
+            kind = Kind.OTHER;
+            location = null;
+            active = false;
+            amount = 0;
+            plots.clear();
+        }
+    }
+}
@@ -9,9 +9,13 @@ import com.jelly.farmhelperv2.failsafe.impl.GuestVisitFailsafe;
 import com.jelly.farmhelperv2.feature.FeatureManager;
 import com.jelly.farmhelperv2.feature.IFeature;
 import com.jelly.farmhelperv2.feature.impl.*;
+import com.jelly.farmhelperv2.handler.BlockChangeRouter;
 import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.pathfinder.FlyPathFinderExecutor;
+import com.jelly.farmhelperv2.pathfinder.RouteCache;
+import com.jelly.farmhelperv2.util.helper.SubTickScheduler;
+import com.jelly.farmhelperv2.util.helper.WebhookDispatcher;
 import net.minecraft.client.Minecraft;
 import net.minecraft.item.ItemStack;
 
@@ -46,6 +50,7 @@ public class DebugHUD extends TextHud {
         lines.add("   Pest Hunter: " + GameStateHandler.getInstance().getPestHunterBonus());
         lines.add("   Pest Repellent: " + GameStateHandler.getInstance().getPestRepellentState());
         lines.add("Location: " + GameStateHandler.getInstance().getLocation());
+        lines.add("Block changes/s: " + BlockChangeRouter.getInstance().getEmittedPerSecond() + " emitted, " + BlockChangeRouter.getInstance().getFilteredPerSecond() + " filtered");
 //        lines.add("Pests in Vacuum: " + GameStateHandler.getInstance().getPestsFromVacuum());
         MacroHandler.getInstance().getCurrentMacro().ifPresent(macro -> {
             lines.add("Current state: " + macro.getCurrentState());
@@ -163,10 +168,29 @@ public class DebugHUD extends TextHud {
             lines.add("   Clock: " + AutoPestExchange.getInstance().getDelayClock().getRemainingTime());
             lines.add("   Stuck clock: " + AutoPestExchange.getInstance().getStuckClock().getRemainingTime());
         }
+        if (FlyPathFinderExecutor.getInstance().isRunning()) {
+            FlyPathFinderExecutor flyPathFinder = FlyPathFinderExecutor.getInstance();
+            lines.add("Fly pathfinder");
+            lines.add("   State: " + flyPathFinder.getState());
+            lines.add(String.format("   Steering: %.1f µs/tick, replanning: %.1f µs/tick", flyPathFinder.getSteeringMicrosPerTick(), flyPathFinder.getReplanMicrosPerTick()));
+            lines.add("   Repairs: " + flyPathFinder.getFollowReplanner().getRepairs().get() + ", full replans: " + flyPathFinder.getFollowReplanner().getFullReplans().get());
+            lines.add("   Route cache: " + RouteCache.getInstance().getHits().get() + " hits, " + RouteCache.getInstance().getMisses().get() + " misses, " + RouteCache.getInstance().size() + " routes");
+        }
+        if (!SubTickScheduler.getInstance().getRegistrations().isEmpty()) {
+            lines.add("Sub-tick scheduler");
+            SubTickScheduler.getInstance().getRegistrations().forEach(registration -> lines.add("   " + registration));
+        }
+        if (FarmHelperConfig.enableWebHook) {
+            WebhookDispatcher webhooks = WebhookDispatcher.getInstance();
+            lines.add("Webhook queue");
+            lines.add("   Queued: " + webhooks.getQueueSize() + ", requests: " + webhooks.getRequests().get());
+            lines.add("   Sent: " + webhooks.getSent().get() + ", dropped: " + webhooks.getDropped().get() + ", failed: " + webhooks.getFailed().get() + ", 429s: " + webhooks.getRateLimited().get());
+        }
         if (BPSTracker.getInstance().isRunning()) {
             lines.add("BPSTracker");
             lines.add("   BPS: " + BPSTracker.getInstance().getBPS());
-            lines.add("   BPS queue size: " + BPSTracker.getInstance().bpsQueue.size());
+            lines.add("   BPS window size: " + BPSTracker.getInstance().bpsWindow.size());
+            lines.add(String.format("   BPS EMA: %.1f, p10: %.1f", BPSTracker.getInstance().getBPSEma(), BPSTracker.getInstance().getBPSPercentile(10)));
             lines.add("   Blocks broken: " + BPSTracker.getInstance().blocksBroken);
             lines.add("   Total blocks broken: " + BPSTracker.getInstance().totalBlocksBroken);
             lines.add("   Paused: " + BPSTracker.getInstance().isPaused);
@@ -174,11 +198,9 @@ public class DebugHUD extends TextHud {
             lines.add("   Pause start time: " + BPSTracker.getInstance().pauseStartTime);
             lines.add("   Last known BPS: " + BPSTracker.getInstance().lastKnownBPS);
             lines.add("   Elapsed time: " + BPSTracker.getInstance().elapsedTime);
-            if (!BPSTracker.getInstance().bpsQueue.isEmpty()
-                    && BPSTracker.getInstance().bpsQueue.getFirst() != null
-                    && BPSTracker.getInstance().bpsQueue.getLast() != null) {
-                lines.add("   First timestamp: " + BPSTracker.getInstance().bpsQueue.getFirst().getSecond());
-                lines.add("   Last timestamp: " + BPSTracker.getInstance().bpsQueue.getLast().getSecond());
+            if (BPSTracker.getInstance().bpsWindow.size() > 0) {
+                lines.add("   First timestamp: " + BPSTracker.getInstance().bpsWindow.getFirstTimestamp());
+                lines.add("   Last timestamp: " + BPSTracker.getInstance().bpsWindow.getLastTimestamp());
             }
         }
     }
@@ -2,7 +2,6 @@ package com.jelly.farmhelperv2.macro;
 
 import cc.polyfrost.oneconfig.utils.Multithreading;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.failsafe.impl.RotationFailsafe;
 import com.jelly.farmhelperv2.feature.FeatureManager;
@@ -20,6 +19,7 @@ import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.client.Minecraft;
 import net.minecraft.init.Blocks;
+import net.minecraft.network.play.server.S08PacketPlayerPosLook;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
 
 import java.util.Optional;
@@ -260,12 +260,10 @@ public abstract class AbstractMacro {
     public void onOverlayRender(RenderGameOverlayEvent.Post event) {
     }
 
-    public void onPacketReceived(ReceivePacketEvent event) {
+    public void onTeleportPacket(S08PacketPlayerPosLook packet) {
         /*
-        if (!(event.packet instanceof S08PacketPlayerPosLook)) return;
         if (!MacroHandler.getInstance().isTeleporting()) return;
 
-        S08PacketPlayerPosLook packet = (S08PacketPlayerPosLook) event.packet;
         Rotation packetRotation = new Rotation(packet.getYaw(), packet.getPitch());
         Rotation currentRotation = new Rotation(mc.thePlayer.rotationYaw, mc.thePlayer.rotationPitch);
         Rotation neededChange = RotationHandler.getInstance().getNeededChange(packetRotation, currentRotation);
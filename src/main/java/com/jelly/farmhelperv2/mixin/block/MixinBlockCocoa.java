@@ -4,6 +4,7 @@ import com.jelly.farmhelperv2.util.CropUtils;
 import net.minecraft.block.BlockCocoa;
 import net.minecraft.block.BlockDirectional;
 import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.AxisAlignedBB;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.MovingObjectPosition;
@@ -20,18 +21,21 @@ public abstract class MixinBlockCocoa extends BlockDirectional {
 
     @Override
     public void setBlockBoundsBasedOnState(IBlockAccess worldIn, BlockPos pos) {
-        CropUtils.updateCocoaBeansHitbox(worldIn.getBlockState(pos));
+        // The bounds are shared by every cocoa block, hitboxes come from CropUtils.getHitbox instead
+    }
+
+    @Override
+    public AxisAlignedBB getCollisionBoundingBox(World worldIn, BlockPos pos, IBlockState state) {
+        return CropUtils.getHitbox(state).offset(pos.getX(), pos.getY(), pos.getZ());
     }
 
     @Override
     public AxisAlignedBB getSelectedBoundingBox(World worldIn, BlockPos pos) {
-        CropUtils.updateCocoaBeansHitbox(worldIn.getBlockState(pos));
-        return super.getSelectedBoundingBox(worldIn, pos);
+        return CropUtils.getHitbox(worldIn.getBlockState(pos)).offset(pos.getX(), pos.getY(), pos.getZ());
     }
 
     @Override
     public MovingObjectPosition collisionRayTrace(World worldIn, BlockPos pos, Vec3 start, Vec3 end) {
-        CropUtils.updateCocoaBeansHitbox(worldIn.getBlockState(pos));
-        return super.collisionRayTrace(worldIn, pos, start, end);
+        return CropUtils.collisionRayTrace(CropUtils.getHitbox(worldIn.getBlockState(pos)), pos, start, end);
     }
 }
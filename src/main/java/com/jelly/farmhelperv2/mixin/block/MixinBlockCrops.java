@@ -15,13 +15,15 @@ public abstract class MixinBlockCrops extends BlockBush {
 
     @Override
     public AxisAlignedBB getSelectedBoundingBox(World worldIn, BlockPos pos) {
-        CropUtils.updateCropsMaxY(worldIn, pos, worldIn.getBlockState(pos).getBlock());
-        return super.getSelectedBoundingBox(worldIn, pos);
+        AxisAlignedBB hitbox = CropUtils.getHitbox(worldIn.getBlockState(pos));
+        if (hitbox == null) return super.getSelectedBoundingBox(worldIn, pos);
+        return hitbox.offset(pos.getX(), pos.getY(), pos.getZ());
     }
 
     @Override
     public MovingObjectPosition collisionRayTrace(World worldIn, BlockPos pos, Vec3 start, Vec3 end) {
-        CropUtils.updateCropsMaxY(worldIn, pos, worldIn.getBlockState(pos).getBlock());
-        return super.collisionRayTrace(worldIn, pos, start, end);
+        AxisAlignedBB hitbox = CropUtils.getHitbox(worldIn.getBlockState(pos));
+        if (hitbox == null) return super.collisionRayTrace(worldIn, pos, start, end);
+        return CropUtils.collisionRayTrace(hitbox, pos, start, end);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.jelly.farmhelperv2.mixin.client;
 
-import com.jelly.farmhelperv2.event.BlockChangeEvent;
+import com.jelly.farmhelperv2.event.ChunkServerLoadEvent;
+import com.jelly.farmhelperv2.handler.BlockChangeRouter;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.BlockPos;
 import net.minecraft.world.chunk.Chunk;
@@ -9,6 +10,7 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(Chunk.class)
@@ -19,8 +21,16 @@ public abstract class MixinChunk {
 
     @Inject(method = {"setBlockState"}, at = @At("HEAD"))
     public void onBlockSet(BlockPos pos, IBlockState state, CallbackInfoReturnable<IBlockState> cir) {
+        BlockChangeRouter router = BlockChangeRouter.getInstance();
+        if (!router.hasRoutes()) return;
         IBlockState old = getBlockState(pos);
         if (state != old)
-            MinecraftForge.EVENT_BUS.post(new BlockChangeEvent(pos, old, state, ((Chunk) (Object) this).getWorld()));
+            router.onBlockChange(((Chunk) (Object) this).getWorld(), pos, old, state);
+    }
+
+    @Inject(method = "fillChunk", at = @At("RETURN"))
+    public void onFillChunk(byte[] data, int primaryBitMask, boolean fullChunk, CallbackInfo ci) {
+        Chunk chunk = (Chunk) (Object) this;
+        MinecraftForge.EVENT_BUS.post(new ChunkServerLoadEvent(chunk.xPosition, chunk.zPosition, chunk));
     }
 }
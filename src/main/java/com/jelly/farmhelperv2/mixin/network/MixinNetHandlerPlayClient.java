@@ -4,12 +4,14 @@ import com.jelly.farmhelperv2.event.SpawnObjectEvent;
 import com.jelly.farmhelperv2.event.SpawnParticleEvent;
 import com.jelly.farmhelperv2.event.UpdateTablistEvent;
 import com.jelly.farmhelperv2.event.UpdateTablistFooterEvent;
+import com.jelly.farmhelperv2.handler.BlockChangeRouter;
 import com.jelly.farmhelperv2.util.TablistUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiPlayerTabOverlay;
 import net.minecraft.client.network.NetHandlerPlayClient;
 import net.minecraft.client.network.NetworkPlayerInfo;
 import net.minecraft.network.play.server.S0EPacketSpawnObject;
+import net.minecraft.network.play.server.S22PacketMultiBlockChange;
 import net.minecraft.network.play.server.S2APacketParticles;
 import net.minecraft.network.play.server.S38PacketPlayerListItem;
 import net.minecraft.network.play.server.S47PacketPlayerListHeaderFooter;
@@ -61,6 +63,19 @@ public class MixinNetHandlerPlayClient {
         MinecraftForge.EVENT_BUS.post(event);
     }
 
+    @Inject(method = "handleMultiBlockChange", at = @At(value = "HEAD"))
+    public void handleMultiBlockChangeHead(S22PacketMultiBlockChange packetIn, CallbackInfo ci) {
+        // The packet first comes in on the Netty thread, only to be scheduled on the client thread
+        if (Minecraft.getMinecraft().isCallingFromMinecraftThread()) {
+            BlockChangeRouter.getInstance().beginBatch();
+        }
+    }
+
+    @Inject(method = "handleMultiBlockChange", at = @At(value = "RETURN"))
+    public void handleMultiBlockChangeReturn(S22PacketMultiBlockChange packetIn, CallbackInfo ci) {
+        BlockChangeRouter.getInstance().endBatch();
+    }
+
     @Unique
     private final List<String> farmHelperV2$previousTablist = new ArrayList<>();
     @Unique
@@ -0,0 +1,420 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import lombok.Getter;
+import net.minecraft.util.Vec3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 3D A* for flying, moving one block along the six axes like the vanilla fly node processor did.
+ * Cells are packed into a {@code long}, nodes live in parallel primitive arrays, and the open set is a binary heap of node indices.
+ * All buffers are kept between searches, so a search only allocates its result.
+ * A search gives up when the thread running it is interrupted, so it can be cancelled cooperatively.
+ * An instance is not thread safe.
+ */
+public class FlyAStar {
+    private static final int[] OFFSET_X = {0, 0, 0, 0, -1, 1};
+    private static final int[] OFFSET_Y = {-1, 1, 0, 0, 0, 0};
+    private static final int[] OFFSET_Z = {0, 0, -1, 1, 0, 0};
+    private static final int CLOSED = -2;
+    // How many expansions happen between two looks at the clock and the interrupt flag
+    private static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * Tells whether a single block can be flown through.
+     */
+    public interface Passability {
+        boolean isFree(int x, int y, int z);
+    }
+
+    public enum StopReason {
+        COMPLETED,
+        NODE_BUDGET,
+        TIME_BUDGET,
+        INTERRUPTED
+    }
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+
+    // Nodes, indexed by the order they were discovered in
+    private long[] nodeKey = new long[4096];
+    private float[] nodeG = new float[4096];
+    private float[] nodeH = new float[4096];
+    private float[] nodeDistance = new float[4096];
+    private int[] nodeParent = new int[4096];
+    private int[] nodeHeapIndex = new int[4096];
+    private int nodeCount = 0;
+
+    // Open addressing map from packed cell to node index, entries from older searches are told apart by their stamp
+    private long[] tableKey = new long[8192];
+    private int[] tableNode = new int[8192];
+    private int[] tableStamp = new int[8192];
+    private int stamp = 0;
+
+    private int[] heap = new int[4096];
+    private int heapSize = 0;
+
+    @Getter
+    private int lastExpanded = 0;
+    @Getter
+    private long lastNanos = 0;
+    @Getter
+    private StopReason lastStopReason = StopReason.COMPLETED;
+
+    public FlyAStar(int sizeX, int sizeY, int sizeZ) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+    }
+
+    /**
+     * Finds a path between two cells, both included in the result.
+     * Cells at {@code maxDistance} or further from the goal are never visited.
+     * If the goal can't be reached the path ends at the visited cell closest to it, like vanilla's {@code PathFinder}.
+     *
+     * @return the path in block coordinates, or null if no cell but the start could be reached or the node budget ran out
+     */
+    public List<Vec3> search(Passability world, int startX, int startY, int startZ, int goalX, int goalY, int goalZ, float maxDistance, int maxNodes) {
+        return search(world, startX, startY, startZ, goalX, goalY, goalZ, maxDistance, maxNodes, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #search(Passability, int, int, int, int, int, int, float, int)}, but also gives up after {@code maxNanos}.
+     * {@link #getLastStopReason()} tells why a search returned null.
+     */
+    public List<Vec3> search(Passability world, int startX, int startY, int startZ, int goalX, int goalY, int goalZ, float maxDistance, int maxNodes, long maxNanos) {
+        long startTime = System.nanoTime();
+        reset();
+        lastStopReason = StopReason.COMPLETED;
+        int start = addNode(pack(startX, startY, startZ), manhattan(startX, startY, startZ, goalX, goalY, goalZ), distance(startX, startY, startZ, goalX, goalY, goalZ));
+        nodeG[start] = 0;
+        push(start);
+        int best = start;
+        int expanded = 0;
+        long goalKey = pack(goalX, goalY, goalZ);
+
+        while (heapSize > 0) {
+            int current = pop();
+            expanded++;
+            long key = nodeKey[current];
+            if (key == goalKey) {
+                best = current;
+                break;
+            }
+            if (nodeDistance[current] < nodeDistance[best]) {
+                best = current;
+            }
+            if (nodeCount >= maxNodes) {
+                lastStopReason = StopReason.NODE_BUDGET;
+                best = -1;
+                break;
+            }
+            if (expanded % CHECK_INTERVAL == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    lastStopReason = StopReason.INTERRUPTED;
+                    best = -1;
+                    break;
+                }
+                if (System.nanoTime() - startTime > maxNanos) {
+                    lastStopReason = StopReason.TIME_BUDGET;
+                    best = -1;
+                    break;
+                }
+            }
+            int x = unpackX(key);
+            int y = unpackY(key);
+            int z = unpackZ(key);
+            for (int i = 0; i < 6; i++) {
+                int nx = x + OFFSET_X[i];
+                int ny = y + OFFSET_Y[i];
+                int nz = z + OFFSET_Z[i];
+                long neighbourKey = pack(nx, ny, nz);
+                int neighbour = find(neighbourKey);
+                if (neighbour >= 0 && nodeHeapIndex[neighbour] == CLOSED) continue;
+                float g = nodeG[current] + 1;
+                if (neighbour < 0) {
+                    if (!fits(world, nx, ny, nz)) continue;
+                    if (distance(nx, ny, nz, goalX, goalY, goalZ) >= maxDistance) continue;
+                    neighbour = addNode(neighbourKey, manhattan(nx, ny, nz, goalX, goalY, goalZ), distance(nx, ny, nz, goalX, goalY, goalZ));
+                } else if (g >= nodeG[neighbour]) {
+                    continue;
+                }
+                nodeG[neighbour] = g;
+                nodeParent[neighbour] = current;
+                if (nodeHeapIndex[neighbour] >= 0) {
+                    siftUp(nodeHeapIndex[neighbour]);
+                } else {
+                    push(neighbour);
+                }
+            }
+        }
+
+        lastExpanded = expanded;
+        lastNanos = System.nanoTime() - startTime;
+        if (best < 0 || best == start) return null;
+        List<Vec3> path = new ArrayList<>();
+        for (int node = best; node >= 0; node = nodeParent[node]) {
+            long key = nodeKey[node];
+            path.add(new Vec3(unpackX(key), unpackY(key), unpackZ(key)));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Searches from one cell towards several goal cells at once and writes the travel cost to each of them into {@code costs},
+     * in blocks moved, or {@link Float#POSITIVE_INFINITY} for the goals that weren't reached.
+     * The heuristic is the distance to the closest goal, which stays consistent, so every goal is reached with its cheapest cost.
+     *
+     * @param all keep going until every goal is reached instead of stopping at the first one, which is then the cheapest one
+     * @return how many goals were reached
+     */
+    public int searchGoals(Passability world, int startX, int startY, int startZ, long[] goals, boolean all, float[] costs, int maxNodes, long maxNanos) {
+        long startTime = System.nanoTime();
+        reset();
+        lastStopReason = StopReason.COMPLETED;
+        Arrays.fill(costs, 0, goals.length, Float.POSITIVE_INFINITY);
+        float startH = closestGoal(goals, startX, startY, startZ);
+        int start = addNode(pack(startX, startY, startZ), startH, startH);
+        nodeG[start] = 0;
+        push(start);
+        int expanded = 0;
+        int reached = 0;
+
+        while (heapSize > 0) {
+            int current = pop();
+            expanded++;
+            long key = nodeKey[current];
+            // Only a goal is at no distance from the closest goal
+            if (nodeH[current] == 0) {
+                for (int goal = 0; goal < goals.length; goal++) {
+                    if (goals[goal] == key && costs[goal] == Float.POSITIVE_INFINITY) {
+                        costs[goal] = nodeG[current];
+                        reached++;
+                    }
+                }
+                if (!all || reached == goals.length) break;
+            }
+            if (nodeCount >= maxNodes) {
+                lastStopReason = StopReason.NODE_BUDGET;
+                break;
+            }
+            if (expanded % CHECK_INTERVAL == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    lastStopReason = StopReason.INTERRUPTED;
+                    break;
+                }
+                if (System.nanoTime() - startTime > maxNanos) {
+                    lastStopReason = StopReason.TIME_BUDGET;
+                    break;
+                }
+            }
+            int x = unpackX(key);
+            int y = unpackY(key);
+            int z = unpackZ(key);
+            for (int i = 0; i < 6; i++) {
+                int nx = x + OFFSET_X[i];
+                int ny = y + OFFSET_Y[i];
+                int nz = z + OFFSET_Z[i];
+                long neighbourKey = pack(nx, ny, nz);
+                int neighbour = find(neighbourKey);
+                if (neighbour >= 0 && nodeHeapIndex[neighbour] == CLOSED) continue;
+                float g = nodeG[current] + 1;
+                if (neighbour < 0) {
+                    if (!fits(world, nx, ny, nz)) continue;
+                    float h = closestGoal(goals, nx, ny, nz);
+                    neighbour = addNode(neighbourKey, h, h);
+                } else if (g >= nodeG[neighbour]) {
+                    continue;
+                }
+                nodeG[neighbour] = g;
+                nodeParent[neighbour] = current;
+                if (nodeHeapIndex[neighbour] >= 0) {
+                    siftUp(nodeHeapIndex[neighbour]);
+                } else {
+                    push(neighbour);
+                }
+            }
+        }
+
+        lastExpanded = expanded;
+        lastNanos = System.nanoTime() - startTime;
+        return reached;
+    }
+
+    private static float closestGoal(long[] goals, int x, int y, int z) {
+        float closest = Float.MAX_VALUE;
+        for (long goal : goals) {
+            closest = Math.min(closest, manhattan(x, y, z, unpackX(goal), unpackY(goal), unpackZ(goal)));
+        }
+        return closest;
+    }
+
+    private boolean fits(Passability world, int x, int y, int z) {
+        for (int dx = 0; dx < sizeX; dx++) {
+            for (int dy = 0; dy < sizeY; dy++) {
+                for (int dz = 0; dz < sizeZ; dz++) {
+                    if (!world.isFree(x + dx, y + dy, z + dz)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void reset() {
+        nodeCount = 0;
+        heapSize = 0;
+        if (++stamp == 0) {
+            // The stamp wrapped around, old entries could look current again
+            Arrays.fill(tableStamp, 0);
+            stamp = 1;
+        }
+    }
+
+    private int addNode(long key, float h, float distance) {
+        if (nodeCount == nodeKey.length) {
+            int capacity = nodeCount * 2;
+            nodeKey = Arrays.copyOf(nodeKey, capacity);
+            nodeG = Arrays.copyOf(nodeG, capacity);
+            nodeH = Arrays.copyOf(nodeH, capacity);
+            nodeDistance = Arrays.copyOf(nodeDistance, capacity);
+            nodeParent = Arrays.copyOf(nodeParent, capacity);
+            nodeHeapIndex = Arrays.copyOf(nodeHeapIndex, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+        }
+        int node = nodeCount++;
+        nodeKey[node] = key;
+        nodeH[node] = h;
+        nodeDistance[node] = distance;
+        nodeParent[node] = -1;
+        nodeHeapIndex[node] = -1;
+        if (nodeCount * 2 > tableKey.length) {
+            growTable();
+        }
+        insert(key, node);
+        return node;
+    }
+
+    private int find(long key) {
+        int mask = tableKey.length - 1;
+        for (int slot = hash(key) & mask; tableStamp[slot] == stamp; slot = (slot + 1) & mask) {
+            if (tableKey[slot] == key) return tableNode[slot];
+        }
+        return -1;
+    }
+
+    private void insert(long key, int node) {
+        int mask = tableKey.length - 1;
+        int slot = hash(key) & mask;
+        while (tableStamp[slot] == stamp) {
+            slot = (slot + 1) & mask;
+        }
+        tableKey[slot] = key;
+        tableNode[slot] = node;
+        tableStamp[slot] = stamp;
+    }
+
+    private void growTable() {
+        int capacity = tableKey.length * 2;
+        tableKey = new long[capacity];
+        tableNode = new int[capacity];
+        tableStamp = new int[capacity];
+        for (int node = 0; node < nodeCount - 1; node++) {
+            insert(nodeKey[node], node);
+        }
+    }
+
+    private void push(int node) {
+        heap[heapSize] = node;
+        nodeHeapIndex[node] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        nodeHeapIndex[top] = CLOSED;
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            nodeHeapIndex[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (!lessThan(node, parent)) break;
+            heap[index] = parent;
+            nodeHeapIndex[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = node;
+        nodeHeapIndex[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && lessThan(heap[child + 1], heap[child])) child++;
+            if (!lessThan(heap[child], node)) break;
+            heap[index] = heap[child];
+            nodeHeapIndex[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        nodeHeapIndex[node] = index;
+    }
+
+    private boolean lessThan(int a, int b) {
+        float fa = nodeG[a] + nodeH[a];
+        float fb = nodeG[b] + nodeH[b];
+        if (fa != fb) return fa < fb;
+        // Among equally short paths prefer the cells closest to the straight line, which gives smoother staircases
+        return nodeDistance[a] < nodeDistance[b];
+    }
+
+    // Every move is along one axis, so the manhattan distance is the exact cost in open air
+    private static float manhattan(int x, int y, int z, int goalX, int goalY, int goalZ) {
+        return Math.abs(goalX - x) + Math.abs(goalY - y) + Math.abs(goalZ - z);
+    }
+
+    private static float distance(int x, int y, int z, int goalX, int goalY, int goalZ) {
+        int dx = goalX - x;
+        int dy = goalY - y;
+        int dz = goalZ - z;
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    // 26 bits for x and z, 12 bits for y
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (y & 0xFFF) << 26) | (z & 0x3FFFFFF);
+    }
+
+    public static int unpackX(long key) {
+        return (int) (key >> 38);
+    }
+
+    public static int unpackY(long key) {
+        return (int) (key << 26 >> 52);
+    }
+
+    public static int unpackZ(long key) {
+        return (int) (key << 38 >> 38);
+    }
+}
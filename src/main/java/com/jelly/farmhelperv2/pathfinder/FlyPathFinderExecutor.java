@@ -3,11 +3,10 @@ package com.jelly.farmhelperv2.pathfinder;
 import cc.polyfrost.oneconfig.utils.Multithreading;
 import com.google.common.collect.EvictingQueue;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
-import com.jelly.farmhelperv2.event.ReceivePacketEvent;
 import com.jelly.farmhelperv2.feature.impl.LagDetector;
+import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.RotationHandler;
 import com.jelly.farmhelperv2.mixin.client.EntityPlayerAccessor;
-import com.jelly.farmhelperv2.mixin.pathfinder.PathfinderAccessor;
 import com.jelly.farmhelperv2.util.*;
 import com.jelly.farmhelperv2.util.helper.*;
 import lombok.Getter;
@@ -22,26 +21,22 @@ import net.minecraft.client.settings.KeyBinding;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityArmorStand;
 import net.minecraft.network.play.server.S08PacketPlayerPosLook;
-import net.minecraft.pathfinding.PathEntity;
-import net.minecraft.pathfinding.PathFinder;
-import net.minecraft.pathfinding.PathPoint;
 import net.minecraft.potion.Potion;
 import net.minecraft.util.AxisAlignedBB;
 import net.minecraft.util.BlockPos;
-import net.minecraft.util.MovingObjectPosition;
+import net.minecraft.util.MathHelper;
 import net.minecraft.util.Vec3;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.event.world.WorldEvent;
-import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class FlyPathFinderExecutor {
@@ -55,12 +50,23 @@ public class FlyPathFinderExecutor {
     }
 
     private final Minecraft mc = Minecraft.getMinecraft();
-    private Thread pathfinderTask;
-    private Thread timeoutTask;
     @Getter
     private State state = State.NONE;
     private int tick = 0;
-    private final CopyOnWriteArrayList<Vec3> path = new CopyOnWriteArrayList<>();
+    // Replaced as a whole, never modified, so the steering code can read it without copying
+    private volatile List<Vec3> path = Collections.emptyList();
+    // Index of the path point the player last passed, only ever moves forward on the same path
+    private List<Vec3> cursorPath = Collections.emptyList();
+    private int pathCursor = 0;
+    private final SteeringProbes probes = new SteeringProbes();
+    private final PassabilitySnapshot.View steeringWorld = PassabilitySnapshot.getInstance().view(false);
+    private final VoxelRaycaster raycaster = new VoxelRaycaster();
+    private PlayerSimulation stoppingSimulation;
+    private long steeringTick = 0;
+    private long probesTick = -1;
+    // CPU time of the steering code, averaged over roughly the last second of ticks
+    @Getter
+    private double steeringMicrosPerTick = 0;
     private Vec3 target;
     private Entity targetEntity;
     private boolean follow;
@@ -72,11 +78,22 @@ public class FlyPathFinderExecutor {
     private boolean useAOTV = false;
     @Getter
     private long lastTpTime = 0;
-    private final FlyNodeProcessor flyNodeProcessor = new FlyNodeProcessor();
-    private final PathFinder pathFinder = new PathFinder(flyNodeProcessor);
+    // The player fits in a 1x2x1 column of blocks
+    private final FlyAStar flyAStar = new FlyAStar(1, 2, 1);
+    @Getter
+    private final FollowReplanner followReplanner = new FollowReplanner();
+    private final AtomicLong replanNanos = new AtomicLong();
+    private long replanNanosAtLastTick = 0;
+    // Time spent re-planning follows, averaged over roughly the last second of ticks
+    @Getter
+    private double replanMicrosPerTick = 0;
     @Getter
     private float neededYaw = Integer.MIN_VALUE;
     private final int MAX_DISTANCE = 1500;
+    private final int MAX_NODES = 400_000;
+    private final long MAX_SEARCH_MILLIS = 10_000;
+    // How many points ahead of the cursor are looked at when moving it
+    private final int CURSOR_LOOKAHEAD = 8;
     private int ticksAtLastPos = 0;
     private Vec3 lastPosCheck = new Vec3(0, 0, 0);
     private float yModifier = 0;
@@ -99,72 +116,132 @@ public class FlyPathFinderExecutor {
         }
         lastPosition = new Position(mc.thePlayer.getPosition(), new Rotation(mc.thePlayer.rotationYaw, mc.thePlayer.rotationPitch));
         lastPositions.add(lastPosition);
+        // Following re-targets while pathing, only the first search of a trip goes through the route cache
+        boolean newTrip = !isPathing();
         state = State.CALCULATING;
         this.follow = follow;
         this.target = pos;
         this.smooth = smooth;
-        try {
-            pathfinderTask = new Thread(() -> {
-                long startTime = System.currentTimeMillis();
-                float maxDistance = (float) Math.min(mc.thePlayer.getPositionVector().distanceTo(pos) + 5, MAX_DISTANCE);
-                LogUtils.sendDebug("Distance to target: " + maxDistance);
-                LogUtils.sendDebug("Pathfinding to " + pos);
-                PathEntity route = ((PathfinderAccessor) pathFinder).createPath(mc.theWorld, mc.thePlayer, pos.xCoord, pos.yCoord, pos.zCoord, maxDistance);
-                if (route == null) {
+        // Everything the search needs from the world is read here, on the client thread
+        AxisAlignedBB bb = mc.thePlayer.getEntityBoundingBox();
+        int startX = MathHelper.floor_double(bb.minX);
+        int startY = MathHelper.floor_double(bb.minY + 0.5D);
+        int startZ = MathHelper.floor_double(bb.minZ);
+        int goalX = MathHelper.floor_double(pos.xCoord - mc.thePlayer.width / 2.0D);
+        int goalY = MathHelper.floor_double(pos.yCoord - mc.thePlayer.height / 2.0D);
+        int goalZ = MathHelper.floor_double(pos.zCoord - mc.thePlayer.width / 2.0D);
+        double distanceToTarget = mc.thePlayer.getPositionVector().distanceTo(pos);
+        float maxDistance = (float) Math.min(distanceToTarget + 5, MAX_DISTANCE);
+        PassabilitySnapshot.getInstance().ensureCaptured(mc.theWorld, startX, startZ, goalX, goalZ);
+        PassabilitySnapshot.View world = PassabilitySnapshot.getInstance().view(GameStateHandler.getInstance().getLocation() == GameStateHandler.Location.GARDEN);
+        // Trips to a moving entity rarely repeat, they would only push the useful routes out of the cache
+        String location = newTrip && targetEntity == null ? GameStateHandler.getInstance().getLocation().name() : null;
+        if (location != null) {
+            List<Vec3> cached = RouteCache.getInstance().get(mc.theWorld, world, location, smooth, startX, startY, startZ, goalX, goalY, goalZ);
+            if (cached != null) {
+                PathfindingService.getInstance().cancel();
+                LogUtils.sendDebug("Using the cached route to " + pos);
+                setRoute(cached);
+                return;
+            }
+        }
+        long revision = PassabilitySnapshot.getInstance().getRevision().get();
+        // A newer request replaces the one still being searched, which matters when follow re-targets every few ticks
+        PathfindingService.getInstance().submit(() -> {
+            long startTime = System.currentTimeMillis();
+            LogUtils.sendDebug("Distance to target: " + maxDistance);
+            LogUtils.sendDebug("Pathfinding to " + pos);
+            SearchResult result = searchPath(world, startX, startY, startZ, goalX, goalY, goalZ, maxDistance, follow);
+            if (result.route == null) return result;
+            List<Vec3> route = result.route;
+            LogUtils.sendDebug("Pathfinding took " + (System.currentTimeMillis() - startTime) + "ms, " + flyAStar.getLastExpanded() + " nodes expanded");
+            if (smooth) {
+                route = LineOfSight.smooth(world, route);
+                LogUtils.sendDebug("Path smoothing took " + TimeUnit.NANOSECONDS.toMicros(LineOfSight.getLastSmoothNanos()) + "µs, " + LineOfSight.getLastSmoothChecks() + " sight checks");
+            }
+            if (location != null) {
+                RouteCache.getInstance().put(location, smooth, route, goalX, goalY, goalZ, revision);
+            }
+            return new SearchResult(route, result.stopReason);
+        }, result -> {
+            // Null when the search threw
+            if (result == null || result.route == null) {
+                if (result != null && result.stopReason == FlyAStar.StopReason.TIME_BUDGET) {
+                    LogUtils.sendError("Pathfinding took too long");
+                    RotationHandler.getInstance().reset();
+                } else {
                     LogUtils.sendError("Failed to find path to " + pos);
-                    state = State.FAILED;
-                    double distance = mc.thePlayer.getPositionVector().distanceTo(this.target);
-                    if (distance > MAX_DISTANCE) {
-                        LogUtils.sendError("Distance to target is too far. Distance: " + distance + ", Max distance: " + MAX_DISTANCE);
-                        stop();
-                    }
-                    return;
                 }
-                if (!isRunning()) {
+                state = State.FAILED;
+                if (distanceToTarget > MAX_DISTANCE) {
+                    LogUtils.sendError("Distance to target is too far. Distance: " + distanceToTarget + ", Max distance: " + MAX_DISTANCE);
                     stop();
-                    return;
                 }
-                LogUtils.sendDebug("Pathfinding took " + (System.currentTimeMillis() - startTime) + "ms");
-                startTime = System.currentTimeMillis();
-                List<Vec3> finalRoute = new ArrayList<>();
-                for (int i = 0; i < route.getCurrentPathLength(); i++) {
-                    PathPoint pathPoint = route.getPathPointFromIndex(i);
-                    finalRoute.add(new Vec3(pathPoint.xCoord, pathPoint.yCoord, pathPoint.zCoord));
-                }
-                if (smooth) {
-                    finalRoute = smoothPath(finalRoute);
-                }
-                if (!this.isDecelerating()) {
-                    this.path.clear();
-                    this.path.addAll(finalRoute.stream().map(vec3 -> vec3.addVector(0.5f, 0.15, 0.5)).collect(Collectors.toCollection(CopyOnWriteArrayList::new)));
-                    state = State.PATHING;
-                }
-                LogUtils.sendDebug("Path smoothing took " + (System.currentTimeMillis() - startTime) + "ms");
-                if (timeoutTask != null) {
-                    timeoutTask.stop();
+                return;
+            }
+            if (!isRunning()) {
+                stop();
+                return;
+            }
+            setRoute(result.route);
+        });
+    }
+
+    /**
+     * Starts following a route in block coordinates, unless the player is already slowing down at the end of the previous one.
+     */
+    private void setRoute(List<Vec3> route) {
+        if (!this.isDecelerating()) {
+            this.path = Collections.unmodifiableList(route.stream().map(vec3 -> vec3.addVector(0.5f, 0.15, 0.5)).collect(Collectors.toList()));
+            state = State.PATHING;
+        }
+    }
+
+    /**
+     * Start and goal cells are picked the same way vanilla's fly node processor picked them for the player's bounding box.
+     * While following, the previous route is repaired when possible. Trips between garden plots go over the plot entrances first,
+     * everything else is a single block level search.
+     * Only the passability snapshot is read, so this is safe to run off the client thread.
+     */
+    private synchronized SearchResult searchPath(PassabilitySnapshot.View world, int startX, int startY, int startZ, int goalX, int goalY, int goalZ, float maxDistance, boolean follow) {
+        long startTime = System.nanoTime();
+        try {
+            if (!follow) {
+                followReplanner.reset();
+            } else {
+                List<Vec3> repaired = followReplanner.repair(world, startX, startY, startZ, goalX, goalY, goalZ);
+                if (repaired != null) {
+                    LogUtils.sendDebug("Repaired the previous path in " + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime) + "µs");
+                    return new SearchResult(repaired, FlyAStar.StopReason.COMPLETED);
                 }
-            });
-            pathfinderTask.start();
-            timeoutTask = new Thread(() -> {
-                try {
-                    Thread.sleep(10_000);
-                    if (isCalculating()) {
-                        LogUtils.sendError("Pathfinding took too long");
-                        RotationHandler.getInstance().reset();
-                        state = State.FAILED;
-                        if (pathfinderTask != null) {
-                            pathfinderTask.stop();
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    LogUtils.sendDebug("Pathfinding finished before timeout");
+            }
+            long revision = PassabilitySnapshot.getInstance().getRevision().get();
+            List<Vec3> route = null;
+            // The garden graph and the direct search share one time budget
+            long maxNanos = TimeUnit.MILLISECONDS.toNanos(MAX_SEARCH_MILLIS);
+            if (world.isGardenBounds()) {
+                GardenNavGraph graph = GardenNavGraph.getInstance();
+                route = graph.findRoute(world, startX, startY, startZ, goalX, goalY, goalZ, maxNanos);
+                if (route != null) {
+                    LogUtils.sendDebug("Garden route took " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + "ms, " + graph.getLastLegsSearched() + " legs searched");
+                } else if (graph.getLastStopReason() != FlyAStar.StopReason.COMPLETED) {
+                    return new SearchResult(null, graph.getLastStopReason());
                 }
-            });
-            timeoutTask.start();
-        } catch (Exception e) {
-            LogUtils.sendError("Pathfinding took too long");
-            if (!this.follow)
-                stop();
+            }
+            FlyAStar.StopReason stopReason = FlyAStar.StopReason.COMPLETED;
+            if (route == null) {
+                route = flyAStar.search(world, startX, startY, startZ, goalX, goalY, goalZ, maxDistance, MAX_NODES, maxNanos - (System.nanoTime() - startTime));
+                // Read right away, the garden graph and the replanner run searches of their own
+                stopReason = flyAStar.getLastStopReason();
+            }
+            if (follow && route != null) {
+                followReplanner.planned(route, revision);
+            }
+            return new SearchResult(route, stopReason);
+        } finally {
+            if (follow) {
+                replanNanos.addAndGet(System.nanoTime() - startTime);
+            }
         }
     }
 
@@ -198,53 +275,6 @@ public class FlyPathFinderExecutor {
         return lastPositions.stream().anyMatch(position -> position.pos.equals(pos));
     }
 
-    private List<Vec3> smoothPath(List<Vec3> path) {
-        if (path.size() < 2) {
-            return path;
-        }
-        List<Vec3> smoothed = new ArrayList<>();
-        smoothed.add(path.get(0));
-        int lowerIndex = 0;
-        while (lowerIndex < path.size() - 2) {
-            Vec3 start = path.get(lowerIndex);
-            Vec3 lastValid = path.get(lowerIndex + 1);
-            for (int upperIndex = lowerIndex + 2; upperIndex < path.size(); upperIndex++) {
-                Vec3 end = path.get(upperIndex);
-                if (traversable(start.addVector(0, 0.1, 0), end.addVector(0, 0.1, 0)) &&
-                        traversable(start.addVector(0, 0.9, 0), end.addVector(0, 0.9, 0)) &&
-                        traversable(start.addVector(0, 1.1, 0), end.addVector(0, 1.1, 0)) &&
-                        traversable(start.addVector(0, 1.9, 0), end.addVector(0, 1.9, 0))) {
-                    lastValid = end;
-                }
-            }
-            smoothed.add(lastValid);
-            lowerIndex = path.indexOf(lastValid);
-        }
-
-        return smoothed;
-    }
-
-    private static final Vec3[] BLOCK_SIDE_MULTIPLIERS = new Vec3[]{
-            new Vec3(0.05, 0, 0.05),
-            new Vec3(0.05, 0, 0.95),
-            new Vec3(0.95, 0, 0.05),
-            new Vec3(0.95, 0, 0.95)
-    };
-
-    private boolean traversable(Vec3 from, Vec3 to) {
-        for (Vec3 offset : BLOCK_SIDE_MULTIPLIERS) {
-            Vec3 fromVec = new Vec3(from.xCoord + offset.xCoord, from.yCoord + offset.yCoord, from.zCoord + offset.zCoord);
-            Vec3 toVec = new Vec3(to.xCoord + offset.xCoord, to.yCoord + offset.yCoord, to.zCoord + offset.zCoord);
-            MovingObjectPosition trace = mc.theWorld.rayTraceBlocks(fromVec, toVec, false, true, false);
-
-            if (trace != null) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
     public boolean isPathing() {
         return state == State.PATHING;
     }
@@ -267,7 +297,7 @@ public class FlyPathFinderExecutor {
 
     public void stop() {
         RotationHandler.getInstance().reset();
-        path.clear();
+        path = Collections.emptyList();
         target = null;
         tped = true;
         aotvDelay.reset();
@@ -278,14 +308,8 @@ public class FlyPathFinderExecutor {
         KeyBindUtils.stopMovement(true);
         loweringRaisingDelay.reset();
         neededYaw = Integer.MIN_VALUE;
-        if (pathfinderTask != null) {
-            pathfinderTask.interrupt();
-            pathfinderTask = null;
-        }
-        if (timeoutTask != null) {
-            timeoutTask.interrupt();
-            timeoutTask = null;
-        }
+        PathfindingService.getInstance().cancel();
+        followReplanner.reset();
         ticksAtLastPos = 0;
         lastPosCheck = new Vec3(0, 0, 0);
         stuckBreak.reset();
@@ -304,6 +328,9 @@ public class FlyPathFinderExecutor {
     @SubscribeEvent
     public void onTick(TickEvent.ClientTickEvent event) {
         if (event.phase == TickEvent.Phase.END) return;
+        long totalReplanNanos = replanNanos.get();
+        replanMicrosPerTick += ((totalReplanNanos - replanNanosAtLastTick) / 1_000D - replanMicrosPerTick) / 20;
+        replanNanosAtLastTick = totalReplanNanos;
         if (path.isEmpty()) return;
         if (target == null) return;
         tick = (tick + 1) % 12;
@@ -327,6 +354,13 @@ public class FlyPathFinderExecutor {
     @SubscribeEvent
     public void onTickNeededYaw(TickEvent.ClientTickEvent event) {
         if (event.phase == TickEvent.Phase.END) return;
+        long startTime = System.nanoTime();
+        steeringTick++;
+        steer();
+        steeringMicrosPerTick += ((System.nanoTime() - startTime) / 1_000D - steeringMicrosPerTick) / 20;
+    }
+
+    private void steer() {
         if (state == State.NONE) return;
         if (state == State.FAILED) {
             neededYaw = Integer.MIN_VALUE;
@@ -337,11 +371,12 @@ public class FlyPathFinderExecutor {
             neededYaw = Integer.MIN_VALUE;
             return;
         }
-        ArrayList<Vec3> copyPath = new ArrayList<>(path);
+        List<Vec3> copyPath = path;
         if (copyPath.isEmpty()) {
             KeyBindUtils.stopMovement(true);
             return;
         }
+        steeringWorld.refresh();
 
         if (state == State.DECELERATING) {
             if (Math.abs(mc.thePlayer.motionX) <= 0.05 && Math.abs(mc.thePlayer.motionZ) <= 0.05 && mc.thePlayer.motionY == (mc.thePlayer.onGround ? -0.0784000015258789 : 0)) {
@@ -360,11 +395,9 @@ public class FlyPathFinderExecutor {
             stuckBreak.schedule(800);
             float rotationToEscape;
             for (rotationToEscape = 0; rotationToEscape < 360; rotationToEscape += 20) {
-                Vec3 escape = current.addVector(Math.cos(Math.toRadians(rotationToEscape)), 0, Math.sin(Math.toRadians(rotationToEscape)));
-                if (traversable(current.addVector(0, 0.1, 0), escape.addVector(0, 0.1, 0)) &&
-                        traversable(current.addVector(0, 0.9, 0), escape.addVector(0, 0.9, 0)) &&
-                        traversable(current.addVector(0, 1.1, 0), escape.addVector(0, 1.1, 0)) &&
-                        traversable(current.addVector(0, 1.9, 0), escape.addVector(0, 1.9, 0))) {
+                double escapeX = current.xCoord + Math.cos(Math.toRadians(rotationToEscape));
+                double escapeZ = current.zCoord + Math.sin(Math.toRadians(rotationToEscape));
+                if (LineOfSight.isTraversable(steeringWorld, current.xCoord, current.yCoord, current.zCoord, escapeX, current.yCoord, escapeZ)) {
                     break;
                 }
             }
@@ -373,13 +406,11 @@ public class FlyPathFinderExecutor {
                 List<KeyBinding> keyBindings = new ArrayList<>(KeyBindUtils.getNeededKeyPresses(neededYaw));
                 keyBindings.add(mc.gameSettings.keyBindUseItem.isKeyDown() ? mc.gameSettings.keyBindUseItem : null);
                 keyBindings.add(mc.gameSettings.keyBindAttack.isKeyDown() ? mc.gameSettings.keyBindAttack : null);
-                Vec3 above = current.addVector(0, mc.thePlayer.height + 0.5f, 0);
-                Vec3 below = current.addVector(0, -0.5f, 0);
-                MovingObjectPosition traceAbove = mc.theWorld.rayTraceBlocks(current, above, false, true, false);
-                MovingObjectPosition traceBelow = mc.theWorld.rayTraceBlocks(current, below, false, true, false);
-                if (traceBelow == null || traceBelow.typeOfHit != MovingObjectPosition.MovingObjectType.BLOCK) {
+                boolean blockBelow = raycaster.cast(mc.theWorld, current.xCoord, current.yCoord, current.zCoord, current.xCoord, current.yCoord - 0.5f, current.zCoord);
+                boolean blockAbove = blockBelow && raycaster.cast(mc.theWorld, current.xCoord, current.yCoord, current.zCoord, current.xCoord, current.yCoord + mc.thePlayer.height + 0.5f, current.zCoord);
+                if (!blockBelow) {
                     keyBindings.add(mc.gameSettings.keyBindSneak);
-                } else if (traceAbove == null || traceAbove.typeOfHit != MovingObjectPosition.MovingObjectType.BLOCK) {
+                } else if (!blockAbove) {
                     keyBindings.add(mc.gameSettings.keyBindJump);
                 }
                 KeyBindUtils.holdThese(keyBindings.toArray(new KeyBinding[0]));
@@ -442,8 +473,8 @@ public class FlyPathFinderExecutor {
                 target = new Target(this.target).additionalY(this.yModifier);
             }
 
-            if (!this.dontRotate && target.getTarget().isPresent() && !path.isEmpty()) {
-                Vec3 lastElement = path.get(Math.max(0, path.size() - 1));
+            if (!this.dontRotate && target.getTarget().isPresent()) {
+                Vec3 lastElement = copyPath.get(copyPath.size() - 1);
                 Rotation rot = RotationHandler.getInstance().getRotation(target.getTarget().get());
                 if (mc.thePlayer.getPositionVector().distanceTo(lastElement) > 2 && target.getTarget().isPresent() && RotationHandler.getInstance().shouldRotate(rot, 3)) {
                     float distanceTo = RotationHandler.getInstance().distanceTo(rot);
@@ -521,19 +552,16 @@ public class FlyPathFinderExecutor {
             KeyBindUtils.stopMovement(true);
     }
 
-    @SubscribeEvent(priority = EventPriority.LOWEST)
-    public void onTeleportPacket(ReceivePacketEvent event) {
+    public void onTeleportPacket(S08PacketPlayerPosLook packet) {
         if (!isRunning()) return;
-        if (event.packet instanceof S08PacketPlayerPosLook) {
-            System.out.println("Tped");
-            lastTpTime = System.currentTimeMillis() - 50;
-            Multithreading.schedule(() -> {
-                if (isRunning()) {
-                    aotvDelay.schedule(100 + Math.random() * 60);
-                    tped = true;
-                }
-            }, 50, TimeUnit.MILLISECONDS);
-        }
+        System.out.println("Tped");
+        lastTpTime = System.currentTimeMillis() - 50;
+        Multithreading.schedule(() -> {
+            if (isRunning()) {
+                aotvDelay.schedule(100 + Math.random() * 60);
+                tped = true;
+            }
+        }, 50, TimeUnit.MILLISECONDS);
     }
 
     public boolean hasJustTped() {
@@ -542,9 +570,9 @@ public class FlyPathFinderExecutor {
 
     private boolean isFrontClean() {
         Vec3 direction = mc.thePlayer.getLookVec();
-        Vec3 tpPosition = mc.thePlayer.getPositionEyes(1).addVector(direction.xCoord * 10, direction.yCoord * 10, direction.zCoord * 10);
-        MovingObjectPosition mop = mc.theWorld.rayTraceBlocks(mc.thePlayer.getPositionVector(), tpPosition, false, true, false);
-        return mop == null || mop.typeOfHit != MovingObjectPosition.MovingObjectType.BLOCK;
+        double eyeY = mc.thePlayer.posY + mc.thePlayer.getEyeHeight();
+        return !raycaster.cast(mc.theWorld, mc.thePlayer.posX, mc.thePlayer.posY, mc.thePlayer.posZ,
+                mc.thePlayer.posX + direction.xCoord * 10, eyeY + direction.yCoord * 10, mc.thePlayer.posZ + direction.zCoord * 10);
     }
 
     public boolean isTping() {
@@ -552,11 +580,18 @@ public class FlyPathFinderExecutor {
     }
 
     private boolean willArriveAtDestinationAfterStopping(Vec3 targetPos) {
-        return predictStoppingPosition().distanceTo(targetPos) < stoppingPositionThreshold;
+        PlayerSimulation playerSimulation = predictStoppingPosition();
+        double dx = playerSimulation.posX - targetPos.xCoord;
+        double dy = playerSimulation.posY - targetPos.yCoord;
+        double dz = playerSimulation.posZ - targetPos.zCoord;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz) < stoppingPositionThreshold;
     }
 
-    private Vec3 predictStoppingPosition() {
-        PlayerSimulation playerSimulation = new PlayerSimulation(mc.theWorld);
+    private PlayerSimulation predictStoppingPosition() {
+        if (stoppingSimulation == null || stoppingSimulation.worldObj != mc.theWorld) {
+            stoppingSimulation = new PlayerSimulation(mc.theWorld);
+        }
+        PlayerSimulation playerSimulation = stoppingSimulation;
         playerSimulation.copy(mc.thePlayer);
         playerSimulation.isFlying = true;
         playerSimulation.rotationYaw = neededYaw != Integer.MIN_VALUE && !FarmHelperConfig.flyPathfinderOringoCompatible ? neededYaw : mc.thePlayer.rotationYaw;
@@ -566,15 +601,12 @@ public class FlyPathFinderExecutor {
                 break;
             }
         }
-        return new Vec3(playerSimulation.posX, playerSimulation.posY, playerSimulation.posZ);
+        return playerSimulation;
     }
 
     private Block getBlockUnder() {
-        Vec3 current = mc.thePlayer.getPositionVector();
-        Vec3 direction = current.addVector(0, 0.5, 0);
-        MovingObjectPosition trace = mc.theWorld.rayTraceBlocks(current, direction, false, true, false);
-        if (trace != null) {
-            return mc.theWorld.getBlockState(trace.getBlockPos()).getBlock();
+        if (raycaster.cast(mc.theWorld, mc.thePlayer.posX, mc.thePlayer.posY, mc.thePlayer.posZ, mc.thePlayer.posX, mc.thePlayer.posY + 0.5, mc.thePlayer.posZ)) {
+            return raycaster.getState().getBlock();
         }
         return null;
     }
@@ -585,24 +617,22 @@ public class FlyPathFinderExecutor {
             return VerticalDirection.NONE;
         }
 
-        BlocksInFront blocksInFront = getCollidingBlocks();
+        SteeringProbes probes = getCollidingBlocks();
 
-        if (isBlockInFront(blocksInFront.leftUp) || isBlockInFront(blocksInFront.centerUp) || isBlockInFront(blocksInFront.rightUp)) {
+        if (probes.isHit(SteeringProbes.LEFT_UP) || probes.isHit(SteeringProbes.CENTER_UP) || probes.isHit(SteeringProbes.RIGHT_UP)) {
             return VerticalDirection.LOWER;
         }
 
-        if (isBlockInFront(blocksInFront.leftDown) || isBlockInFront(blocksInFront.centerDown) || isBlockInFront(blocksInFront.rightDown) || isFenceDown(blocksInFront.fenceGateTrace)) {
+        if (probes.isHit(SteeringProbes.LEFT_DOWN) || probes.isHit(SteeringProbes.CENTER_DOWN) || probes.isHit(SteeringProbes.RIGHT_DOWN) || isFenceDown(probes)) {
             return VerticalDirection.HIGHER;
         }
         return VerticalDirection.NONE;
     }
 
-    private boolean isBlockInFront(MovingObjectPosition trace) {
-        return trace != null && trace.typeOfHit == MovingObjectPosition.MovingObjectType.BLOCK && BlockUtils.hasCollision(trace.getBlockPos());
-    }
-
-    private boolean isFenceDown(MovingObjectPosition trace) {
-        return trace != null && trace.typeOfHit == MovingObjectPosition.MovingObjectType.BLOCK && BlockUtils.hasCollision(trace.getBlockPos()) && BlockUtils.getBlock(trace.getBlockPos()) instanceof BlockFenceGate;
+    private boolean isFenceDown(SteeringProbes probes) {
+        if (!probes.isHit(SteeringProbes.FENCE_GATE)) return false;
+        BlockPos hit = new BlockPos(probes.getHitX(SteeringProbes.FENCE_GATE), probes.getHitY(SteeringProbes.FENCE_GATE), probes.getHitZ(SteeringProbes.FENCE_GATE));
+        return BlockUtils.getBlock(hit) instanceof BlockFenceGate;
     }
 
     public enum VerticalDirection {
@@ -652,12 +682,9 @@ public class FlyPathFinderExecutor {
             flyDelay.schedule(180 + (long) (Math.random() * 180));
             return true;
         } else {
-            Vec3 closestToPlayer;
-            try {
-                closestToPlayer = path.stream().min(Comparator.comparingDouble((vec1) -> vec1.distanceTo(mc.thePlayer.getPositionVector()))).orElse(path.get(0));
-            } catch (IndexOutOfBoundsException e) {
-                return false;
-            }
+            List<Vec3> copyPath = path;
+            if (copyPath != cursorPath) return false;
+            Vec3 closestToPlayer = copyPath.get(pathCursor);
             if (next.yCoord - closestToPlayer.yCoord > 0.5) {
                 if (!flyDelay.isScheduled()) {
                     flyDelay.schedule(180 + (long) (Math.random() * 180));
@@ -670,13 +697,14 @@ public class FlyPathFinderExecutor {
 
     @SubscribeEvent
     public void onDraw(RenderWorldLastEvent event) {
-        ArrayList<Vec3> copyPath = new ArrayList<>(path);
+        List<Vec3> copyPath = path;
         if (copyPath.isEmpty()) return;
         if (!isRunning()) return;
         if (FarmHelperConfig.streamerMode) return;
         RenderManager renderManager = mc.getRenderManager();
         Vec3 current = mc.thePlayer.getPositionVector();
-        Vec3 next = getNext(copyPath);
+        // Drawn where the last tick steered to, the cursor only moves during ticks
+        Vec3 next = copyPath == cursorPath ? copyPath.get(Math.min(pathCursor + 1, copyPath.size() - 1)) : copyPath.get(0);
         AxisAlignedBB currenNode = new AxisAlignedBB(current.xCoord - 0.05, current.yCoord - 0.05, current.zCoord - 0.05, current.xCoord + 0.05, current.yCoord + 0.05, current.zCoord + 0.05);
         AxisAlignedBB nextBB = new AxisAlignedBB(next.xCoord - 0.05, next.yCoord - 0.05, next.zCoord - 0.05, next.xCoord + 0.05, next.yCoord + 0.05, next.zCoord + 0.05);
         RenderManager rendermanager = Minecraft.getMinecraft().getRenderManager();
@@ -685,66 +713,76 @@ public class FlyPathFinderExecutor {
         RenderUtils.drawBox(currenNode, Color.GREEN);
         RenderUtils.drawBox(nextBB, Color.BLUE);
         for (int i = 0; i < copyPath.size() - 1; i++) {
-            Vec3 from = new Vec3(copyPath.get(i).xCoord, copyPath.get(i).yCoord, copyPath.get(i).zCoord);
-            Vec3 to = new Vec3(copyPath.get(i + 1).xCoord, copyPath.get(i + 1).yCoord, copyPath.get(i + 1).zCoord);
-            from = from.addVector(-renderManager.viewerPosX, -renderManager.viewerPosY, -renderManager.viewerPosZ);
-            RenderUtils.drawTracer(from, to, Color.RED);
+            Vec3 from = copyPath.get(i).addVector(-renderManager.viewerPosX, -renderManager.viewerPosY, -renderManager.viewerPosZ);
+            RenderUtils.drawTracer(from, copyPath.get(i + 1), Color.RED);
         }
         if (!FarmHelperConfig.debugMode) return;
-        BlocksInFront blocksInFront = getCollidingBlocks();
-        drawCollidingBlock(blocksInFront.leftUp, renderManager, blocksInFront.leftUpTarget);
-        drawCollidingBlock(blocksInFront.centerUp, renderManager, blocksInFront.centerUpTarget);
-        drawCollidingBlock(blocksInFront.rightUp, renderManager, blocksInFront.rightUpTarget);
-        drawCollidingBlock(blocksInFront.leftDown, renderManager, blocksInFront.leftDownTarget);
-        drawCollidingBlock(blocksInFront.centerDown, renderManager, blocksInFront.centerDownTarget);
-        drawCollidingBlock(blocksInFront.rightDown, renderManager, blocksInFront.rightDownTarget);
-        drawCollidingBlock(blocksInFront.fenceGateTrace, renderManager, blocksInFront.fenceGateCheck);
+        SteeringProbes probes = getCollidingBlocks();
+        for (int probe = 0; probe < SteeringProbes.COUNT; probe++) {
+            drawCollidingBlock(probes, probe, renderManager);
+        }
     }
 
     private final Color blockedColor = new Color(255, 0, 0, 100);
     private final Color freeColor = new Color(0, 255, 0, 100);
 
-    public void drawCollidingBlock(MovingObjectPosition mop, RenderManager renderManager, Vec3 target) {
-        if (mop != null && mop.typeOfHit == MovingObjectPosition.MovingObjectType.BLOCK && BlockUtils.hasCollision(mop.getBlockPos())) {
-            BlockPos blockPos = mop.getBlockPos();
-            RenderUtils.drawBox(new AxisAlignedBB(blockPos.getX(), blockPos.getY(), blockPos.getZ(), blockPos.getX() + 1, blockPos.getY() + 1, blockPos.getZ() + 1).offset(-renderManager.viewerPosX, -renderManager.viewerPosY, -renderManager.viewerPosZ), blockedColor);
+    public void drawCollidingBlock(SteeringProbes probes, int probe, RenderManager renderManager) {
+        if (probes.isHit(probe)) {
+            int x = probes.getHitX(probe);
+            int y = probes.getHitY(probe);
+            int z = probes.getHitZ(probe);
+            RenderUtils.drawBox(new AxisAlignedBB(x, y, z, x + 1, y + 1, z + 1).offset(-renderManager.viewerPosX, -renderManager.viewerPosY, -renderManager.viewerPosZ), blockedColor);
         } else {
-            RenderUtils.drawBox(new AxisAlignedBB(target.xCoord, target.yCoord, target.zCoord, target.xCoord + 0.1, target.yCoord + 0.1, target.zCoord + 0.1).offset(-renderManager.viewerPosX, -renderManager.viewerPosY, -renderManager.viewerPosZ), freeColor);
-        }
-    }
-
-    public BlocksInFront getCollidingBlocks() {
-        Vec3 directionGoing = AngleUtils.getVectorForRotation(0, neededYaw);
-        Vec3 directionGoingLeft = AngleUtils.getVectorForRotation(0, neededYaw - 20);
-        Vec3 directionGoingRight = AngleUtils.getVectorForRotation(0, neededYaw + 20);
-        Vec3 target = mc.thePlayer.getPositionVector().addVector(directionGoing.xCoord * 0.75, -0.1, directionGoing.zCoord * 0.75);
-        Vec3 targetLeft = mc.thePlayer.getPositionVector().addVector(directionGoingLeft.xCoord * 0.75, -0.1, directionGoingLeft.zCoord * 0.75);
-        Vec3 targetRight = mc.thePlayer.getPositionVector().addVector(directionGoingRight.xCoord * 0.75, -0.1, directionGoingRight.zCoord * 0.75);
-        Vec3 targetUp = mc.thePlayer.getPositionVector().addVector(directionGoing.xCoord * 0.75, mc.thePlayer.height + 0.1, directionGoing.zCoord * 0.75);
-        Vec3 targetLeftUp = mc.thePlayer.getPositionVector().addVector(directionGoingLeft.xCoord * 0.75, mc.thePlayer.height + 0.1, directionGoingLeft.zCoord * 0.75);
-        Vec3 targetRightUp = mc.thePlayer.getPositionVector().addVector(directionGoingRight.xCoord * 0.75, mc.thePlayer.height + 0.1, directionGoingRight.zCoord * 0.75);
-        Vec3 fenceGateCheck = mc.thePlayer.getPositionVector().addVector(directionGoing.xCoord * 0.25, -0.75, directionGoing.zCoord * 0.25);
-        MovingObjectPosition trace = mc.theWorld.rayTraceBlocks(mc.thePlayer.getPositionVector(), target, false, true, false);
-        MovingObjectPosition traceLeft = mc.theWorld.rayTraceBlocks(mc.thePlayer.getPositionVector(), targetLeft, false, true, false);
-        MovingObjectPosition traceRight = mc.theWorld.rayTraceBlocks(mc.thePlayer.getPositionVector(), targetRight, false, true, false);
-        MovingObjectPosition traceUp = mc.theWorld.rayTraceBlocks(mc.thePlayer.getPositionVector().addVector(0, mc.thePlayer.height, 0), targetUp, false, true, false);
-        MovingObjectPosition traceLeftUp = mc.theWorld.rayTraceBlocks(mc.thePlayer.getPositionVector().addVector(0, mc.thePlayer.height, 0), targetLeftUp, false, true, false);
-        MovingObjectPosition traceRightUp = mc.theWorld.rayTraceBlocks(mc.thePlayer.getPositionVector().addVector(0, mc.thePlayer.height, 0), targetRightUp, false, true, false);
-        MovingObjectPosition fenceGateTrace = mc.theWorld.rayTraceBlocks(mc.thePlayer.getPositionVector(), fenceGateCheck, false, true, false);
-        return new BlocksInFront(targetLeftUp, traceLeftUp, targetUp, traceUp, targetRightUp, traceRightUp, targetLeft, traceLeft, target, trace, targetRight, traceRight, fenceGateCheck, fenceGateTrace);
-    }
-
-    private Vec3 getNext(ArrayList<Vec3> path) {
+            double x = probes.getTargetX(probe);
+            double y = probes.getTargetY(probe);
+            double z = probes.getTargetZ(probe);
+            RenderUtils.drawBox(new AxisAlignedBB(x, y, z, x + 0.1, y + 0.1, z + 0.1).offset(-renderManager.viewerPosX, -renderManager.viewerPosY, -renderManager.viewerPosZ), freeColor);
+        }
+    }
+
+    /**
+     * Probes are traced at most once per tick, the steering code and the debug rendering share them.
+     */
+    public SteeringProbes getCollidingBlocks() {
+        if (probesTick != steeringTick) {
+            probesTick = steeringTick;
+            steeringWorld.refresh();
+            probes.update(steeringWorld, mc.thePlayer.posX, mc.thePlayer.posY, mc.thePlayer.posZ, mc.thePlayer.height, neededYaw);
+        }
+        return probes;
+    }
+
+    /**
+     * Moves the cursor forward to the closest point in a short window ahead of it and returns the point after that.
+     * The player only moves forward along the path, so there's no need to look at the whole path every tick.
+     */
+    private Vec3 getNext(List<Vec3> path) {
         if (path.isEmpty()) {
             return mc.thePlayer.getPositionVector();
         }
-        try {
-            Vec3 current = mc.thePlayer.getPositionVector();
-            Vec3 closestToPlayer = path.stream().min(Comparator.comparingDouble(vec -> vec.distanceTo(current))).orElse(path.get(path.size() - 2));
-            return path.get(path.indexOf(closestToPlayer) + 1);
-        } catch (IndexOutOfBoundsException e) {
-            return path.get(path.size() - 1);
+        if (path != cursorPath) {
+            cursorPath = path;
+            pathCursor = 0;
+        }
+        double playerX = mc.thePlayer.posX;
+        double playerY = mc.thePlayer.posY;
+        double playerZ = mc.thePlayer.posZ;
+        int closest = pathCursor;
+        double closestDistance = Double.MAX_VALUE;
+        int end = Math.min(path.size() - 1, pathCursor + CURSOR_LOOKAHEAD);
+        for (int index = pathCursor; index <= end; index++) {
+            Vec3 point = path.get(index);
+            double dx = point.xCoord - playerX;
+            double dy = point.yCoord - playerY;
+            double dz = point.zCoord - playerZ;
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = index;
+            }
         }
+        pathCursor = closest;
+        return path.get(Math.min(pathCursor + 1, path.size() - 1));
     }
 
     public enum State {
@@ -756,6 +794,19 @@ public class FlyPathFinderExecutor {
         WAITING_FOR_DECELERATION
     }
 
+    /**
+     * A searched route, or null with the reason the search that gave up stopped for.
+     */
+    private static class SearchResult {
+        private final List<Vec3> route;
+        private final FlyAStar.StopReason stopReason;
+
+        private SearchResult(List<Vec3> route, FlyAStar.StopReason stopReason) {
+            this.route = route;
+            this.stopReason = stopReason;
+        }
+    }
+
     public static class Position {
         public BlockPos pos;
         public Rotation rotation;
@@ -765,38 +816,4 @@ public class FlyPathFinderExecutor {
             this.rotation = rotation;
         }
     }
-
-    public static class BlocksInFront {
-        public Vec3 leftUpTarget;
-        public MovingObjectPosition leftUp;
-        public Vec3 centerUpTarget;
-        public MovingObjectPosition centerUp;
-        public Vec3 rightUpTarget;
-        public MovingObjectPosition rightUp;
-        public Vec3 leftDownTarget;
-        public MovingObjectPosition leftDown;
-        public Vec3 centerDownTarget;
-        public MovingObjectPosition centerDown;
-        public Vec3 rightDownTarget;
-        public MovingObjectPosition rightDown;
-        public Vec3 fenceGateCheck;
-        public MovingObjectPosition fenceGateTrace;
-
-        public BlocksInFront(Vec3 leftUpTarget, MovingObjectPosition leftUp, Vec3 centerUpTarget, MovingObjectPosition centerUp, Vec3 rightUpTarget, MovingObjectPosition rightUp, Vec3 leftDownTarget, MovingObjectPosition leftDown, Vec3 centerDownTarget, MovingObjectPosition centerDown, Vec3 rightDownTarget, MovingObjectPosition rightDown, Vec3 fenceGateCheck, MovingObjectPosition fenceGateTrace) {
-            this.leftUpTarget = leftUpTarget;
-            this.leftUp = leftUp;
-            this.centerUpTarget = centerUpTarget;
-            this.centerUp = centerUp;
-            this.rightUpTarget = rightUpTarget;
-            this.rightUp = rightUp;
-            this.leftDownTarget = leftDownTarget;
-            this.leftDown = leftDown;
-            this.centerDownTarget = centerDownTarget;
-            this.centerDown = centerDown;
-            this.rightDownTarget = rightDownTarget;
-            this.rightDown = rightDown;
-            this.fenceGateCheck = fenceGateCheck;
-            this.fenceGateTrace = fenceGateTrace;
-        }
-    }
 }
@@ -0,0 +1,114 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import lombok.Getter;
+import net.minecraft.util.Vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the last route of a follow and repairs it when the target moved only a few blocks, instead of searching from scratch.
+ * The part of the old route still ahead of the player is kept up to the cell closest to the new goal, and only the rest is searched again.
+ * If blocks changed since the route was planned, it's first cut back to the last cell that is still free.
+ */
+public class FollowReplanner {
+    // The target may move this far before the old route is thrown away
+    private static final double MAX_GOAL_MOVE = 8;
+    // The player has to be this close to the old route for it to still be useful
+    private static final double MAX_START_OFFSET = 2;
+    private static final int REPAIR_MAX_NODES = 20_000;
+
+    private final FlyAStar flyAStar = new FlyAStar(1, 2, 1);
+    private List<Vec3> route;
+    private long revision;
+
+    @Getter
+    private final AtomicLong repairs = new AtomicLong();
+    @Getter
+    private final AtomicLong fullReplans = new AtomicLong();
+
+    /**
+     * Returns the repaired route, or null if it has to be searched from scratch.
+     */
+    public synchronized List<Vec3> repair(PassabilitySnapshot.View world, int startX, int startY, int startZ, int goalX, int goalY, int goalZ) {
+        if (route == null || route.size() < 2) return null;
+        Vec3 start = new Vec3(startX, startY, startZ);
+        Vec3 goal = new Vec3(goalX, goalY, goalZ);
+        if (route.get(route.size() - 1).distanceTo(goal) > MAX_GOAL_MOVE) return null;
+
+        int startIndex = closestIndex(route, 0, route.size() - 1, start);
+        if (route.get(startIndex).distanceTo(start) > MAX_START_OFFSET) return null;
+
+        int lastIndex = route.size() - 1;
+        long currentRevision = PassabilitySnapshot.getInstance().getRevision().get();
+        if (currentRevision != revision) {
+            for (int index = startIndex; index <= lastIndex; index++) {
+                Vec3 cell = route.get(index);
+                if (!fits(world, (int) cell.xCoord, (int) cell.yCoord, (int) cell.zCoord)) {
+                    lastIndex = index - 1;
+                    break;
+                }
+            }
+            if (lastIndex <= startIndex) return null;
+        }
+
+        int joinIndex = closestIndex(route, startIndex, lastIndex, goal);
+        Vec3 join = route.get(joinIndex);
+        List<Vec3> tail;
+        if (join.distanceTo(goal) == 0) {
+            tail = new ArrayList<>();
+            tail.add(join);
+        } else {
+            tail = flyAStar.search(world, (int) join.xCoord, (int) join.yCoord, (int) join.zCoord, goalX, goalY, goalZ, (float) join.distanceTo(goal) + 5, REPAIR_MAX_NODES);
+            if (tail == null) return null;
+        }
+
+        List<Vec3> repaired = new ArrayList<>();
+        if (route.get(startIndex).squareDistanceTo(start) != 0) {
+            repaired.add(start);
+        }
+        repaired.addAll(route.subList(startIndex, joinIndex));
+        repaired.addAll(tail);
+        repairs.incrementAndGet();
+        remember(repaired, currentRevision);
+        return repaired;
+    }
+
+    /**
+     * Remembers a route found by a full search, {@code revision} is the snapshot revision from before the search started.
+     */
+    public synchronized void planned(List<Vec3> route, long revision) {
+        fullReplans.incrementAndGet();
+        remember(route, revision);
+    }
+
+    public synchronized void reset() {
+        route = null;
+    }
+
+    private void remember(List<Vec3> route, long revision) {
+        this.route = route;
+        this.revision = revision;
+    }
+
+    /**
+     * Returns the index of the cell closest to {@code target} between {@code from} and {@code to}, the later one on ties.
+     */
+    private static int closestIndex(List<Vec3> cells, int from, int to, Vec3 target) {
+        int closest = to;
+        double closestDistance = Double.MAX_VALUE;
+        for (int index = to; index >= from; index--) {
+            double distance = cells.get(index).squareDistanceTo(target);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = index;
+            }
+        }
+        return closest;
+    }
+
+    private static boolean fits(PassabilitySnapshot.View world, int x, int y, int z) {
+        return world.isFree(x, y, z) && world.isFree(x, y + 1, z);
+    }
+}
@@ -0,0 +1,390 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import com.jelly.farmhelperv2.util.PlotUtils;
+import net.minecraft.util.Tuple;
+import net.minecraft.util.Vec3;
+
+import java.util.*;
+
+/**
+ * Two level pathfinding for the garden. Every plot is a region, and openings between neighbouring plots are entrances.
+ * Trips between plots are planned over the entrances first, then stitched together from block level legs inside each region.
+ * Legs are kept until the passability snapshot reports a change in their region, so the same trips only search the parts that changed.
+ */
+public class GardenNavGraph {
+    // Entrances are only looked for between these heights, the garden floor is at 65
+    private static final int MIN_Y = 66;
+    private static final int MAX_Y = 110;
+    private static final int LAYER_STEP = 4;
+    private static final int MAX_ENTRANCES_PER_SIDE = 3;
+    private static final int LEG_MAX_NODES = 50_000;
+    private static final int MAX_LEGS_PER_REGION = 512;
+    private static GardenNavGraph instance;
+
+    private final List<Region> regions = new ArrayList<>();
+    private final List<Side> sides = new ArrayList<>();
+    private final FlyAStar flyAStar = new FlyAStar(1, 2, 1);
+    private int lastLegsSearched = 0;
+    private FlyAStar.StopReason lastStopReason = FlyAStar.StopReason.COMPLETED;
+
+    public static GardenNavGraph getInstance() {
+        if (instance == null) {
+            instance = new GardenNavGraph();
+        }
+        return instance;
+    }
+
+    /**
+     * Finds a route between cells in two different plots, giving up after {@code maxNanos} like {@link FlyAStar#search} does.
+     *
+     * @return the route in block coordinates like {@link FlyAStar#search}, or null if both cells are in the same plot, outside of the plots, or no route was found over the entrances
+     */
+    public synchronized List<Vec3> findRoute(PassabilitySnapshot.View world, int startX, int startY, int startZ, int goalX, int goalY, int goalZ, long maxNanos) {
+        long deadline = System.nanoTime() + maxNanos;
+        lastStopReason = FlyAStar.StopReason.COMPLETED;
+        if (regions.isEmpty()) {
+            buildRegions();
+        }
+        Region startRegion = regionAt(startX, startZ);
+        Region goalRegion = regionAt(goalX, goalZ);
+        if (startRegion == null || goalRegion == null || startRegion == goalRegion) return null;
+        refresh(world);
+        lastLegsSearched = 0;
+
+        Node start = new Node(startX, startY, startZ, startRegion);
+        Node goal = new Node(goalX, goalY, goalZ, goalRegion);
+        Map<Node, Float> costs = new HashMap<>();
+        Map<Node, Node> parents = new HashMap<>();
+        Map<Node, List<Vec3>> arrivals = new HashMap<>();
+        Set<Node> closed = new HashSet<>();
+        PriorityQueue<Visit> open = new PriorityQueue<>();
+        costs.put(start, 0f);
+        open.add(new Visit(start, start.distanceTo(goal)));
+
+        while (!open.isEmpty()) {
+            // Cancelled, legs searched until now stay cached
+            if (Thread.currentThread().isInterrupted()) {
+                lastStopReason = FlyAStar.StopReason.INTERRUPTED;
+                return null;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                lastStopReason = FlyAStar.StopReason.TIME_BUDGET;
+                return null;
+            }
+            Node current = open.poll().node;
+            if (!closed.add(current)) continue;
+            if (current == goal) {
+                return stitch(start, goal, parents, arrivals);
+            }
+            float cost = costs.get(current);
+            if (current.twin != null) {
+                relax(current, current.twin, cost + 1, null, goal, costs, parents, arrivals, open, closed);
+            }
+            List<Node> targets = new ArrayList<>(current.region.nodes);
+            if (current.region == goalRegion) {
+                targets.add(goal);
+            }
+            for (Node target : targets) {
+                if (target == current || closed.contains(target)) continue;
+                List<Vec3> leg = leg(world, current, target, deadline);
+                if (lastStopReason != FlyAStar.StopReason.COMPLETED) return null;
+                if (leg == null) continue;
+                relax(current, target, cost + leg.size() - 1, leg, goal, costs, parents, arrivals, open, closed);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Block level searches run by the last {@link #findRoute} call, the rest of the route came from the cache.
+     */
+    public synchronized int getLastLegsSearched() {
+        return lastLegsSearched;
+    }
+
+    /**
+     * Why the last {@link #findRoute} call gave up, COMPLETED when it searched everything it could.
+     */
+    public synchronized FlyAStar.StopReason getLastStopReason() {
+        return lastStopReason;
+    }
+
+    private void relax(Node from, Node to, float cost, List<Vec3> leg, Node goal, Map<Node, Float> costs, Map<Node, Node> parents, Map<Node, List<Vec3>> arrivals, PriorityQueue<Visit> open, Set<Node> closed) {
+        if (closed.contains(to)) return;
+        Float known = costs.get(to);
+        if (known != null && known <= cost) return;
+        costs.put(to, cost);
+        parents.put(to, from);
+        arrivals.put(to, leg);
+        open.add(new Visit(to, cost + to.distanceTo(goal)));
+    }
+
+    private List<Vec3> stitch(Node start, Node goal, Map<Node, Node> parents, Map<Node, List<Vec3>> arrivals) {
+        List<Node> nodes = new ArrayList<>();
+        for (Node node = goal; node != start; node = parents.get(node)) {
+            nodes.add(node);
+        }
+        Collections.reverse(nodes);
+        List<Vec3> route = new ArrayList<>();
+        route.add(new Vec3(start.x, start.y, start.z));
+        for (Node node : nodes) {
+            List<Vec3> leg = arrivals.get(node);
+            if (leg == null) {
+                // Stepping through an entrance into the neighbouring region
+                route.add(new Vec3(node.x, node.y, node.z));
+            } else {
+                route.addAll(leg.subList(1, leg.size()));
+            }
+        }
+        return route;
+    }
+
+    /**
+     * Returns the cached leg between two cells of the same region, searching it if needed. Null means there is no way between them inside the region,
+     * unless the search was cut short, which is told by {@link #lastStopReason}.
+     */
+    private List<Vec3> leg(PassabilitySnapshot.View world, Node from, Node to, long deadline) {
+        Region region = from.region;
+        Map<Long, Leg> fromLegs = region.legs.computeIfAbsent(from.key(), key -> new HashMap<>());
+        Leg leg = fromLegs.get(to.key());
+        if (leg == null) {
+            if (region.legCount >= MAX_LEGS_PER_REGION) {
+                // Mostly legs to one-off starts and goals, drop them all rather than tracking their age
+                region.legs.clear();
+                region.legCount = 0;
+                fromLegs = region.legs.computeIfAbsent(from.key(), key -> new HashMap<>());
+            }
+            lastLegsSearched++;
+            FlyAStar.Passability inside = (x, y, z) -> region.contains(x, z) && world.isFree(x, y, z);
+            List<Vec3> cells = flyAStar.search(inside, from.x, from.y, from.z, to.x, to.y, to.z, Float.MAX_VALUE, LEG_MAX_NODES, deadline - System.nanoTime());
+            // An interrupted or timed out search says nothing about the leg, so it isn't cached
+            if (flyAStar.getLastStopReason() == FlyAStar.StopReason.INTERRUPTED || flyAStar.getLastStopReason() == FlyAStar.StopReason.TIME_BUDGET) {
+                lastStopReason = flyAStar.getLastStopReason();
+                return null;
+            }
+            if (cells != null) {
+                Vec3 last = cells.get(cells.size() - 1);
+                // The search falls back to the closest cell it reached, which isn't a leg
+                if ((int) last.xCoord != to.x || (int) last.yCoord != to.y || (int) last.zCoord != to.z) {
+                    cells = null;
+                }
+            }
+            leg = new Leg(cells);
+            fromLegs.put(to.key(), leg);
+            region.legCount++;
+        }
+        return leg.cells;
+    }
+
+    /**
+     * Drops the legs of regions that changed and finds the entrances of every side touching them again.
+     */
+    private void refresh(PassabilitySnapshot.View world) {
+        PassabilitySnapshot snapshot = PassabilitySnapshot.getInstance();
+        for (Region region : regions) {
+            long revision = snapshot.getAreaRevision(region.minX >> 4, region.minZ >> 4, region.maxX >> 4, region.maxZ >> 4);
+            if (revision != region.revision) {
+                region.revision = revision;
+                region.legs.clear();
+                region.legCount = 0;
+            }
+        }
+        boolean entrancesChanged = false;
+        for (Side side : sides) {
+            if (side.revisionA == side.a.revision && side.revisionB == side.b.revision) continue;
+            side.revisionA = side.a.revision;
+            side.revisionB = side.b.revision;
+            findEntrances(world, side);
+            entrancesChanged = true;
+        }
+        if (!entrancesChanged) return;
+        for (Region region : regions) {
+            region.nodes.clear();
+        }
+        for (Side side : sides) {
+            for (Node node : side.entrances) {
+                node.region.nodes.add(node);
+                node.twin.region.nodes.add(node.twin);
+            }
+        }
+    }
+
+    /**
+     * Scans the shared wall of two regions a few heights at a time and keeps the middle of the widest opening on some of those heights.
+     */
+    private void findEntrances(PassabilitySnapshot.View world, Side side) {
+        world.refresh();
+        side.entrances.clear();
+        List<int[]> candidates = new ArrayList<>();
+        int from = side.alongX ? Math.max(side.a.minZ, side.b.minZ) : Math.max(side.a.minX, side.b.minX);
+        int to = side.alongX ? Math.min(side.a.maxZ, side.b.maxZ) : Math.min(side.a.maxX, side.b.maxX);
+        for (int y = MIN_Y; y <= MAX_Y; y += LAYER_STEP) {
+            int bestStart = 0;
+            int bestLength = 0;
+            int runStart = 0;
+            int runLength = 0;
+            for (int t = from; t <= to; t++) {
+                boolean open = side.alongX
+                        ? fits(world, side.a.maxX, y, t) && fits(world, side.b.minX, y, t)
+                        : fits(world, t, y, side.a.maxZ) && fits(world, t, y, side.b.minZ);
+                if (!open) {
+                    runLength = 0;
+                    continue;
+                }
+                if (runLength++ == 0) {
+                    runStart = t;
+                }
+                if (runLength > bestLength) {
+                    bestLength = runLength;
+                    bestStart = runStart;
+                }
+            }
+            if (bestLength > 0) {
+                candidates.add(new int[]{y, bestStart + bestLength / 2});
+            }
+        }
+        if (candidates.isEmpty()) return;
+        // The lowest opening is usually the shortest way, the others give a way around whatever blocks it
+        Set<Integer> picked = new LinkedHashSet<>();
+        picked.add(0);
+        picked.add(candidates.size() - 1);
+        picked.add(candidates.size() / 2);
+        int count = 0;
+        for (int index : picked) {
+            if (count++ == MAX_ENTRANCES_PER_SIDE) break;
+            int y = candidates.get(index)[0];
+            int t = candidates.get(index)[1];
+            Node a = side.alongX ? new Node(side.a.maxX, y, t, side.a) : new Node(t, y, side.a.maxZ, side.a);
+            Node b = side.alongX ? new Node(side.b.minX, y, t, side.b) : new Node(t, y, side.b.minZ, side.b);
+            a.twin = b;
+            b.twin = a;
+            side.entrances.add(a);
+        }
+    }
+
+    private static boolean fits(PassabilitySnapshot.View world, int x, int y, int z) {
+        return world.isFree(x, y, z) && world.isFree(x, y + 1, z);
+    }
+
+    private void buildRegions() {
+        for (int plotNumber = 0; plotNumber <= 24; plotNumber++) {
+            List<Tuple<Integer, Integer>> chunks = PlotUtils.getPlotChunksBasedOnNumber(plotNumber);
+            if (chunks == null || chunks.isEmpty()) continue;
+            int minChunkX = Integer.MAX_VALUE;
+            int minChunkZ = Integer.MAX_VALUE;
+            int maxChunkX = Integer.MIN_VALUE;
+            int maxChunkZ = Integer.MIN_VALUE;
+            for (Tuple<Integer, Integer> chunk : chunks) {
+                minChunkX = Math.min(minChunkX, chunk.getFirst());
+                maxChunkX = Math.max(maxChunkX, chunk.getFirst());
+                minChunkZ = Math.min(minChunkZ, chunk.getSecond());
+                maxChunkZ = Math.max(maxChunkZ, chunk.getSecond());
+            }
+            regions.add(new Region(minChunkX << 4, minChunkZ << 4, (maxChunkX << 4) + 15, (maxChunkZ << 4) + 15));
+        }
+        for (Region a : regions) {
+            for (Region b : regions) {
+                if (a.maxX + 1 == b.minX && a.minZ == b.minZ && a.maxZ == b.maxZ) {
+                    sides.add(new Side(a, b, true));
+                } else if (a.maxZ + 1 == b.minZ && a.minX == b.minX && a.maxX == b.maxX) {
+                    sides.add(new Side(a, b, false));
+                }
+            }
+        }
+    }
+
+    private Region regionAt(int x, int z) {
+        for (Region region : regions) {
+            if (region.contains(x, z)) return region;
+        }
+        return null;
+    }
+
+    private static class Region {
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private final List<Node> nodes = new ArrayList<>();
+        private final Map<Long, Map<Long, Leg>> legs = new HashMap<>();
+        private int legCount = 0;
+        private long revision = -1;
+
+        private Region(int minX, int minZ, int maxX, int maxZ) {
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+
+        private boolean contains(int x, int z) {
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        }
+    }
+
+    /**
+     * The wall between two neighbouring regions, {@code a} is the one with the smaller coordinates.
+     */
+    private static class Side {
+        private final Region a;
+        private final Region b;
+        // The wall is a plane of constant x
+        private final boolean alongX;
+        private final List<Node> entrances = new ArrayList<>();
+        private long revisionA = -1;
+        private long revisionB = -1;
+
+        private Side(Region a, Region b, boolean alongX) {
+            this.a = a;
+            this.b = b;
+            this.alongX = alongX;
+        }
+    }
+
+    private static class Node {
+        private final int x;
+        private final int y;
+        private final int z;
+        private final Region region;
+        // The cell right across the wall, null for starts and goals
+        private Node twin;
+
+        private Node(int x, int y, int z, Region region) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.region = region;
+        }
+
+        private long key() {
+            return FlyAStar.pack(x, y, z);
+        }
+
+        private float distanceTo(Node other) {
+            return Math.abs(other.x - x) + Math.abs(other.y - y) + Math.abs(other.z - z);
+        }
+    }
+
+    private static class Leg {
+        private final List<Vec3> cells;
+
+        private Leg(List<Vec3> cells) {
+            this.cells = cells;
+        }
+    }
+
+    private static class Visit implements Comparable<Visit> {
+        private final Node node;
+        private final float priority;
+
+        private Visit(Node node, float priority) {
+            this.node = node;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Visit other) {
+            return Float.compare(priority, other.priority);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import lombok.Getter;
+import net.minecraft.util.Vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line of sight tests against a {@link FlyAStar.Passability}, walking the blocks a segment crosses one by one (3D DDA).
+ * Nothing is allocated per test, so a whole path can be smoothed without touching the world or creating vectors.
+ */
+public class LineOfSight {
+    // The player's body is sampled at these heights and horizontal corners, like the vanilla ray traces used to
+    private static final double[] BODY_HEIGHTS = {0.1, 0.9, 1.1, 1.9};
+    private static final double[] CORNERS_X = {0.05, 0.05, 0.95, 0.95};
+    private static final double[] CORNERS_Z = {0.05, 0.95, 0.05, 0.95};
+
+    // Written by the pathfinding threads, read by the debug HUD
+    @Getter
+    private static volatile long lastSmoothNanos = 0;
+    @Getter
+    private static volatile int lastSmoothChecks = 0;
+
+    /**
+     * Returns true if every block the segment passes through is free, both ends included.
+     */
+    public static boolean isClear(FlyAStar.Passability world, double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        return !trace(world, fromX, fromY, fromZ, toX, toY, toZ, null);
+    }
+
+    /**
+     * Walks the segment from its start and stops at the first block that isn't free.
+     *
+     * @param hit receives the x, y and z of that block when there is one, may be null
+     * @return true if a block that isn't free was found
+     */
+    public static boolean trace(FlyAStar.Passability world, double fromX, double fromY, double fromZ, double toX, double toY, double toZ, int[] hit) {
+        int x = floor(fromX);
+        int y = floor(fromY);
+        int z = floor(fromZ);
+        int endX = floor(toX);
+        int endY = floor(toY);
+        int endZ = floor(toZ);
+        if (!world.isFree(x, y, z)) return setHit(hit, x, y, z);
+
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+        int stepX = Integer.signum(endX - x);
+        int stepY = Integer.signum(endY - y);
+        int stepZ = Integer.signum(endZ - z);
+        // Distance along the segment, as a fraction of it, to the next block boundary on each axis and between two boundaries
+        double deltaX = stepX != 0 ? Math.abs(1 / dx) : Double.POSITIVE_INFINITY;
+        double deltaY = stepY != 0 ? Math.abs(1 / dy) : Double.POSITIVE_INFINITY;
+        double deltaZ = stepZ != 0 ? Math.abs(1 / dz) : Double.POSITIVE_INFINITY;
+        double nextX = stepX > 0 ? (x + 1 - fromX) / dx : stepX < 0 ? (fromX - x) / -dx : Double.POSITIVE_INFINITY;
+        double nextY = stepY > 0 ? (y + 1 - fromY) / dy : stepY < 0 ? (fromY - y) / -dy : Double.POSITIVE_INFINITY;
+        double nextZ = stepZ > 0 ? (z + 1 - fromZ) / dz : stepZ < 0 ? (fromZ - z) / -dz : Double.POSITIVE_INFINITY;
+
+        while (x != endX || y != endY || z != endZ) {
+            // An axis that already reached its end block never steps again, so rounding can't overshoot
+            double tx = x != endX ? nextX : Double.POSITIVE_INFINITY;
+            double ty = y != endY ? nextY : Double.POSITIVE_INFINITY;
+            double tz = z != endZ ? nextZ : Double.POSITIVE_INFINITY;
+            if (tx <= ty && tx <= tz) {
+                x += stepX;
+                nextX += deltaX;
+            } else if (ty <= tz) {
+                y += stepY;
+                nextY += deltaY;
+            } else {
+                z += stepZ;
+                nextZ += deltaZ;
+            }
+            if (!world.isFree(x, y, z)) return setHit(hit, x, y, z);
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the player can fly in a straight line between two block positions, checking the body at several heights and corners.
+     */
+    public static boolean isTraversable(FlyAStar.Passability world, double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        for (double height : BODY_HEIGHTS) {
+            for (int corner = 0; corner < CORNERS_X.length; corner++) {
+                if (!isClear(world, fromX + CORNERS_X[corner], fromY + height, fromZ + CORNERS_Z[corner], toX + CORNERS_X[corner], toY + height, toZ + CORNERS_Z[corner])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Greedy string pulling: from the last kept point, keeps going along the path while the next point is still in sight
+     * and keeps the last one that was. Every point is checked once, so this is linear in the path length.
+     */
+    public static List<Vec3> smooth(FlyAStar.Passability world, List<Vec3> path) {
+        long startTime = System.nanoTime();
+        int checks = 0;
+        if (path.size() < 3) {
+            lastSmoothNanos = System.nanoTime() - startTime;
+            lastSmoothChecks = 0;
+            return path;
+        }
+        List<Vec3> smoothed = new ArrayList<>();
+        Vec3 anchor = path.get(0);
+        smoothed.add(anchor);
+        for (int index = 2; index < path.size(); index++) {
+            Vec3 candidate = path.get(index);
+            checks++;
+            if (!isTraversable(world, anchor.xCoord, anchor.yCoord, anchor.zCoord, candidate.xCoord, candidate.yCoord, candidate.zCoord)) {
+                anchor = path.get(index - 1);
+                smoothed.add(anchor);
+            }
+        }
+        smoothed.add(path.get(path.size() - 1));
+        lastSmoothNanos = System.nanoTime() - startTime;
+        lastSmoothChecks = checks;
+        return smoothed;
+    }
+
+    private static boolean setHit(int[] hit, int x, int y, int z) {
+        if (hit != null) {
+            hit[0] = x;
+            hit[1] = y;
+            hit[2] = z;
+        }
+        return true;
+    }
+
+    private static int floor(double value) {
+        int floor = (int) value;
+        return value < floor ? floor - 1 : floor;
+    }
+}
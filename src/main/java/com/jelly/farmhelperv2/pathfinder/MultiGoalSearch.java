@@ -0,0 +1,178 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import com.jelly.farmhelperv2.handler.GameStateHandler;
+import com.jelly.farmhelperv2.util.LogUtils;
+import lombok.Getter;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.MathHelper;
+import net.minecraft.util.Vec3;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Travel costs from the player to several targets, used to pick the target that is actually the quickest to fly to
+ * instead of the closest one in a straight line.
+ * Goals in different garden plots are searched in parallel on a small fork-join pool, each worker with its own {@link FlyAStar}.
+ * Searches are short and bounded, so this runs on the client thread and waits for the result.
+ */
+public class MultiGoalSearch {
+    private static final Minecraft mc = Minecraft.getMinecraft();
+    private static final int MAX_NODES = 150_000;
+    private static final long MAX_NANOS = TimeUnit.MILLISECONDS.toNanos(30);
+    // Garden plots are 96 blocks wide and the grid starts at -240, goals are grouped by the plot they are in
+    private static final int REGION_SIZE = 96;
+    private static final int REGION_OFFSET = 240;
+    // A target may sit in a spot the player doesn't fit in, the first cell above it that fits is used instead
+    private static final int MAX_GOAL_LIFT = 3;
+    private static MultiGoalSearch instance;
+
+    public enum Mode {
+        // Only the cheapest goal gets a cost
+        ANY,
+        // Every reachable goal gets a cost
+        ALL
+    }
+
+    private final ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1)), forkJoinPool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+        thread.setName("FarmHelper-MultiGoal-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+    private final ThreadLocal<FlyAStar> flyAStar = ThreadLocal.withInitial(() -> new FlyAStar(1, 2, 1));
+
+    @Getter
+    private long lastNanos = 0;
+    @Getter
+    private int lastGroups = 0;
+
+    public static MultiGoalSearch getInstance() {
+        if (instance == null) {
+            instance = new MultiGoalSearch();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the target with the cheapest flight from the player.
+     * Falls back to the closest target in a straight line when none of them could be reached within the search budget.
+     */
+    public <T> T nearest(Collection<T> targets, Function<T, Vec3> position) {
+        if (targets.isEmpty()) return null;
+        List<T> candidates = new ArrayList<>(targets);
+        if (candidates.size() == 1) return candidates.get(0);
+        List<Vec3> goals = new ArrayList<>(candidates.size());
+        for (T target : candidates) {
+            goals.add(position.apply(target));
+        }
+        float[] costs = travelCosts(goals, Mode.ANY);
+        int best = -1;
+        for (int index = 0; index < costs.length; index++) {
+            if (costs[index] != Float.POSITIVE_INFINITY && (best < 0 || costs[index] < costs[best])) {
+                best = index;
+            }
+        }
+        if (best < 0) {
+            Vec3 player = mc.thePlayer.getPositionVector();
+            double closestDistance = Double.MAX_VALUE;
+            for (int index = 0; index < goals.size(); index++) {
+                double distance = player.squareDistanceTo(goals.get(index));
+                if (distance < closestDistance) {
+                    closestDistance = distance;
+                    best = index;
+                }
+            }
+        }
+        return candidates.get(best);
+    }
+
+    /**
+     * Returns the cost of flying from the player to every goal, in blocks, or {@link Float#POSITIVE_INFINITY} for the goals that
+     * weren't reached. With {@link Mode#ANY} only the cheapest goal of each plot gets a cost.
+     */
+    public float[] travelCosts(List<Vec3> goals, Mode mode) {
+        long startTime = System.nanoTime();
+        float[] costs = new float[goals.size()];
+        Arrays.fill(costs, Float.POSITIVE_INFINITY);
+        if (goals.isEmpty()) return costs;
+
+        // The start cell is picked like FlyPathFinderExecutor picks it
+        AxisAlignedBB bb = mc.thePlayer.getEntityBoundingBox();
+        int startX = MathHelper.floor_double(bb.minX);
+        int startY = MathHelper.floor_double(bb.minY + 0.5D);
+        int startZ = MathHelper.floor_double(bb.minZ);
+        int minX = startX;
+        int minZ = startZ;
+        int maxX = startX;
+        int maxZ = startZ;
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int index = 0; index < goals.size(); index++) {
+            Vec3 goal = goals.get(index);
+            int x = MathHelper.floor_double(goal.xCoord);
+            int z = MathHelper.floor_double(goal.zCoord);
+            minX = Math.min(minX, x);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxZ = Math.max(maxZ, z);
+            long region = (long) Math.floorDiv(x + REGION_OFFSET, REGION_SIZE) << 32 | Math.floorDiv(z + REGION_OFFSET, REGION_SIZE) & 0xFFFFFFFFL;
+            groups.computeIfAbsent(region, key -> new ArrayList<>()).add(index);
+        }
+        PassabilitySnapshot snapshot = PassabilitySnapshot.getInstance();
+        snapshot.ensureCaptured(mc.theWorld, minX, minZ, maxX, maxZ);
+        boolean gardenBounds = GameStateHandler.getInstance().getLocation() == GameStateHandler.Location.GARDEN;
+
+        List<Callable<Void>> searches = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups.values()) {
+            // Views cache the last section they read, so every search gets its own
+            PassabilitySnapshot.View world = snapshot.view(gardenBounds);
+            searches.add(() -> {
+                search(world, startX, startY, startZ, goals, group, mode, costs);
+                return null;
+            });
+        }
+        try {
+            if (searches.size() == 1) {
+                searches.get(0).call();
+            } else {
+                for (Future<Void> future : pool.invokeAll(searches)) {
+                    future.get();
+                }
+            }
+        } catch (Exception e) {
+            LogUtils.sendDebug("Multi goal search failed: " + e);
+        }
+        lastGroups = groups.size();
+        lastNanos = System.nanoTime() - startTime;
+        LogUtils.sendDebug("Travel costs to " + goals.size() + " goals in " + groups.size() + " plots took " + TimeUnit.NANOSECONDS.toMicros(lastNanos) + "µs");
+        return costs;
+    }
+
+    /**
+     * Searches towards the goals of one group and writes their costs. Every group writes different indices of {@code costs}.
+     */
+    private void search(PassabilitySnapshot.View world, int startX, int startY, int startZ, List<Vec3> goals, List<Integer> group, Mode mode, float[] costs) {
+        long[] cells = new long[group.size()];
+        for (int index = 0; index < cells.length; index++) {
+            Vec3 goal = goals.get(group.get(index));
+            int x = MathHelper.floor_double(goal.xCoord);
+            int y = MathHelper.floor_double(goal.yCoord);
+            int z = MathHelper.floor_double(goal.zCoord);
+            for (int lift = 0; lift < MAX_GOAL_LIFT && !fits(world, x, y, z); lift++) {
+                y++;
+            }
+            cells[index] = FlyAStar.pack(x, y, z);
+        }
+        float[] groupCosts = new float[cells.length];
+        flyAStar.get().searchGoals(world, startX, startY, startZ, cells, mode == Mode.ALL, groupCosts, MAX_NODES, MAX_NANOS);
+        for (int index = 0; index < cells.length; index++) {
+            costs[group.get(index)] = groupCosts[index];
+        }
+    }
+
+    private static boolean fits(PassabilitySnapshot.View world, int x, int y, int z) {
+        return world.isFree(x, y, z) && world.isFree(x, y + 1, z);
+    }
+}
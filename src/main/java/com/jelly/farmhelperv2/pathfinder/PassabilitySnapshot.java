@@ -0,0 +1,285 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import com.jelly.farmhelperv2.event.BlockChangeEvent;
+import com.jelly.farmhelperv2.event.ChunkServerLoadEvent;
+import com.jelly.farmhelperv2.util.BlockUtils;
+import lombok.Getter;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockDoor;
+import net.minecraft.block.BlockSnow;
+import net.minecraft.block.BlockTrapDoor;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One bit per block (set = the player collides with it) for every loaded chunk section, kept on the client thread.
+ * Sections are filled when the server sends a chunk and patched on every block change.
+ * Patches copy the section before writing, so pathfinding threads can read the bits without ever touching the world.
+ * Every change bumps a global revision, which is also remembered per chunk so caches can tell which areas went stale.
+ */
+public class PassabilitySnapshot {
+    private static final long[] ALL_FREE = new long[64];
+    private static final long[] ALL_SOLID = new long[64];
+    private static final byte UNKNOWN = 0;
+    private static final byte FREE = 1;
+    private static final byte SOLID = 2;
+    private static final byte DEPENDS_ON_POSITION = 3;
+    private static PassabilitySnapshot instance;
+
+    static {
+        Arrays.fill(ALL_SOLID, -1L);
+    }
+
+    private final Map<Long, long[]> sections = new ConcurrentHashMap<>();
+    private final Set<Long> capturedChunks = ConcurrentHashMap.newKeySet();
+    // Value of the global revision when each chunk last changed, kept after the chunk unloads
+    private final Map<Long, Long> chunkRevisions = new ConcurrentHashMap<>();
+    // Most block states collide the same way everywhere, indexed by their state id
+    private final byte[] stateCache = new byte[1 << 16];
+    @Getter
+    private final AtomicLong revision = new AtomicLong();
+
+    public static PassabilitySnapshot getInstance() {
+        if (instance == null) {
+            instance = new PassabilitySnapshot();
+        }
+        return instance;
+    }
+
+    /**
+     * A read-only view for a single search. It remembers the last section it looked at, so probes inside one section are a bit test.
+     *
+     * @param gardenBounds treat everything outside the garden's buildable area as solid, like {@link BlockUtils#isFree} does in the garden
+     */
+    public View view(boolean gardenBounds) {
+        return new View(gardenBounds);
+    }
+
+    /**
+     * Returns a value that changes whenever a block in the given chunk area changes its passability, or a chunk in it is loaded or unloaded.
+     */
+    public long getAreaRevision(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        long areaRevision = 0;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Long chunkRevision = chunkRevisions.get(chunkKey(chunkX, chunkZ));
+                if (chunkRevision != null && chunkRevision > areaRevision) {
+                    areaRevision = chunkRevision;
+                }
+            }
+        }
+        return areaRevision;
+    }
+
+    /**
+     * Captures loaded chunks between the two positions that aren't in the snapshot yet, for example the ones loaded before joining.
+     * Has to be called from the client thread.
+     */
+    public void ensureCaptured(World world, int fromX, int fromZ, int toX, int toZ) {
+        int minChunkX = (Math.min(fromX, toX) >> 4) - 1;
+        int maxChunkX = (Math.max(fromX, toX) >> 4) + 1;
+        int minChunkZ = (Math.min(fromZ, toZ) >> 4) - 1;
+        int maxChunkZ = (Math.max(fromZ, toZ) >> 4) + 1;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (capturedChunks.contains(chunkKey(chunkX, chunkZ))) continue;
+                // The client hands out a shared empty chunk at 0, 0 for chunks it doesn't have
+                Chunk chunk = world.getChunkFromChunkCoords(chunkX, chunkZ);
+                if (chunk.isEmpty()) continue;
+                capture(chunk);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkServerLoadEvent event) {
+        capture(event.getChunk());
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (!event.world.isRemote) return;
+        Chunk chunk = event.getChunk();
+        if (!capturedChunks.remove(chunkKey(chunk.xPosition, chunk.zPosition))) return;
+        for (int sectionY = 0; sectionY < 16; sectionY++) {
+            sections.remove(sectionKey(chunk.xPosition, sectionY, chunk.zPosition));
+        }
+        chunkChanged(chunk.xPosition, chunk.zPosition);
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        sections.clear();
+        capturedChunks.clear();
+        chunkRevisions.clear();
+        revision.incrementAndGet();
+    }
+
+    /**
+     * Crops growing and similar changes don't change what can be flown through, those are dropped before an event exists.
+     */
+    public boolean mayChangePassability(World world, int x, int y, int z, IBlockState old, IBlockState update) {
+        if (!capturedChunks.contains(chunkKey(x >> 4, z >> 4))) return false;
+        byte from = passability(world, (char) Block.getStateId(old));
+        byte to = passability(world, (char) Block.getStateId(update));
+        return from != to || from == DEPENDS_ON_POSITION;
+    }
+
+    public void onBlockChanges(List<BlockChangeEvent> changes) {
+        long lastChangedChunk = Long.MIN_VALUE;
+        for (BlockChangeEvent event : changes) {
+            BlockPos pos = event.pos;
+            World world = (World) event.world;
+            boolean changed = setSolid(pos.getX(), pos.getY(), pos.getZ(), isSolid(world, pos, event.update));
+            if (event.update.getBlock() instanceof BlockDoor || event.old.getBlock() instanceof BlockDoor) {
+                // The other half of a door opens and closes with this one
+                BlockPos above = pos.up();
+                BlockPos below = pos.down();
+                changed |= setSolid(above.getX(), above.getY(), above.getZ(), isSolid(world, above, world.getBlockState(above)));
+                changed |= setSolid(below.getX(), below.getY(), below.getZ(), isSolid(world, below, world.getBlockState(below)));
+            }
+            // A multi block change is all in one chunk, it only needs one new revision
+            long chunk = chunkKey(pos.getX() >> 4, pos.getZ() >> 4);
+            if (changed && chunk != lastChangedChunk) {
+                chunkChanged(pos.getX() >> 4, pos.getZ() >> 4);
+                lastChangedChunk = chunk;
+            }
+        }
+    }
+
+    private void capture(Chunk chunk) {
+        World world = chunk.getWorld();
+        ExtendedBlockStorage[] storages = chunk.getBlockStorageArray();
+        for (int sectionY = 0; sectionY < 16; sectionY++) {
+            ExtendedBlockStorage storage = storages[sectionY];
+            long key = sectionKey(chunk.xPosition, sectionY, chunk.zPosition);
+            if (storage == null || storage.isEmpty()) {
+                sections.put(key, ALL_FREE);
+                continue;
+            }
+            char[] data = storage.getData();
+            long[] bits = new long[64];
+            boolean anySolid = false;
+            boolean anyFree = false;
+            for (int index = 0; index < 4096; index++) {
+                byte passability = passability(world, data[index]);
+                boolean solid;
+                if (passability == DEPENDS_ON_POSITION) {
+                    // index is y << 8 | z << 4 | x, the same layout the section data uses
+                    BlockPos pos = new BlockPos((chunk.xPosition << 4) + (index & 15), (sectionY << 4) + (index >> 8), (chunk.zPosition << 4) + (index >> 4 & 15));
+                    solid = isSolid(world, pos, world.getBlockState(pos));
+                } else {
+                    solid = passability == SOLID;
+                }
+                if (solid) {
+                    bits[index >> 6] |= 1L << index;
+                    anySolid = true;
+                } else {
+                    anyFree = true;
+                }
+            }
+            sections.put(key, !anySolid ? ALL_FREE : !anyFree ? ALL_SOLID : bits);
+        }
+        capturedChunks.add(chunkKey(chunk.xPosition, chunk.zPosition));
+        chunkChanged(chunk.xPosition, chunk.zPosition);
+    }
+
+    private void chunkChanged(int chunkX, int chunkZ) {
+        chunkRevisions.put(chunkKey(chunkX, chunkZ), revision.incrementAndGet());
+    }
+
+    private byte passability(World world, char stateId) {
+        byte passability = stateCache[stateId];
+        return passability != UNKNOWN ? passability : classify(world, stateId);
+    }
+
+    private byte classify(World world, char stateId) {
+        IBlockState state = Block.BLOCK_STATE_IDS.getByValue(stateId);
+        if (state == null) {
+            return stateCache[stateId] = FREE;
+        }
+        Block block = state.getBlock();
+        if (block instanceof BlockDoor || block instanceof BlockTrapDoor || block instanceof BlockSnow) {
+            // These read their neighbours or their own world state to decide whether they can be passed
+            return stateCache[stateId] = DEPENDS_ON_POSITION;
+        }
+        return stateCache[stateId] = BlockUtils.blockHasCollision(BlockPos.ORIGIN, state, block, world) ? SOLID : FREE;
+    }
+
+    private static boolean isSolid(World world, BlockPos pos, IBlockState state) {
+        return BlockUtils.blockHasCollision(pos, state, state.getBlock(), world);
+    }
+
+    private boolean setSolid(int x, int y, int z, boolean solid) {
+        if (y < 0 || y > 255) return false;
+        long key = sectionKey(x >> 4, y >> 4, z >> 4);
+        long[] bits = sections.get(key);
+        if (bits == null) return false;
+        int index = (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+        boolean current = (bits[index >> 6] & 1L << index) != 0;
+        if (current == solid) return false;
+        long[] copy = Arrays.copyOf(bits, 64);
+        if (solid) {
+            copy[index >> 6] |= 1L << index;
+        } else {
+            copy[index >> 6] &= ~(1L << index);
+        }
+        sections.put(key, copy);
+        return true;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static long sectionKey(int chunkX, int sectionY, int chunkZ) {
+        return FlyAStar.pack(chunkX, sectionY, chunkZ);
+    }
+
+    public class View implements FlyAStar.Passability {
+        @Getter
+        private final boolean gardenBounds;
+        private long lastKey = Long.MIN_VALUE;
+        private long[] lastBits;
+
+        private View(boolean gardenBounds) {
+            this.gardenBounds = gardenBounds;
+        }
+
+        @Override
+        public boolean isFree(int x, int y, int z) {
+            if (gardenBounds && (y < 65 || x < -300 || x > 300 || z < -300 || z > 300)) return false;
+            // Outside the build height and in chunks that aren't loaded the client world is air as well
+            if (y < 0 || y > 255) return true;
+            long key = sectionKey(x >> 4, y >> 4, z >> 4);
+            if (key != lastKey) {
+                lastKey = key;
+                lastBits = sections.get(key);
+            }
+            if (lastBits == null) return true;
+            int index = (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+            return (lastBits[index >> 6] & 1L << index) == 0;
+        }
+
+        /**
+         * Drops the cached section, so edits made since the last probe are seen.
+         */
+        public void refresh() {
+            lastKey = Long.MIN_VALUE;
+            lastBits = null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import com.jelly.farmhelperv2.util.LogUtils;
+import lombok.Getter;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs path searches one at a time on a single reused worker thread.
+ * Only the latest request matters: submitting a new one cancels the previous one, and the search notices through the interrupt flag.
+ * The result callback runs only for the request that is still current, so a late result can't overwrite a newer path or a stop.
+ */
+public class PathfindingService {
+    private static PathfindingService instance;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "FarmHelper-Pathfinder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Task<?> current;
+
+    @Getter
+    private final AtomicLong completed = new AtomicLong();
+    @Getter
+    private final AtomicLong superseded = new AtomicLong();
+
+    public static PathfindingService getInstance() {
+        if (instance == null) {
+            instance = new PathfindingService();
+        }
+        return instance;
+    }
+
+    /**
+     * Queues {@code job} and cancels whatever request was pending or running before it.
+     *
+     * @param onResult called on the worker thread with the job's result, or null if the job threw, unless the request was cancelled or superseded in the meantime
+     */
+    public synchronized <T> Task<T> submit(Callable<T> job, Consumer<T> onResult) {
+        if (current != null && current.cancel(true)) {
+            superseded.incrementAndGet();
+        }
+        Task<T> task = new Task<>(job, onResult);
+        current = task;
+        worker.execute(task);
+        return task;
+    }
+
+    /**
+     * Cancels the current request, if any.
+     */
+    public synchronized void cancel() {
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+        }
+    }
+
+    public synchronized boolean isBusy() {
+        return current != null && !current.isDone();
+    }
+
+    private synchronized <T> void finish(Task<T> task) {
+        if (task != current || task.isCancelled()) return;
+        current = null;
+        completed.incrementAndGet();
+        try {
+            task.onResult.accept(task.get());
+        } catch (ExecutionException e) {
+            LogUtils.sendError("Pathfinding failed: " + e.getCause());
+            e.getCause().printStackTrace();
+            // Treated like a search that found nothing, so the caller doesn't wait forever
+            task.onResult.accept(null);
+        } catch (InterruptedException | CancellationException ignored) {
+        }
+    }
+
+    /**
+     * Handle of a submitted request, cancelling it interrupts the search if it already started.
+     */
+    public class Task<T> extends FutureTask<T> {
+        private final Consumer<T> onResult;
+
+        private Task(Callable<T> job, Consumer<T> onResult) {
+            super(job);
+            this.onResult = onResult;
+        }
+
+        @Override
+        protected void done() {
+            finish(this);
+        }
+    }
+}
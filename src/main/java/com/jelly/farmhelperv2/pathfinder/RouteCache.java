@@ -0,0 +1,282 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.jelly.farmhelperv2.FarmHelper;
+import com.jelly.farmhelperv2.config.FarmHelperConfig;
+import com.jelly.farmhelperv2.util.LogUtils;
+import lombok.Getter;
+import net.minecraft.util.Vec3;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least recently used cache of finished fly routes, so trips that are made over and over skip both the search and the smoothing.
+ * Routes are keyed by the island and by their start and goal cells rounded to a few blocks.
+ * Each route remembers the revision of the chunks it crosses; when that changed, the route is checked with line of sight tests
+ * before being reused, which is much cheaper than searching it again.
+ */
+public class RouteCache {
+    private static final File ROUTES_FILE = new File("config/farmhelperv2/fly_routes.json");
+    // Start and goal cells are rounded to this many blocks, trips from almost the same spot share a route
+    private static final int QUANTUM = 2;
+    private static final int MAX_ROUTES = 256;
+    // Bounds the memory used, every point is a single packed long
+    private static final int MAX_POINTS = 32_768;
+    private static RouteCache instance;
+
+    private final LinkedHashMap<Key, Route> routes = new LinkedHashMap<>(16, 0.75f, true);
+    private int points = 0;
+    private boolean loaded = false;
+
+    @Getter
+    private final AtomicLong hits = new AtomicLong();
+    @Getter
+    private final AtomicLong misses = new AtomicLong();
+
+    public static RouteCache getInstance() {
+        if (instance == null) {
+            instance = new RouteCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a cached route between the two cells, with its ends moved onto them, or null if there is none that is still flyable.
+     * Has to be called from the client thread, chunks the route crosses are captured first.
+     */
+    public synchronized List<Vec3> get(World world, PassabilitySnapshot.View view, String location, boolean smooth, int startX, int startY, int startZ, int goalX, int goalY, int goalZ) {
+        if (!loaded && FarmHelperConfig.persistFlyRoutes) {
+            load();
+        }
+        Key key = new Key(location, smooth, startX, startY, startZ, goalX, goalY, goalZ);
+        Route route = routes.get(key);
+        if (route == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        PassabilitySnapshot snapshot = PassabilitySnapshot.getInstance();
+        snapshot.ensureCaptured(world, route.minX, route.minZ, route.maxX, route.maxZ);
+        long revision = snapshot.getAreaRevision(route.minX >> 4, route.minZ >> 4, route.maxX >> 4, route.maxZ >> 4);
+        if (revision != route.revision) {
+            if (!isFlyable(view, route.cells)) {
+                remove(key);
+                misses.incrementAndGet();
+                return null;
+            }
+            route.revision = revision;
+        }
+
+        List<Vec3> cells = new ArrayList<>(route.cells.length + 2);
+        for (long cell : route.cells) {
+            cells.add(new Vec3(FlyAStar.unpackX(cell), FlyAStar.unpackY(cell), FlyAStar.unpackZ(cell)));
+        }
+        if (!moveEnd(view, cells, 0, 1, startX, startY, startZ) || !moveEnd(view, cells, cells.size() - 1, cells.size() - 2, goalX, goalY, goalZ)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cells;
+    }
+
+    /**
+     * Remembers a finished route. Routes that stop short of the goal aren't kept.
+     *
+     * @param revision the global snapshot revision from before the route was searched
+     */
+    public synchronized void put(String location, boolean smooth, List<Vec3> cells, int goalX, int goalY, int goalZ, long revision) {
+        if (cells.size() < 2 || cells.size() > MAX_POINTS / 4) return;
+        Vec3 first = cells.get(0);
+        Vec3 last = cells.get(cells.size() - 1);
+        if ((int) last.xCoord != goalX || (int) last.yCoord != goalY || (int) last.zCoord != goalZ) return;
+        Route route = new Route(cells);
+        PassabilitySnapshot snapshot = PassabilitySnapshot.getInstance();
+        // A block changed while the route was searched, so it's checked again before its first reuse
+        route.revision = snapshot.getRevision().get() == revision ? snapshot.getAreaRevision(route.minX >> 4, route.minZ >> 4, route.maxX >> 4, route.maxZ >> 4) : -1;
+        add(new Key(location, smooth, (int) first.xCoord, (int) first.yCoord, (int) first.zCoord, goalX, goalY, goalZ), route);
+    }
+
+    public synchronized int size() {
+        return routes.size();
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (!event.world.isRemote || !FarmHelperConfig.persistFlyRoutes) return;
+        save();
+    }
+
+    private void add(Key key, Route route) {
+        remove(key);
+        routes.put(key, route);
+        points += route.cells.length;
+        Iterator<Route> eldest = routes.values().iterator();
+        while ((routes.size() > MAX_ROUTES || points > MAX_POINTS) && eldest.hasNext()) {
+            points -= eldest.next().cells.length;
+            eldest.remove();
+        }
+    }
+
+    private void remove(Key key) {
+        Route removed = routes.remove(key);
+        if (removed != null) {
+            points -= removed.cells.length;
+        }
+    }
+
+    private static boolean isFlyable(PassabilitySnapshot.View view, long[] cells) {
+        for (int index = 1; index < cells.length; index++) {
+            long from = cells[index - 1];
+            long to = cells[index];
+            if (!LineOfSight.isTraversable(view, FlyAStar.unpackX(from), FlyAStar.unpackY(from), FlyAStar.unpackZ(from), FlyAStar.unpackX(to), FlyAStar.unpackY(to), FlyAStar.unpackZ(to))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the end at {@code index} onto the requested cell. The end is replaced when its neighbour {@code next} can see the cell,
+     * otherwise the cell is added in front of it if the end itself can.
+     */
+    private static boolean moveEnd(PassabilitySnapshot.View view, List<Vec3> cells, int index, int next, int x, int y, int z) {
+        Vec3 end = cells.get(index);
+        if ((int) end.xCoord == x && (int) end.yCoord == y && (int) end.zCoord == z) return true;
+        Vec3 cell = new Vec3(x, y, z);
+        Vec3 neighbour = cells.get(next);
+        if (LineOfSight.isTraversable(view, neighbour.xCoord, neighbour.yCoord, neighbour.zCoord, x, y, z)) {
+            cells.set(index, cell);
+            return true;
+        }
+        if (LineOfSight.isTraversable(view, end.xCoord, end.yCoord, end.zCoord, x, y, z)) {
+            cells.add(index == 0 ? 0 : cells.size(), cell);
+            return true;
+        }
+        return false;
+    }
+
+    private void load() {
+        loaded = true;
+        if (!ROUTES_FILE.exists()) return;
+        try {
+            JsonArray json = FarmHelper.gson.fromJson(new String(Files.readAllBytes(ROUTES_FILE.toPath())), JsonArray.class);
+            for (JsonElement element : json) {
+                JsonObject entry = element.getAsJsonObject();
+                JsonArray packed = entry.getAsJsonArray("cells");
+                List<Vec3> cells = new ArrayList<>(packed.size());
+                for (JsonElement cell : packed) {
+                    long key = cell.getAsLong();
+                    cells.add(new Vec3(FlyAStar.unpackX(key), FlyAStar.unpackY(key), FlyAStar.unpackZ(key)));
+                }
+                Route route = new Route(cells);
+                // Nothing is known about the world these were flown in, they are checked before their first reuse
+                route.revision = -1;
+                long start = route.cells[0];
+                long goal = route.cells[route.cells.length - 1];
+                add(new Key(entry.get("location").getAsString(), entry.get("smooth").getAsBoolean(),
+                        FlyAStar.unpackX(start), FlyAStar.unpackY(start), FlyAStar.unpackZ(start),
+                        FlyAStar.unpackX(goal), FlyAStar.unpackY(goal), FlyAStar.unpackZ(goal)), route);
+            }
+            LogUtils.sendDebug("Loaded " + routes.size() + " fly routes");
+        } catch (Exception e) {
+            LogUtils.sendDebug("Failed to load the fly routes: " + e);
+        }
+    }
+
+    private synchronized void save() {
+        JsonArray json = new JsonArray();
+        for (Map.Entry<Key, Route> entry : routes.entrySet()) {
+            JsonObject route = new JsonObject();
+            route.addProperty("location", entry.getKey().location);
+            route.addProperty("smooth", entry.getKey().smooth);
+            JsonArray cells = new JsonArray();
+            for (long cell : entry.getValue().cells) {
+                cells.add(FarmHelper.gson.toJsonTree(cell));
+            }
+            route.add("cells", cells);
+            json.add(route);
+        }
+        try {
+            Files.createDirectories(ROUTES_FILE.getParentFile().toPath());
+            // Written next to the real file and moved over it, so closing the game mid-write can't leave half a file behind
+            Path temp = new File(ROUTES_FILE.getPath() + ".tmp").toPath();
+            Files.write(temp, FarmHelper.gson.toJson(json).getBytes());
+            try {
+                Files.move(temp, ROUTES_FILE.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, ROUTES_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static class Key {
+        private final String location;
+        private final boolean smooth;
+        private final long start;
+        private final long goal;
+
+        private Key(String location, boolean smooth, int startX, int startY, int startZ, int goalX, int goalY, int goalZ) {
+            this.location = location;
+            this.smooth = smooth;
+            this.start = FlyAStar.pack(Math.floorDiv(startX, QUANTUM), Math.floorDiv(startY, QUANTUM), Math.floorDiv(startZ, QUANTUM));
+            this.goal = FlyAStar.pack(Math.floorDiv(goalX, QUANTUM), Math.floorDiv(goalY, QUANTUM), Math.floorDiv(goalZ, QUANTUM));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return smooth == key.smooth && start == key.start && goal == key.goal && location.equals(key.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(location, smooth, start, goal);
+        }
+    }
+
+    private static class Route {
+        private final long[] cells;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private long revision;
+
+        private Route(List<Vec3> path) {
+            cells = new long[path.size()];
+            int minX = Integer.MAX_VALUE;
+            int minZ = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE;
+            int maxZ = Integer.MIN_VALUE;
+            for (int index = 0; index < cells.length; index++) {
+                Vec3 cell = path.get(index);
+                int x = (int) cell.xCoord;
+                int z = (int) cell.zCoord;
+                cells[index] = FlyAStar.pack(x, (int) cell.yCoord, z);
+                minX = Math.min(minX, x);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxZ = Math.max(maxZ, z);
+            }
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import net.minecraft.util.MathHelper;
+
+/**
+ * The short probes in front of the player that decide whether to fly higher or lower, traced on the passability snapshot.
+ * One instance is reused every tick, results live in primitive arrays indexed by probe.
+ */
+public class SteeringProbes {
+    public static final int LEFT_UP = 0;
+    public static final int CENTER_UP = 1;
+    public static final int RIGHT_UP = 2;
+    public static final int LEFT_DOWN = 3;
+    public static final int CENTER_DOWN = 4;
+    public static final int RIGHT_DOWN = 5;
+    public static final int FENCE_GATE = 6;
+    public static final int COUNT = 7;
+    // Yaw offset of every probe, the fence gate probe looks straight ahead
+    private static final float[] YAW_OFFSETS = {-20, 0, 20, -20, 0, 20, 0};
+
+    private final double[] targetX = new double[COUNT];
+    private final double[] targetY = new double[COUNT];
+    private final double[] targetZ = new double[COUNT];
+    private final boolean[] hit = new boolean[COUNT];
+    private final int[] hitX = new int[COUNT];
+    private final int[] hitY = new int[COUNT];
+    private final int[] hitZ = new int[COUNT];
+    private final int[] scratch = new int[3];
+
+    /**
+     * Traces every probe from a player standing at {@code x, y, z} and going towards {@code yaw}.
+     */
+    public void update(FlyAStar.Passability world, double x, double y, double z, float height, float yaw) {
+        for (int probe = 0; probe < COUNT; probe++) {
+            // Same direction AngleUtils.getVectorForRotation gives for a pitch of 0
+            float radians = -(yaw + YAW_OFFSETS[probe]) * 0.017453292F - 3.1415927F;
+            double directionX = -MathHelper.sin(radians);
+            double directionZ = -MathHelper.cos(radians);
+            double fromY;
+            double reach;
+            if (probe == FENCE_GATE) {
+                fromY = y;
+                reach = 0.25;
+                targetY[probe] = y - 0.75;
+            } else if (probe <= RIGHT_UP) {
+                fromY = y + height;
+                reach = 0.75;
+                targetY[probe] = y + height + 0.1;
+            } else {
+                fromY = y;
+                reach = 0.75;
+                targetY[probe] = y - 0.1;
+            }
+            targetX[probe] = x + directionX * reach;
+            targetZ[probe] = z + directionZ * reach;
+            hit[probe] = LineOfSight.trace(world, x, fromY, z, targetX[probe], targetY[probe], targetZ[probe], scratch);
+            if (hit[probe]) {
+                hitX[probe] = scratch[0];
+                hitY[probe] = scratch[1];
+                hitZ[probe] = scratch[2];
+            }
+        }
+    }
+
+    public boolean isHit(int probe) {
+        return hit[probe];
+    }
+
+    public int getHitX(int probe) {
+        return hitX[probe];
+    }
+
+    public int getHitY(int probe) {
+        return hitY[probe];
+    }
+
+    public int getHitZ(int probe) {
+        return hitZ[probe];
+    }
+
+    public double getTargetX(int probe) {
+        return targetX[probe];
+    }
+
+    public double getTargetY(int probe) {
+        return targetY[probe];
+    }
+
+    public double getTargetZ(int probe) {
+        return targetZ[probe];
+    }
+}
@@ -0,0 +1,87 @@
+package com.jelly.farmhelperv2.util;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pulls sell prices for a handful of products out of the skyblock/bazaar response in a single streaming pass.
+ * Products that weren't asked for and every order book field are skipped without being materialized.
+ */
+public class BazaarPriceExtractor {
+
+    /**
+     * Returns the price of every requested product that has a sell summary.
+     * Like before, the second sell order is used when there is one, so a single undercutting order doesn't skew the price.
+     */
+    public static Map<String, Double> extract(Reader source, Set<String> productIds) throws IOException {
+        Map<String, Double> prices = new HashMap<>();
+        JsonReader reader = new JsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("products")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String productId = reader.nextName();
+                if (!productIds.contains(productId)) {
+                    reader.skipValue();
+                    continue;
+                }
+                double price = readSellPrice(reader);
+                if (!Double.isNaN(price)) {
+                    prices.put(productId, price);
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return prices;
+    }
+
+    private static double readSellPrice(JsonReader reader) throws IOException {
+        double price = Double.NaN;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("sell_summary") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            for (int index = 0; reader.hasNext(); index++) {
+                if (index > 1) {
+                    reader.skipValue();
+                    continue;
+                }
+                double orderPrice = readPricePerUnit(reader);
+                if (!Double.isNaN(orderPrice)) {
+                    price = orderPrice;
+                }
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return price;
+    }
+
+    private static double readPricePerUnit(JsonReader reader) throws IOException {
+        double price = Double.NaN;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("pricePerUnit")) {
+                price = reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return price;
+    }
+}
@@ -4,7 +4,10 @@ import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.handler.RotationHandler;
+import com.jelly.farmhelperv2.util.helper.CropIndex;
+import com.jelly.farmhelperv2.util.helper.PlayerBlockWindow;
 import com.jelly.farmhelperv2.util.helper.Rotation;
+import com.jelly.farmhelperv2.util.helper.VoxelRaycaster;
 import net.minecraft.block.*;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
@@ -28,6 +31,9 @@ import static cc.polyfrost.oneconfig.libs.universal.UMath.wrapAngleTo180;
 
 public class BlockUtils {
     private static final Minecraft mc = Minecraft.getMinecraft();
+    // Both only used from the client thread
+    private static final VoxelRaycaster raycaster = new VoxelRaycaster();
+    private static final VoxelRaycaster visibilityRaycaster = new VoxelRaycaster(false, false, false);
     private static final Block[] initialWalkables = {Blocks.air, Blocks.water, Blocks.flowing_water, Blocks.waterlily, Blocks.wall_sign, Blocks.reeds, Blocks.pumpkin_stem, Blocks.melon_stem};
 
     public static float getUnitX() {
@@ -79,11 +85,11 @@ public class BlockUtils {
     }
 
     public static Block getBlock(BlockPos blockPos) {
-        return mc.theWorld.getBlockState(blockPos).getBlock();
+        return PlayerBlockWindow.getInstance().getBlockState(blockPos).getBlock();
     }
 
     public static Block getRelativeBlock(float x, float y, float z) {
-        return getBlock(getRelativeBlockPos(x, y, z));
+        return getRelativeBlock(x, y, z, mc.thePlayer.rotationYaw);
     }
 
     public static BlockPos getRelativeBlockPos(float x, float y, float z) {
@@ -130,6 +136,9 @@ public class BlockUtils {
     }
 
     public static Block getRelativeBlock(float x, float y, float z, float yaw) {
+        if (x == (int) x && y == (int) y && z == (int) z) {
+            return PlayerBlockWindow.getInstance().getRelativeBlockState((int) x, (int) y, (int) z, yaw).getBlock();
+        }
         return getBlock(getRelativeBlockPos(x, y, z, yaw));
     }
 
@@ -174,19 +183,11 @@ public class BlockUtils {
     }
 
     private static boolean canWalkThroughBottom(BlockPos blockPos, Direction direction) {
-        IBlockState state = mc.theWorld.getBlockState(blockPos);
+        IBlockState state = getBlockState(blockPos);
         Block block = state.getBlock();
 
         // if no blocks down to 65, then return false
-        boolean allAir = true;
-        for (int y = blockPos.getY(); y >= 65; y--) {
-            if (mc.theWorld.getBlockState(new BlockPos(blockPos.getX(), y, blockPos.getZ())).getBlock() != Blocks.air) {
-                allAir = false;
-                break;
-            }
-        }
-
-        if (allAir) return false;
+        if (!PlayerBlockWindow.getInstance().hasBlockBelow(blockPos.getX(), blockPos.getY(), blockPos.getZ(), 65)) return false;
 
         if (mc.thePlayer.posY % 1 >= 0.5 && mc.thePlayer.posY % 1 <= 0.75)
             return true;
@@ -242,7 +243,7 @@ public class BlockUtils {
     }
 
     private static boolean canWalkThroughAbove(BlockPos blockPos, Direction direction) {
-        IBlockState state = mc.theWorld.getBlockState(blockPos);
+        IBlockState state = getBlockState(blockPos);
         Block block = state.getBlock();
 
         if (block instanceof BlockCarpet)
@@ -260,7 +261,7 @@ public class BlockUtils {
 
         if (block instanceof BlockTrapDoor) {
             EnumFacing playerFacing = EnumFacing.fromAngle(mc.thePlayer.rotationYaw);
-            EnumFacing doorFacing = mc.theWorld.getBlockState(blockPos).getValue(BlockTrapDoor.FACING);
+            EnumFacing doorFacing = state.getValue(BlockTrapDoor.FACING);
             boolean standingOnDoor = getRelativeBlockPos(0, 1, 0).equals(blockPos);
 
             if (state.getValue(BlockTrapDoor.OPEN) && direction != null) {
@@ -352,11 +353,11 @@ public class BlockUtils {
     }
 
     public static boolean canWalkThroughDoor(BlockPos blockPos, Direction direction) {
-        Block block = mc.theWorld.getBlockState(blockPos).getBlock();
-        if (!(block instanceof BlockDoor)) return true;
+        IBlockState state = getBlockState(blockPos);
+        if (!(state.getBlock() instanceof BlockDoor)) return true;
 
         EnumFacing playerFacing = EnumFacing.fromAngle(mc.thePlayer.rotationYaw);
-        EnumFacing doorFacing = mc.theWorld.getBlockState(blockPos).getValue(BlockDoor.FACING);
+        EnumFacing doorFacing = state.getValue(BlockDoor.FACING);
         boolean standingOnDoor = getRelativeBlockPos(0, 0, 0).equals(blockPos);
 
         return canWalkThroughDoorWithDirection(direction, playerFacing, doorFacing, standingOnDoor);
@@ -372,9 +373,10 @@ public class BlockUtils {
     public static boolean canFlyHigher(int distance) {
         BlockPos blockPos = getRelativeBlockPos(0, 1, 0);
         for (Vec3 vec3 : BLOCK_SIDE_MULTIPLIERS) {
-            Vec3 vec = new Vec3(blockPos.getX() + 0.5, blockPos.getY(), blockPos.getZ() + 0.5);
-            MovingObjectPosition mop = mc.theWorld.rayTraceBlocks(vec.add(vec3), vec.addVector(0, distance, 0).add(vec3), false, true, false);
-            if (mop != null && mop.typeOfHit == MovingObjectPosition.MovingObjectType.BLOCK) {
+            double x = blockPos.getX() + 0.5 + vec3.xCoord;
+            double y = blockPos.getY() + vec3.yCoord;
+            double z = blockPos.getZ() + 0.5 + vec3.zCoord;
+            if (raycaster.cast(mc.theWorld, x, y, z, x, y + distance, z)) {
                 return false;
             }
         }
@@ -427,17 +429,9 @@ public class BlockUtils {
             );
         }
 
-        List<BlockPos> cropList = crops.stream().filter(c -> {
-            IBlockState blockState = mc.theWorld.getBlockState(c);
-            Block block = blockState.getBlock();
-            return block instanceof BlockCrops && blockState.getValue(BlockCrops.AGE) == 7 ||
-                    block instanceof BlockNetherWart && blockState.getValue(BlockNetherWart.AGE) == 3 ||
-                    block instanceof BlockCocoa && blockState.getValue(BlockCocoa.AGE) == 2 ||
-                    block instanceof BlockMelon ||
-                    block instanceof BlockPumpkin ||
-                    block instanceof BlockCactus ||
-                    block instanceof BlockMushroom;
-        }).collect(Collectors.toList());
+        CropIndex cropIndex = CropIndex.getInstance();
+        // Sugar cane never counts here
+        List<BlockPos> cropList = crops.stream().filter(c -> cropIndex.isReady(c) && cropIndex.getCrop(c) != FarmHelperConfig.CropEnum.SUGAR_CANE).collect(Collectors.toList());
         Optional<BlockPos> optionalBlockPos = Optional.empty();
 
         for (BlockPos crop : cropList) {
@@ -458,35 +452,7 @@ public class BlockUtils {
 
         LogUtils.sendDebug("Closest crop: " + optionalBlockPos.get());
 
-        Block crop = mc.theWorld.getBlockState(optionalBlockPos.get()).getBlock();
-
-        if (crop == null) return false;
-
-
-        switch (MacroHandler.getInstance().getCrop()) {
-            case WHEAT:
-                return crop.equals(Blocks.wheat);
-            case CARROT:
-                return crop.equals(Blocks.carrots);
-            case POTATO:
-                return crop.equals(Blocks.potatoes);
-            case MELON:
-                return crop instanceof BlockMelon;
-            case PUMPKIN:
-                return crop instanceof BlockPumpkin;
-            case CACTUS:
-                return crop instanceof BlockCactus;
-            case MUSHROOM:
-                return crop instanceof BlockMushroom;
-            case NETHER_WART:
-                return crop instanceof BlockNetherWart;
-            case COCOA_BEANS:
-                return crop instanceof BlockCocoa;
-            case SUGAR_CANE:
-                return crop instanceof BlockReed;
-            default:
-                return false;
-        }
+        return cropIndex.getCrop(optionalBlockPos.get()) == MacroHandler.getInstance().getCrop();
     }
 
     public static boolean leftCropIsReady() {
@@ -502,8 +468,8 @@ public class BlockUtils {
     }
 
     public static boolean isBlockVisible(BlockPos pos) {
-        MovingObjectPosition mop = mc.theWorld.rayTraceBlocks(new Vec3(mc.thePlayer.posX, mc.thePlayer.posY + mc.thePlayer.getEyeHeight(), mc.thePlayer.posZ), new Vec3(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5));
-        return mop == null || mop.typeOfHit == MovingObjectPosition.MovingObjectType.ENTITY && mop.entityHit.getDistance(pos.getX(), pos.getY(), pos.getZ()) < 2 || mop.getBlockPos().equals(pos);
+        return !visibilityRaycaster.cast(mc.theWorld, mc.thePlayer.posX, mc.thePlayer.posY + mc.thePlayer.getEyeHeight(), mc.thePlayer.posZ, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5)
+                || visibilityRaycaster.isHitAt(pos);
     }
 
     public static boolean isWater(Block block) {
@@ -517,7 +483,7 @@ public class BlockUtils {
         Rotation serverSideRotation = new Rotation(RotationHandler.getInstance().getServerSideYaw(), RotationHandler.getInstance().getServerSidePitch());
 
         for (BlockPos blockPos : list) {
-            if (predicate.test(blockPos) && canBlockBeSeen(blockPos, 8, new Vec3(0, 0, 0), x -> false)) {
+            if (predicate.test(blockPos) && canBlockBeSeen(blockPos, 8, new Vec3(0, 0, 0), VoxelRaycaster.NONE)) {
                 if (easiest == null || RotationHandler.getInstance().getNeededChange(serverSideRotation, RotationHandler.getInstance().getRotation(blockPos)).getValue() < RotationHandler.getInstance().getNeededChange(serverSideRotation, RotationHandler.getInstance().getRotation(easiest)).getValue()) {
                     easiest = blockPos;
                 }
@@ -537,220 +503,26 @@ public class BlockUtils {
         return easiest;
     }
 
-    public static boolean canBlockBeSeen(BlockPos blockPos, double dist, Vec3 offset, Predicate<? super BlockPos> predicate) {
-        Vec3 vec = new Vec3(blockPos.getX() + 0.5, blockPos.getY() + 0.5, blockPos.getZ() + 0.5).add(offset);
-        MovingObjectPosition mop = rayTraceBlocks(mc.thePlayer.getPositionEyes(1.0f), vec, false, true, false, predicate);
-        if (mop != null && mop.typeOfHit == MovingObjectPosition.MovingObjectType.BLOCK) {
-            return mop.getBlockPos().equals(blockPos) && vec.distanceTo(mc.thePlayer.getPositionEyes(1.0f)) < dist;
+    public static boolean canBlockBeSeen(BlockPos blockPos, double dist, Vec3 offset, VoxelRaycaster.BlockFilter filter) {
+        double x = blockPos.getX() + 0.5 + offset.xCoord;
+        double y = blockPos.getY() + 0.5 + offset.yCoord;
+        double z = blockPos.getZ() + 0.5 + offset.zCoord;
+        double eyeX = mc.thePlayer.posX;
+        double eyeY = mc.thePlayer.posY + mc.thePlayer.getEyeHeight();
+        double eyeZ = mc.thePlayer.posZ;
+        raycaster.setFilter(filter);
+        boolean hit = raycaster.cast(mc.theWorld, eyeX, eyeY, eyeZ, x, y, z);
+        raycaster.setFilter(VoxelRaycaster.NONE);
+        if (hit) {
+            return raycaster.isHitAt(blockPos) && (x - eyeX) * (x - eyeX) + (y - eyeY) * (y - eyeY) + (z - eyeZ) * (z - eyeZ) < dist * dist;
         }
 
         return false;
     }
 
-    public static MovingObjectPosition rayTraceBlocks(Vec3 vec31, Vec3 vec32, boolean stopOnLiquid, boolean ignoreBlockWithoutBoundingBox, boolean returnLastUncollidableBlock, Predicate<? super BlockPos> predicate) {
-        return rayTraceBlocks(vec31, vec32, stopOnLiquid, ignoreBlockWithoutBoundingBox, returnLastUncollidableBlock, predicate, false);
-    }
-
-    public static MovingObjectPosition rayTraceBlocks(Vec3 vec31, Vec3 vec32, boolean stopOnLiquid, boolean ignoreBlockWithoutBoundingBox, boolean returnLastUncollidableBlock, Predicate<? super BlockPos> predicate, boolean fullBlocks) {
-        if (!(Double.isNaN(vec31.xCoord) || Double.isNaN(vec31.yCoord) || Double.isNaN(vec31.zCoord))) {
-            if (!(Double.isNaN(vec32.xCoord) || Double.isNaN(vec32.yCoord) || Double.isNaN(vec32.zCoord))) {
-                MovingObjectPosition movingobjectposition;
-                int i = MathHelper.floor_double(vec32.xCoord);
-                int j = MathHelper.floor_double(vec32.yCoord);
-                int k = MathHelper.floor_double(vec32.zCoord);
-                int l = MathHelper.floor_double(vec31.xCoord);
-                int i1 = MathHelper.floor_double(vec31.yCoord);
-                int j1 = MathHelper.floor_double(vec31.zCoord);
-                BlockPos blockpos = new BlockPos(l, i1, j1);
-                IBlockState iblockstate = getBlockState(blockpos);
-                Block block = iblockstate.getBlock();
-                if (!predicate.test(blockpos) && (!ignoreBlockWithoutBoundingBox || block.getCollisionBoundingBox(mc.theWorld, blockpos, iblockstate) != null) && block.canCollideCheck(iblockstate, stopOnLiquid) && (movingobjectposition = collisionRayTrace(block, blockpos, vec31, vec32, fullBlocks)) != null) {
-                    return movingobjectposition;
-                }
-                MovingObjectPosition movingobjectposition2 = null;
-                int k1 = 200;
-                while (k1-- >= 0) {
-                    EnumFacing enumfacing;
-                    if (Double.isNaN(vec31.xCoord) || Double.isNaN(vec31.yCoord) || Double.isNaN(vec31.zCoord)) {
-                        return null;
-                    }
-                    if (l == i && i1 == j && j1 == k) {
-                        return returnLastUncollidableBlock ? movingobjectposition2 : null;
-                    }
-                    boolean flag2 = true;
-                    boolean flag = true;
-                    boolean flag1 = true;
-                    double d0 = 999.0;
-                    double d1 = 999.0;
-                    double d2 = 999.0;
-                    if (i > l) {
-                        d0 = (double) l + 1.0;
-                    } else if (i < l) {
-                        d0 = (double) l + 0.0;
-                    } else {
-                        flag2 = false;
-                    }
-                    if (j > i1) {
-                        d1 = (double) i1 + 1.0;
-                    } else if (j < i1) {
-                        d1 = (double) i1 + 0.0;
-                    } else {
-                        flag = false;
-                    }
-                    if (k > j1) {
-                        d2 = (double) j1 + 1.0;
-                    } else if (k < j1) {
-                        d2 = (double) j1 + 0.0;
-                    } else {
-                        flag1 = false;
-                    }
-                    double d3 = 999.0;
-                    double d4 = 999.0;
-                    double d5 = 999.0;
-                    double d6 = vec32.xCoord - vec31.xCoord;
-                    double d7 = vec32.yCoord - vec31.yCoord;
-                    double d8 = vec32.zCoord - vec31.zCoord;
-                    if (flag2) {
-                        d3 = (d0 - vec31.xCoord) / d6;
-                    }
-                    if (flag) {
-                        d4 = (d1 - vec31.yCoord) / d7;
-                    }
-                    if (flag1) {
-                        d5 = (d2 - vec31.zCoord) / d8;
-                    }
-                    if (d3 == -0.0) {
-                        d3 = -1.0E-4;
-                    }
-                    if (d4 == -0.0) {
-                        d4 = -1.0E-4;
-                    }
-                    if (d5 == -0.0) {
-                        d5 = -1.0E-4;
-                    }
-                    if (d3 < d4 && d3 < d5) {
-                        enumfacing = i > l ? EnumFacing.WEST : EnumFacing.EAST;
-                        vec31 = new Vec3(d0, vec31.yCoord + d7 * d3, vec31.zCoord + d8 * d3);
-                    } else if (d4 < d5) {
-                        enumfacing = j > i1 ? EnumFacing.DOWN : EnumFacing.UP;
-                        vec31 = new Vec3(vec31.xCoord + d6 * d4, d1, vec31.zCoord + d8 * d4);
-                    } else {
-                        enumfacing = k > j1 ? EnumFacing.NORTH : EnumFacing.SOUTH;
-                        vec31 = new Vec3(vec31.xCoord + d6 * d5, vec31.yCoord + d7 * d5, d2);
-                    }
-                    l = MathHelper.floor_double(vec31.xCoord) - (enumfacing == EnumFacing.EAST ? 1 : 0);
-                    i1 = MathHelper.floor_double(vec31.yCoord) - (enumfacing == EnumFacing.UP ? 1 : 0);
-                    j1 = MathHelper.floor_double(vec31.zCoord) - (enumfacing == EnumFacing.SOUTH ? 1 : 0);
-                    blockpos = new BlockPos(l, i1, j1);
-                    IBlockState iblockstate1 = getBlockState(blockpos);
-                    Block block1 = iblockstate1.getBlock();
-                    if (ignoreBlockWithoutBoundingBox && block1.getCollisionBoundingBox(mc.theWorld, blockpos, iblockstate1) == null)
-                        continue;
-                    if (predicate.test(blockpos)) continue;
-                    if (block1.canCollideCheck(iblockstate1, stopOnLiquid)) {
-                        MovingObjectPosition movingobjectposition1 = collisionRayTrace(block1, blockpos, vec31, vec32, fullBlocks);
-                        if (movingobjectposition1 == null) continue;
-                        return movingobjectposition1;
-                    }
-                    movingobjectposition2 = new MovingObjectPosition(MovingObjectPosition.MovingObjectType.MISS, vec31, enumfacing, blockpos);
-                }
-                return returnLastUncollidableBlock ? movingobjectposition2 : null;
-            }
-            return null;
-        }
-        return null;
-    }
-
-    public static MovingObjectPosition collisionRayTrace(Block block, BlockPos pos, Vec3 start, Vec3 end, boolean fullBlocks) {
-        start = start.addVector(-pos.getX(), -pos.getY(), -pos.getZ());
-        end = end.addVector(-pos.getX(), -pos.getY(), -pos.getZ());
-
-        Vec3 vec3 = start.getIntermediateWithXValue(end, fullBlocks ? 0.0 : block.getBlockBoundsMinX());
-        Vec3 vec31 = start.getIntermediateWithXValue(end, fullBlocks ? 1.0 : block.getBlockBoundsMaxX());
-        Vec3 vec32 = start.getIntermediateWithYValue(end, fullBlocks ? 0.0 : block.getBlockBoundsMinY());
-        Vec3 vec33 = start.getIntermediateWithYValue(end, fullBlocks ? 1.0 : block.getBlockBoundsMaxY());
-        Vec3 vec34 = start.getIntermediateWithZValue(end, fullBlocks ? 0.0 : block.getBlockBoundsMinZ());
-        Vec3 vec35 = start.getIntermediateWithZValue(end, fullBlocks ? 1.0 : block.getBlockBoundsMaxZ());
-
-        if (!isVecInsideYZBounds(block, vec3, fullBlocks)) {
-            vec3 = null;
-        }
-        if (!isVecInsideYZBounds(block, vec31, fullBlocks)) {
-            vec31 = null;
-        }
-        if (!isVecInsideXZBounds(block, vec32, fullBlocks)) {
-            vec32 = null;
-        }
-        if (!isVecInsideXZBounds(block, vec33, fullBlocks)) {
-            vec33 = null;
-        }
-        if (!isVecInsideXYBounds(block, vec34, fullBlocks)) {
-            vec34 = null;
-        }
-        if (!isVecInsideXYBounds(block, vec35, fullBlocks)) {
-            vec35 = null;
-        }
-
-        Vec3 vec36 = null;
-
-        if (vec3 != null) {
-            vec36 = vec3;
-        }
-        if (vec31 != null && (vec36 == null || start.squareDistanceTo(vec31) < start.squareDistanceTo(vec36))) {
-            vec36 = vec31;
-        }
-        if (vec32 != null && (vec36 == null || start.squareDistanceTo(vec32) < start.squareDistanceTo(vec36))) {
-            vec36 = vec32;
-        }
-        if (vec33 != null && (vec36 == null || start.squareDistanceTo(vec33) < start.squareDistanceTo(vec36))) {
-            vec36 = vec33;
-        }
-        if (vec34 != null && (vec36 == null || start.squareDistanceTo(vec34) < start.squareDistanceTo(vec36))) {
-            vec36 = vec34;
-        }
-        if (vec35 != null && (vec36 == null || start.squareDistanceTo(vec35) < start.squareDistanceTo(vec36))) {
-            vec36 = vec35;
-        }
-        if (vec36 == null) {
-            return null;
-        }
-        EnumFacing enumfacing = null;
-        if (vec36 == vec3) {
-            enumfacing = EnumFacing.WEST;
-        }
-        if (vec36 == vec31) {
-            enumfacing = EnumFacing.EAST;
-        }
-        if (vec36 == vec32) {
-            enumfacing = EnumFacing.DOWN;
-        }
-        if (vec36 == vec33) {
-            enumfacing = EnumFacing.UP;
-        }
-        if (vec36 == vec34) {
-            enumfacing = EnumFacing.NORTH;
-        }
-        if (vec36 == vec35) {
-            enumfacing = EnumFacing.SOUTH;
-        }
-        return new MovingObjectPosition(vec36.addVector(pos.getX(), pos.getY(), pos.getZ()), enumfacing, pos);
-    }
-
-    private static boolean isVecInsideYZBounds(Block block, Vec3 point, boolean fullBlocks) {
-        return point != null && point.yCoord >= (fullBlocks ? 0.0 : block.getBlockBoundsMinY()) && point.yCoord <= (fullBlocks ? 1.0 : block.getBlockBoundsMaxY()) && point.zCoord >= (fullBlocks ? 0.0 : block.getBlockBoundsMinZ()) && point.zCoord <= (fullBlocks ? 1.0 : block.getBlockBoundsMaxZ());
-    }
-
-    private static boolean isVecInsideXZBounds(Block block, Vec3 point, boolean fullBlocks) {
-        return point != null && point.xCoord >= (fullBlocks ? 0.0 : block.getBlockBoundsMinX()) && point.xCoord <= (fullBlocks ? 1.0 : block.getBlockBoundsMaxX()) && point.zCoord >= (fullBlocks ? 0.0 : block.getBlockBoundsMinZ()) && point.zCoord <= (fullBlocks ? 1.0 : block.getBlockBoundsMaxZ());
-    }
-
-    private static boolean isVecInsideXYBounds(Block block, Vec3 point, boolean fullBlocks) {
-        return point != null && point.xCoord >= (fullBlocks ? 0.0 : block.getBlockBoundsMinX()) && point.xCoord <= (fullBlocks ? 1.0 : block.getBlockBoundsMaxX()) && point.yCoord >= (fullBlocks ? 0.0 : block.getBlockBoundsMinY()) && point.yCoord <= (fullBlocks ? 1.0 : block.getBlockBoundsMaxY());
-    }
-
     public static IBlockState getBlockState(BlockPos blockPos) {
         if (mc.theWorld == null) return null;
-        return mc.theWorld.getBlockState(blockPos);
+        return PlayerBlockWindow.getInstance().getBlockState(blockPos);
     }
 
     public static EnumFacing calculateEnumfacing(Vec3 vec) {
@@ -806,19 +578,8 @@ public class BlockUtils {
 
     public static int cropAroundAmount(BlockPos blockPos) {
         AxisAlignedBB axisAlignedBB = getBlocksAround(blockPos);
-        int count = 0;
-        for (int x = (int) axisAlignedBB.minX; x < axisAlignedBB.maxX; x++) {
-            for (int y = (int) axisAlignedBB.minY; y < axisAlignedBB.maxY; y++) {
-                for (int z = (int) axisAlignedBB.minZ; z < axisAlignedBB.maxZ; z++) {
-                    BlockPos blockPos1 = new BlockPos(x, y, z);
-                    Block block = mc.theWorld.getBlockState(blockPos1).getBlock();
-                    if (CropUtils.isCropReady(block, blockPos1)) {
-                        count++;
-                    }
-                }
-            }
-        }
-        return count;
+        return CropIndex.getInstance().countReady((int) axisAlignedBB.minX, (int) axisAlignedBB.minY, (int) axisAlignedBB.minZ,
+                (int) axisAlignedBB.maxX, (int) axisAlignedBB.maxY, (int) axisAlignedBB.maxZ);
     }
 
     public static boolean isFree(float x, float y, float z, IBlockAccess blockaccess) {
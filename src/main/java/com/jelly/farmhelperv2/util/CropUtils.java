@@ -1,14 +1,18 @@
 package com.jelly.farmhelperv2.util;
 
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
-import com.jelly.farmhelperv2.mixin.block.IBlockAccessor;
 import net.minecraft.block.*;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
+import net.minecraft.init.Blocks;
 import net.minecraft.util.AxisAlignedBB;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.world.World;
+import net.minecraft.util.MovingObjectPosition;
+import net.minecraft.util.Vec3;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 public class CropUtils {
 
@@ -41,71 +45,85 @@ public class CropUtils {
             new AxisAlignedBB(0.0D, 0.0D, 0.0D, 1.0D, 0.875D, 1.0D)
     };
 
-    public static void updateCropsMaxY(World world, BlockPos pos, Block block) {
-        final IBlockState blockState = world.getBlockState(pos);
-        final Integer ageValue = blockState.getValue(BlockCrops.AGE);
-        IBlockAccessor accessor = (IBlockAccessor) block;
-        if (FarmHelperConfig.increasedCrops)
-            accessor.setMaxY(
-                    blockState.getBlock() instanceof BlockPotato || blockState.getBlock() instanceof BlockCarrot
-                            ? CARROT_POTATO_BOX[ageValue].maxY
-                            : WHEAT_BOX[ageValue].maxY
-            ); // mc 1.12
-        else
-            accessor.setMaxY(0.25D); // mc 1.8.9
+    // Hitboxes of every crop state, relative to the block, with and without the increased hitbox settings.
+    // They're built once and never change, so the pathfinder threads can read them while the client ray traces.
+    private static final Map<IBlockState, AxisAlignedBB> INCREASED_HITBOXES = new IdentityHashMap<>();
+    private static final Map<IBlockState, AxisAlignedBB> VANILLA_HITBOXES = new IdentityHashMap<>();
+    private static final AxisAlignedBB VANILLA_CROP_BOX = new AxisAlignedBB(0.0D, 0.0D, 0.0D, 1.0D, 0.25D, 1.0D); // mc 1.8.9
+
+    static {
+        for (Block block : new Block[]{Blocks.wheat, Blocks.carrots, Blocks.potatoes}) {
+            for (IBlockState state : block.getBlockState().getValidStates()) {
+                AxisAlignedBB[] boxes = block instanceof BlockPotato || block instanceof BlockCarrot ? CARROT_POTATO_BOX : WHEAT_BOX;
+                INCREASED_HITBOXES.put(state, boxes[state.getValue(BlockCrops.AGE)]); // mc 1.12
+                VANILLA_HITBOXES.put(state, VANILLA_CROP_BOX);
+            }
+        }
+        for (IBlockState state : Blocks.nether_wart.getBlockState().getValidStates()) {
+            INCREASED_HITBOXES.put(state, NETHER_WART_BOX[state.getValue(BlockNetherWart.AGE)]); // mc 1.12
+            VANILLA_HITBOXES.put(state, VANILLA_CROP_BOX);
+        }
+        for (IBlockState state : Blocks.cocoa.getBlockState().getValidStates()) {
+            INCREASED_HITBOXES.put(state, cocoaBeansHitbox(state, true));
+            VANILLA_HITBOXES.put(state, cocoaBeansHitbox(state, false));
+        }
+    }
+
+    /**
+     * Returns the hitbox of a crop state relative to its block, following the increased hitbox settings,
+     * or null if the state isn't wheat, carrots, potatoes, nether wart or cocoa beans.
+     */
+    public static AxisAlignedBB getHitbox(IBlockState blockState) {
+        Block block = blockState.getBlock();
+        boolean increased;
+        if (block == Blocks.cocoa) {
+            increased = FarmHelperConfig.increasedCocoaBeans;
+        } else if (block == Blocks.nether_wart) {
+            increased = FarmHelperConfig.increasedNetherWarts;
+        } else {
+            increased = FarmHelperConfig.increasedCrops;
+        }
+        return (increased ? INCREASED_HITBOXES : VANILLA_HITBOXES).get(blockState);
     }
 
-    public static void updateWartMaxY(World world, BlockPos pos, Block block) {
-        if (FarmHelperConfig.increasedNetherWarts)
-            ((IBlockAccessor) block).setMaxY(NETHER_WART_BOX[world.getBlockState(pos).getValue(BlockNetherWart.AGE)].maxY); // mc 1.12
-        else
-            ((IBlockAccessor) block).setMaxY(0.25D); // mc 1.8.9
+    /**
+     * Same as {@code Block.collisionRayTrace}, against a hitbox from {@link #getHitbox} instead of the bounds of the block.
+     */
+    public static MovingObjectPosition collisionRayTrace(AxisAlignedBB hitbox, BlockPos pos, Vec3 start, Vec3 end) {
+        MovingObjectPosition hit = hitbox.offset(pos.getX(), pos.getY(), pos.getZ()).calculateIntercept(start, end);
+        return hit == null ? null : new MovingObjectPosition(hit.hitVec, hit.sideHit, pos);
     }
 
-    public static void updateCocoaBeansHitbox(IBlockState blockState) {
+    private static AxisAlignedBB cocoaBeansHitbox(IBlockState blockState, boolean increased) {
         EnumFacing enumFacing = blockState.getValue(BlockDirectional.FACING);
         int age = blockState.getValue(BlockCocoa.AGE);
         int j = 4 + age * 2;
         int k = 5 + age * 2;
+        float minY = (12.0f - (float) k) / 16.0f;
 
-        if (FarmHelperConfig.increasedCocoaBeans) {
+        if (increased) {
             switch (enumFacing) {
-                case SOUTH: {
-                    blockState.getBlock().setBlockBounds(0, (12.0f - (float) k) / 16.0f, (15.0f - (float) j) / 16.0f, 1, 0.75f, 0.9375f);
-                    break;
-                }
-                case NORTH: {
-                    blockState.getBlock().setBlockBounds(0, (12.0f - (float) k) / 16.0f, 0.0625f, 1, 0.75f, (1.0f + (float) j) / 16.0f);
-                    break;
-                }
-                case WEST: {
-                    blockState.getBlock().setBlockBounds(0.0625f, (12.0f - (float) k) / 16.0f, 0, (1.0f + (float) j) / 16.0f, 0.75f, 1);
-                    break;
-                }
-                case EAST: {
-                    blockState.getBlock().setBlockBounds((15.0f - (float) j) / 16.0f, (12.0f - (float) k) / 16.0f, 0, 0.9375f, 0.75f, 1);
-                }
-            }
-        } else {
-            float f = (float) j / 2.0f;
-            switch (enumFacing) {
-                case SOUTH: {
-                    blockState.getBlock().setBlockBounds((8.0f - f) / 16.0f, (12.0f - (float) k) / 16.0f, (15.0f - (float) j) / 16.0f, (8.0f + f) / 16.0f, 0.75f, 0.9375f);
-                    break;
-                }
-                case NORTH: {
-                    blockState.getBlock().setBlockBounds((8.0f - f) / 16.0f, (12.0f - (float) k) / 16.0f, 0.0625f, (8.0f + f) / 16.0f, 0.75f, (1.0f + (float) j) / 16.0f);
-                    break;
-                }
-                case WEST: {
-                    blockState.getBlock().setBlockBounds(0.0625f, (12.0f - (float) k) / 16.0f, (8.0f - f) / 16.0f, (1.0f + (float) j) / 16.0f, 0.75f, (8.0f + f) / 16.0f);
-                    break;
-                }
-                case EAST: {
-                    blockState.getBlock().setBlockBounds((15.0f - (float) j) / 16.0f, (12.0f - (float) k) / 16.0f, (8.0f - f) / 16.0f, 0.9375f, 0.75f, (8.0f + f) / 16.0f);
-                }
+                case SOUTH:
+                    return new AxisAlignedBB(0, minY, (15.0f - (float) j) / 16.0f, 1, 0.75f, 0.9375f);
+                case NORTH:
+                    return new AxisAlignedBB(0, minY, 0.0625f, 1, 0.75f, (1.0f + (float) j) / 16.0f);
+                case WEST:
+                    return new AxisAlignedBB(0.0625f, minY, 0, (1.0f + (float) j) / 16.0f, 0.75f, 1);
+                default:
+                    return new AxisAlignedBB((15.0f - (float) j) / 16.0f, minY, 0, 0.9375f, 0.75f, 1);
             }
         }
+        float f = (float) j / 2.0f;
+        switch (enumFacing) {
+            case SOUTH:
+                return new AxisAlignedBB((8.0f - f) / 16.0f, minY, (15.0f - (float) j) / 16.0f, (8.0f + f) / 16.0f, 0.75f, 0.9375f);
+            case NORTH:
+                return new AxisAlignedBB((8.0f - f) / 16.0f, minY, 0.0625f, (8.0f + f) / 16.0f, 0.75f, (1.0f + (float) j) / 16.0f);
+            case WEST:
+                return new AxisAlignedBB(0.0625f, minY, (8.0f - f) / 16.0f, (1.0f + (float) j) / 16.0f, 0.75f, (8.0f + f) / 16.0f);
+            default:
+                return new AxisAlignedBB((15.0f - (float) j) / 16.0f, minY, (8.0f - f) / 16.0f, 0.9375f, 0.75f, (8.0f + f) / 16.0f);
+        }
     }
 
     public static boolean isCrop(Block block) {
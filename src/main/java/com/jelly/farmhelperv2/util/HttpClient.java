@@ -0,0 +1,289 @@
+package com.jelly.farmhelperv2.util;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Shared entry point for every outgoing HTTP request of the mod.
+ * Requests always have connect and read timeouts, ask for gzip, and fully drain their bodies so the JDK can keep the connection alive.
+ * Each host gets a small number of concurrent requests, and conditional requests are revalidated with ETag / Last-Modified.
+ */
+public class HttpClient {
+    public static final int CONNECT_TIMEOUT = 5_000;
+    public static final int READ_TIMEOUT = 15_000;
+    private static final int MAX_REQUESTS_PER_HOST = 4;
+    private static final int MAX_CACHED_RESPONSES = 32;
+    private static HttpClient instance;
+
+    private final Map<String, Semaphore> hostLimits = new ConcurrentHashMap<>();
+    private final Map<String, CachedResponse> cache = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > MAX_CACHED_RESPONSES;
+        }
+    };
+
+    public static HttpClient getInstance() {
+        if (instance == null) {
+            instance = new HttpClient();
+        }
+        return instance;
+    }
+
+    public Request get(String url) {
+        return new Request(url, "GET", null, null);
+    }
+
+    public Request post(String url, String contentType, byte[] body) {
+        return new Request(url, "POST", contentType, body);
+    }
+
+    public interface BodyHandler<T> {
+        T handle(Response response) throws IOException;
+    }
+
+    public class Request {
+        private final String url;
+        private final String method;
+        private final String contentType;
+        private final byte[] body;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private int connectTimeout = CONNECT_TIMEOUT;
+        private int readTimeout = READ_TIMEOUT;
+        private boolean conditional = false;
+
+        private Request(String url, String method, String contentType, byte[] body) {
+            this.url = url;
+            this.method = method;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public Request header(String name, String value) {
+            if (name != null && value != null) {
+                headers.put(name, value);
+            }
+            return this;
+        }
+
+        public Request timeouts(int connectTimeout, int readTimeout) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Keeps the last body in memory and revalidates it with If-None-Match / If-Modified-Since, a 304 answer is served from memory.
+         */
+        public Request conditional() {
+            this.conditional = true;
+            return this;
+        }
+
+        /**
+         * Hands the body of a successful response to {@code handler} as a stream, any other status throws {@link HttpStatusException}.
+         */
+        public <T> T stream(BodyHandler<T> handler) throws IOException {
+            return exchange(response -> {
+                if (!response.isSuccessful()) {
+                    throw new HttpStatusException(response.getStatus(), url, response.string());
+                }
+                return handler.handle(response);
+            });
+        }
+
+        public String string() throws IOException {
+            return stream(Response::string);
+        }
+
+        /**
+         * Sends the request and discards the body, throws {@link HttpStatusException} if it wasn't successful.
+         */
+        public void send() throws IOException {
+            stream(response -> null);
+        }
+
+        /**
+         * Returns the buffered response whatever its status is.
+         */
+        public Response execute() throws IOException {
+            return exchange(response -> new Response(response.status, response.connection, new ByteArrayInputStream(response.bytes())));
+        }
+
+        private <T> T exchange(BodyHandler<T> handler) throws IOException {
+            URL target = new URL(url);
+            Semaphore limit = hostLimits.computeIfAbsent(target.getHost(), host -> new Semaphore(MAX_REQUESTS_PER_HOST));
+            try {
+                if (!limit.tryAcquire(connectTimeout, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Too many pending requests to " + target.getHost());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + target.getHost());
+            }
+            try {
+                return open(target, handler);
+            } finally {
+                limit.release();
+            }
+        }
+
+        private <T> T open(URL target, BodyHandler<T> handler) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) target.openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            headers.forEach(connection::setRequestProperty);
+
+            CachedResponse cached = null;
+            if (conditional) {
+                synchronized (cache) {
+                    cached = cache.get(url);
+                }
+                if (cached != null) {
+                    if (cached.etag != null) connection.setRequestProperty("If-None-Match", cached.etag);
+                    if (cached.lastModified != null) connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+                }
+            }
+
+            if (body != null) {
+                connection.setDoOutput(true);
+                if (contentType != null) connection.setRequestProperty("Content-Type", contentType);
+                connection.setFixedLengthStreamingMode(body.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            InputStream raw = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (raw == null) raw = new ByteArrayInputStream(new byte[0]);
+            try (InputStream in = "gzip".equalsIgnoreCase(connection.getContentEncoding()) ? new GZIPInputStream(raw) : raw) {
+                if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                    return handler.handle(new Response(HttpURLConnection.HTTP_OK, connection, new ByteArrayInputStream(cached.body)));
+                }
+                String etag = connection.getHeaderField("ETag");
+                String lastModified = connection.getHeaderField("Last-Modified");
+                if (conditional && status == HttpURLConnection.HTTP_OK && (etag != null || lastModified != null)) {
+                    byte[] bytes = readAll(in);
+                    synchronized (cache) {
+                        cache.put(url, new CachedResponse(etag, lastModified, bytes));
+                    }
+                    return handler.handle(new Response(status, connection, new ByteArrayInputStream(bytes)));
+                }
+                try {
+                    return handler.handle(new Response(status, connection, in));
+                } finally {
+                    // Reading to the end is what lets the connection go back to the keep-alive pool
+                    drain(in);
+                }
+            }
+        }
+    }
+
+    public static class Response {
+        private final int status;
+        private final HttpURLConnection connection;
+        private final InputStream body;
+
+        private Response(int status, HttpURLConnection connection, InputStream body) {
+            this.status = status;
+            this.connection = connection;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        public String getHeader(String name) {
+            return connection.getHeaderField(name);
+        }
+
+        /**
+         * Decompressed length is unknown for gzip bodies, -1 is returned then.
+         */
+        public long getContentLength() {
+            return connection.getContentEncoding() == null ? connection.getContentLengthLong() : -1;
+        }
+
+        public InputStream body() {
+            return body;
+        }
+
+        public Reader reader() {
+            return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        }
+
+        public byte[] bytes() throws IOException {
+            return readAll(body);
+        }
+
+        public String string() throws IOException {
+            return new String(bytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public static class HttpStatusException extends IOException {
+        private final int status;
+        private final String body;
+
+        public HttpStatusException(int status, String url, String body) {
+            super("HTTP " + status + " from " + url);
+            this.status = status;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+
+    private static class CachedResponse {
+        private final String etag;
+        private final String lastModified;
+        private final byte[] body;
+
+        private CachedResponse(String etag, String lastModified, byte[] body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read; (read = in.read(buffer)) != -1; ) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void drain(InputStream in) {
+        try {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // discard
+            }
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.jelly.farmhelperv2.util;
 
-import cc.polyfrost.oneconfig.utils.Multithreading;
 import cc.polyfrost.oneconfig.utils.Notifications;
 import com.jelly.farmhelperv2.config.FarmHelperConfig;
 import com.jelly.farmhelperv2.config.struct.DiscordWebhook;
@@ -8,20 +7,19 @@ import com.jelly.farmhelperv2.feature.impl.BanInfoWS;
 import com.jelly.farmhelperv2.feature.impl.ProfitCalculator;
 import com.jelly.farmhelperv2.handler.GameStateHandler;
 import com.jelly.farmhelperv2.handler.MacroHandler;
+import com.jelly.farmhelperv2.util.helper.WebhookDispatcher;
 import net.minecraft.client.Minecraft;
 import net.minecraft.util.ChatComponentText;
 import net.minecraft.util.StringUtils;
 import net.minecraft.util.Tuple;
 
 import java.awt.*;
-import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 public class LogUtils {
     private static final Minecraft mc = Minecraft.getMinecraft();
     private static String lastDebugMessage;
     private static long statusMsgTime = -1;
-    private static int retries = 0;
 
     public synchronized static void sendLog(ChatComponentText chat) {
         if (mc.thePlayer != null && !FarmHelperConfig.streamerMode)
@@ -139,13 +137,7 @@ public class LogUtils {
                     .addField("Staff Bans", String.valueOf(BanInfoWS.getInstance().getStaffBans()), true)
                     .addField("Detected by FH", String.valueOf(BanInfoWS.getInstance().getBansByMod()), true)
             );
-            Multithreading.schedule(() -> {
-                try {
-                    webhook.execute();
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }, 0, TimeUnit.MILLISECONDS);
+            WebhookDispatcher.getInstance().enqueue(webhook);
             statusMsgTime = System.currentTimeMillis();
         }
     }
@@ -176,9 +168,8 @@ public class LogUtils {
         for (Tuple<String, String> field : fields) {
             embedObject.addField(field.getFirst(), field.getSecond(), false);
         }
-        retries = 0;
         webhook.addEmbed(embedObject);
-        sendWebhook(webhook);
+        WebhookDispatcher.getInstance().enqueue(webhook);
     }
 
     @SafeVarargs
@@ -198,27 +189,7 @@ public class LogUtils {
         for (Tuple<String, String> field : fields) {
             embedObject.addField(field.getFirst(), field.getSecond(), false);
         }
-        retries = 0;
         webhook.addEmbed(embedObject);
-        sendWebhook(webhook);
-    }
-
-    private static void sendWebhook(DiscordWebhook webhook) {
-        Multithreading.schedule(() -> {
-            try {
-                webhook.execute();
-            } catch (IOException e) {
-                if (retries >= 3) {
-                    sendError("[Webhook Log] Error: " + e.getMessage());
-                    retries = 0;
-                    return;
-                }
-                retries++;
-                sendDebug("[Webhook Log] Retrying sending a webhook message...");
-                sendWebhook(webhook);
-                e.printStackTrace();
-                throw new RuntimeException(e);
-            }
-        }, (retries == 0 ? 0 : 1000), TimeUnit.MILLISECONDS);
+        WebhookDispatcher.getInstance().enqueue(webhook);
     }
 }
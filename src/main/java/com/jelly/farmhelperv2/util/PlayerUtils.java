@@ -6,6 +6,7 @@ import com.jelly.farmhelperv2.config.struct.Rewarp;
 import com.jelly.farmhelperv2.failsafe.FailsafeManager;
 import com.jelly.farmhelperv2.handler.MacroHandler;
 import com.jelly.farmhelperv2.util.helper.Clock;
+import com.jelly.farmhelperv2.util.helper.CropIndex;
 import com.jelly.farmhelperv2.util.AngleUtils;
 import com.jelly.farmhelperv2.handler.GameStateHandler;
 import net.minecraft.block.*;
@@ -15,7 +16,6 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.*;
-import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Collections;
 import java.util.Comparator;
@@ -47,71 +47,47 @@ public class PlayerUtils {
     }
 
     public static FarmHelperConfig.CropEnum getFarmingCrop() {
-        Pair<Block, BlockPos> closestCrop = null;
-        boolean foundCropUnderMouse = false;
+        if (mc.theWorld == null) return FarmHelperConfig.CropEnum.NONE;
+        CropIndex cropIndex = CropIndex.getInstance();
+        FarmHelperConfig.CropEnum closestCrop = FarmHelperConfig.CropEnum.NONE;
         if (mc.objectMouseOver != null && mc.objectMouseOver.typeOfHit == MovingObjectPosition.MovingObjectType.BLOCK) {
-            BlockPos pos = mc.objectMouseOver.getBlockPos();
-            if (mc.theWorld == null) return FarmHelperConfig.CropEnum.NONE;
-            if (mc.theWorld.getBlockState(pos) == null) return FarmHelperConfig.CropEnum.NONE;
-            Block block = mc.theWorld.getBlockState(pos).getBlock();
-            if (block instanceof BlockCrops || block instanceof BlockReed || block instanceof BlockCocoa || block instanceof BlockNetherWart || block instanceof BlockMelon || block instanceof BlockPumpkin || block instanceof BlockMushroom || block instanceof BlockCactus) {
-                closestCrop = Pair.of(block, pos);
-                foundCropUnderMouse = true;
-            }
+            closestCrop = cropIndex.getCrop(mc.objectMouseOver.getBlockPos());
         }
 
-        if (!foundCropUnderMouse) {
+        if (closestCrop == FarmHelperConfig.CropEnum.NONE) {
+            float yaw;
+            if (MacroHandler.getInstance().getCurrentMacro().isPresent()) {
+                yaw = MacroHandler.getInstance().getCurrentMacro().get().getClosest90Deg().orElse(AngleUtils.getClosest());
+            } else {
+                if (FarmHelperConfig.getMacro() == FarmHelperConfig.MacroEnum.S_MUSHROOM || FarmHelperConfig.getMacro() == FarmHelperConfig.MacroEnum.S_SUGAR_CANE) {
+                    yaw = AngleUtils.getClosestDiagonal();
+                } else {
+                    yaw = AngleUtils.getClosest();
+                }
+            }
+            double closestDistance = Double.MAX_VALUE;
             for (int x = -3; x < 3; x++) {
                 for (int y = -1; y < 5; y++) {
                     for (int z = 0; z < 3; z++) {
-                        float yaw;
-                        if (MacroHandler.getInstance().getCurrentMacro().isPresent()) {
-                            yaw = MacroHandler.getInstance().getCurrentMacro().get().getClosest90Deg().orElse(AngleUtils.getClosest());
-                        } else {
-                            if (FarmHelperConfig.getMacro() == FarmHelperConfig.MacroEnum.S_MUSHROOM || FarmHelperConfig.getMacro() == FarmHelperConfig.MacroEnum.S_SUGAR_CANE) {
-                                yaw = AngleUtils.getClosestDiagonal();
-                            } else {
-                                yaw = AngleUtils.getClosest();
-                            }
-                        }
                         BlockPos pos = BlockUtils.getRelativeBlockPos(x, y, z, yaw);
-                        Block block = mc.theWorld.getBlockState(pos).getBlock();
-                        if (!(block instanceof BlockCrops || block instanceof BlockReed || block instanceof BlockCocoa || block instanceof BlockNetherWart || block instanceof BlockMelon || block instanceof BlockPumpkin || block instanceof BlockMushroom || block instanceof BlockCactus))
-                            continue;
-
-                        if (closestCrop == null || mc.thePlayer.getPositionVector().distanceTo(new Vec3(pos.getX() + 0.5f, pos.getY(), pos.getZ() + 0.5f)) < mc.thePlayer.getPositionVector().distanceTo(new Vec3(closestCrop.getRight().getX() + 0.5f, closestCrop.getRight().getY(), closestCrop.getRight().getZ() + 0.5f))) {
-                            closestCrop = Pair.of(block, pos);
+                        FarmHelperConfig.CropEnum crop = cropIndex.getCrop(pos);
+                        if (crop == FarmHelperConfig.CropEnum.NONE) continue;
+
+                        double dx = pos.getX() + 0.5f - mc.thePlayer.posX;
+                        double dy = pos.getY() - mc.thePlayer.posY;
+                        double dz = pos.getZ() + 0.5f - mc.thePlayer.posZ;
+                        double distance = dx * dx + dy * dy + dz * dz;
+                        if (distance < closestDistance) {
+                            closestDistance = distance;
+                            closestCrop = crop;
                         }
                     }
                 }
             }
         }
 
-        if (closestCrop != null) {
-            Block left = closestCrop.getLeft();
-            if (left.equals(Blocks.wheat)) {
-                return FarmHelperConfig.CropEnum.WHEAT;
-            } else if (left.equals(Blocks.carrots)) {
-                return FarmHelperConfig.CropEnum.CARROT;
-            } else if (left.equals(Blocks.potatoes)) {
-                return FarmHelperConfig.CropEnum.POTATO;
-            } else if (left.equals(Blocks.nether_wart)) {
-                return FarmHelperConfig.CropEnum.NETHER_WART;
-            } else if (left.equals(Blocks.reeds)) {
-                return FarmHelperConfig.CropEnum.SUGAR_CANE;
-            } else if (left.equals(Blocks.cocoa)) {
-                return FarmHelperConfig.CropEnum.COCOA_BEANS;
-            } else if (left.equals(Blocks.melon_block)) {
-                return FarmHelperConfig.CropEnum.MELON;
-            } else if (left.equals(Blocks.pumpkin)) {
-                return FarmHelperConfig.CropEnum.PUMPKIN;
-            } else if (left.equals(Blocks.red_mushroom)) {
-                return FarmHelperConfig.CropEnum.MUSHROOM;
-            } else if (left.equals(Blocks.brown_mushroom)) {
-                return FarmHelperConfig.CropEnum.MUSHROOM;
-            } else if (left.equals(Blocks.cactus)) {
-                return FarmHelperConfig.CropEnum.CACTUS;
-            }
+        if (closestCrop != FarmHelperConfig.CropEnum.NONE) {
+            return closestCrop;
         }
         LogUtils.sendError("Can't detect crop type! Lower average BPS failsafe will be disabled!");
         return FarmHelperConfig.CropEnum.NONE;
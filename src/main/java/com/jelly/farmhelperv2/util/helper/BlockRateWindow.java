@@ -0,0 +1,139 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of (blocks broken, timestamp) samples stored in primitive ring buffers with a running sum.
+ * Timestamps are stored relative to a shift, so a pause can move the whole window forward in O(1).
+ */
+public class BlockRateWindow {
+    private static final double EMA_TIME_CONSTANT = 3_000d;
+    private final long[] counts;
+    private final long[] timestamps;
+    private final long windowMillis;
+    private final double[] bucketScratch;
+    private int head = 0;
+    private int size = 0;
+    private long sum = 0;
+    private long shift = 0;
+    private double ema = 0;
+
+    public BlockRateWindow(int capacity, long windowMillis) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("The capacity must be at least 2");
+        }
+        this.counts = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.windowMillis = windowMillis;
+        this.bucketScratch = new double[(int) (windowMillis / 1_000) + 2];
+    }
+
+    public synchronized void add(long blocks, long timestamp) {
+        if (size > 0) {
+            long dt = timestamp - getLastTimestamp();
+            if (dt > 0) {
+                double rate = blocks * 1_000d / dt;
+                if (size == 1) {
+                    // Seeded with the first rate, so the average doesn't start from zero at every start
+                    ema = rate;
+                } else {
+                    double alpha = 1 - Math.exp(-dt / EMA_TIME_CONSTANT);
+                    ema += alpha * (rate - ema);
+                }
+            }
+        }
+        if (size == counts.length) {
+            evictFirst();
+        }
+        int index = (head + size) % counts.length;
+        counts[index] = blocks;
+        timestamps[index] = timestamp - shift;
+        sum += blocks;
+        size++;
+        while (size > 1 && timestamp - getFirstTimestamp() > windowMillis) {
+            evictFirst();
+        }
+    }
+
+    /**
+     * Moves every stored sample forward in time, used to hide a pause from the rate calculation.
+     */
+    public synchronized void shiftTimestamps(long millis) {
+        shift += millis;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+        sum = 0;
+        shift = 0;
+        ema = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getFirstTimestamp() {
+        return timestamps[head] + shift;
+    }
+
+    public synchronized long getLastTimestamp() {
+        return timestamps[(head + size - 1) % counts.length] + shift;
+    }
+
+    /**
+     * Blocks broken between the first and the last sample, the first sample only marks the start of the window.
+     */
+    public synchronized long getBlocksInWindow() {
+        if (size < 2) return 0;
+        return sum - counts[head];
+    }
+
+    public synchronized float getElapsedSeconds() {
+        if (size < 2) return 0;
+        return (getLastTimestamp() - getFirstTimestamp()) / 1000f;
+    }
+
+    public synchronized float getRate() {
+        float elapsed = getElapsedSeconds();
+        if (elapsed <= 0) return 0;
+        return getBlocksInWindow() / elapsed;
+    }
+
+    /**
+     * Exponential moving average of the rate, decayed towards zero for the time since the last sample, so it drops when nothing is broken anymore.
+     */
+    public synchronized float getEma(long now) {
+        if (size == 0) return 0;
+        long idle = now - getLastTimestamp();
+        if (idle <= 0) return (float) ema;
+        return (float) (ema * Math.exp(-idle / EMA_TIME_CONSTANT));
+    }
+
+    /**
+     * Percentile of the per second rates inside the window, {@code percentile} is in the 0 - 100 range.
+     */
+    public synchronized float getPercentile(double percentile) {
+        if (size < 2) return 0;
+        long start = getFirstTimestamp();
+        int buckets = Math.min((int) ((getLastTimestamp() - start) / 1_000) + 1, bucketScratch.length);
+        Arrays.fill(bucketScratch, 0, buckets, 0);
+        for (int i = 1; i < size; i++) {
+            int index = (head + i) % counts.length;
+            int bucket = (int) Math.min((timestamps[index] + shift - start) / 1_000, buckets - 1);
+            bucketScratch[bucket] += counts[index];
+        }
+        // The last bucket is usually partial, leave it out unless it's the only one
+        int full = buckets > 1 ? buckets - 1 : 1;
+        Arrays.sort(bucketScratch, 0, full);
+        int rank = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100d * full) - 1;
+        return (float) bucketScratch[Math.max(rank, 0)];
+    }
+
+    private void evictFirst() {
+        sum -= counts[head];
+        head = (head + 1) % counts.length;
+        size--;
+    }
+}
@@ -0,0 +1,331 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import com.jelly.farmhelperv2.config.FarmHelperConfig;
+import com.jelly.farmhelperv2.event.BlockChangeEvent;
+import com.jelly.farmhelperv2.event.ChunkServerLoadEvent;
+import net.minecraft.block.*;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Type and age of every crop in the loaded chunks, one byte per block in the chunk sections that have crops.
+ * Chunks are indexed when the server sends them and kept up to date from block changes, so crop questions
+ * are answered without reading the world. Sections also count their ready crops, areas without any are skipped whole.
+ * Only used from the client thread.
+ */
+public class CropIndex {
+    private static final Minecraft mc = Minecraft.getMinecraft();
+    private static final FarmHelperConfig.CropEnum[] CROPS = FarmHelperConfig.CropEnum.values();
+    // A cell is the crop type in the low 4 bits (a CropEnum ordinal, or HUGE_MUSHROOM), the age in the next 3 and whether it's ready in the top one
+    private static final int TYPE_MASK = 0x0F;
+    private static final int AGE_SHIFT = 4;
+    private static final int READY = 0x80;
+    // Not a crop, but the desync checker looks at them
+    private static final int HUGE_MUSHROOM = 0x0F;
+    private static CropIndex instance;
+
+    private final Map<Long, Section> sections = new HashMap<>();
+    private final Set<Long> capturedChunks = new HashSet<>();
+    // Indexed by block state id, 0 for states that aren't crops
+    private final byte[] stateCells = new byte[1 << 16];
+    private final boolean[] stateClassified = new boolean[1 << 16];
+    private long lastSectionKey = Long.MIN_VALUE;
+    private Section lastSection;
+
+    public static CropIndex getInstance() {
+        if (instance == null) {
+            instance = new CropIndex();
+        }
+        return instance;
+    }
+
+    public FarmHelperConfig.CropEnum getCrop(BlockPos pos) {
+        return getCrop(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Returns the crop at the block, or NONE if there isn't one.
+     */
+    public FarmHelperConfig.CropEnum getCrop(int x, int y, int z) {
+        int type = getCell(x, y, z) & TYPE_MASK;
+        return type == HUGE_MUSHROOM ? FarmHelperConfig.CropEnum.NONE : CROPS[type];
+    }
+
+    /**
+     * Returns true if the block is a crop or a huge mushroom block, anything that is indexed.
+     */
+    public boolean isIndexed(BlockPos pos) {
+        return getCell(pos.getX(), pos.getY(), pos.getZ()) != 0;
+    }
+
+    public int getAge(int x, int y, int z) {
+        return (getCell(x, y, z) >> AGE_SHIFT) & 7;
+    }
+
+    public boolean isReady(BlockPos pos) {
+        return isReady(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Same rules as {@code CropUtils.isCropReady}: fully grown crops, wart and cocoa, and every melon, pumpkin, cactus, cane and mushroom.
+     */
+    public boolean isReady(int x, int y, int z) {
+        return (getCell(x, y, z) & READY) != 0;
+    }
+
+    /**
+     * Counts the ready crops in a box, minimum corner included and maximum corner excluded.
+     */
+    public int countReady(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        int count = 0;
+        minY = Math.max(minY, 0);
+        maxY = Math.min(maxY, 256);
+        for (int chunkX = minX >> 4; chunkX <= (maxX - 1) >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= (maxZ - 1) >> 4; chunkZ++) {
+                for (int sectionY = minY >> 4; sectionY <= (maxY - 1) >> 4; sectionY++) {
+                    Section section = getSection(chunkX, sectionY, chunkZ);
+                    if (section == null || section.ready == 0) continue;
+                    int fromX = Math.max(minX, chunkX << 4);
+                    int fromY = Math.max(minY, sectionY << 4);
+                    int fromZ = Math.max(minZ, chunkZ << 4);
+                    int toX = Math.min(maxX, (chunkX << 4) + 16);
+                    int toY = Math.min(maxY, (sectionY << 4) + 16);
+                    int toZ = Math.min(maxZ, (chunkZ << 4) + 16);
+                    if (toX - fromX == 16 && toY - fromY == 16 && toZ - fromZ == 16) {
+                        count += section.ready;
+                        continue;
+                    }
+                    for (int y = fromY; y < toY; y++) {
+                        for (int z = fromZ; z < toZ; z++) {
+                            for (int x = fromX; x < toX; x++) {
+                                if ((section.cells[index(x, y, z)] & READY) != 0) count++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the ready crops in the cube of {@code 2 * radius + 1} blocks around a position.
+     */
+    public int countReadyWithin(BlockPos center, int radius) {
+        return countReady(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius + 1, center.getY() + radius + 1, center.getZ() + radius + 1);
+    }
+
+    /**
+     * Fraction of the positions that still hold a crop the macro would break, 0 for no positions.
+     * Pumpkins and melons count whatever their stem looks like, mushrooms are the huge mushroom blocks.
+     */
+    public float getReadyFraction(Collection<BlockPos> positions, FarmHelperConfig.CropEnum crop) {
+        if (positions.isEmpty()) return 0;
+        int count = 0;
+        for (BlockPos pos : positions) {
+            int cell = getCell(pos.getX(), pos.getY(), pos.getZ());
+            int type = cell & TYPE_MASK;
+            boolean ready = (cell & READY) != 0;
+            switch (crop) {
+                case MELON:
+                case PUMPKIN:
+                    if (type == FarmHelperConfig.CropEnum.MELON.ordinal() || type == FarmHelperConfig.CropEnum.PUMPKIN.ordinal()) count++;
+                    break;
+                case MUSHROOM:
+                    if (type == HUGE_MUSHROOM) count++;
+                    break;
+                case CARROT:
+                case POTATO:
+                case WHEAT:
+                    if (ready && (type == FarmHelperConfig.CropEnum.CARROT.ordinal() || type == FarmHelperConfig.CropEnum.POTATO.ordinal() || type == FarmHelperConfig.CropEnum.WHEAT.ordinal())) count++;
+                    break;
+                default:
+                    if (ready && type == crop.ordinal()) count++;
+            }
+        }
+        return count / (float) positions.size();
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkServerLoadEvent event) {
+        capture(event.getChunk());
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (!event.world.isRemote) return;
+        Chunk chunk = event.getChunk();
+        if (!capturedChunks.remove(chunkKey(chunk.xPosition, chunk.zPosition))) return;
+        for (int sectionY = 0; sectionY < 16; sectionY++) {
+            sections.remove(sectionKey(chunk.xPosition, sectionY, chunk.zPosition));
+        }
+        lastSection = null;
+        lastSectionKey = Long.MIN_VALUE;
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        sections.clear();
+        capturedChunks.clear();
+        lastSection = null;
+        lastSectionKey = Long.MIN_VALUE;
+    }
+
+    /**
+     * Only changes from or to a crop in an indexed chunk can change the index.
+     */
+    public boolean isTracked(World world, int x, int y, int z, IBlockState old, IBlockState update) {
+        if (y < 0 || y > 255 || !capturedChunks.contains(chunkKey(x >> 4, z >> 4))) return false;
+        return cellOf((char) Block.getStateId(old)) != 0 || cellOf((char) Block.getStateId(update)) != 0;
+    }
+
+    public void onBlockChanges(List<BlockChangeEvent> changes) {
+        for (BlockChangeEvent event : changes) {
+            BlockPos pos = event.pos;
+            int chunkX = pos.getX() >> 4;
+            int chunkZ = pos.getZ() >> 4;
+            byte cell = cellOf(event.update);
+            Section section = getSection(chunkX, pos.getY() >> 4, chunkZ);
+            if (section == null) {
+                if (cell == 0) continue;
+                section = new Section();
+                sections.put(sectionKey(chunkX, pos.getY() >> 4, chunkZ), section);
+                lastSection = null;
+                lastSectionKey = Long.MIN_VALUE;
+            }
+            section.set(index(pos.getX(), pos.getY(), pos.getZ()), cell);
+        }
+    }
+
+    private int getCell(int x, int y, int z) {
+        if (y < 0 || y > 255) return 0;
+        Section section = getSection(x >> 4, y >> 4, z >> 4);
+        return section == null ? 0 : section.cells[index(x, y, z)];
+    }
+
+    /**
+     * Returns the section, or null if it has no crops. Chunks that were loaded before the index was are indexed on the way.
+     */
+    private Section getSection(int chunkX, int sectionY, int chunkZ) {
+        long key = sectionKey(chunkX, sectionY, chunkZ);
+        if (key == lastSectionKey) return lastSection;
+        if (!capturedChunks.contains(chunkKey(chunkX, chunkZ)) && mc.theWorld != null) {
+            // The client hands out a shared empty chunk at 0, 0 for chunks it doesn't have
+            Chunk chunk = mc.theWorld.getChunkFromChunkCoords(chunkX, chunkZ);
+            if (!chunk.isEmpty()) {
+                capture(chunk);
+            }
+        }
+        lastSectionKey = key;
+        lastSection = sections.get(key);
+        return lastSection;
+    }
+
+    private void capture(Chunk chunk) {
+        ExtendedBlockStorage[] storages = chunk.getBlockStorageArray();
+        for (int sectionY = 0; sectionY < 16; sectionY++) {
+            long key = sectionKey(chunk.xPosition, sectionY, chunk.zPosition);
+            sections.remove(key);
+            ExtendedBlockStorage storage = storages[sectionY];
+            if (storage == null || storage.isEmpty()) continue;
+            char[] data = storage.getData();
+            Section section = null;
+            // index is y << 8 | z << 4 | x, the same layout the section data uses
+            for (int index = 0; index < 4096; index++) {
+                byte cell = cellOf(data[index]);
+                if (cell == 0) continue;
+                if (section == null) {
+                    section = new Section();
+                    sections.put(key, section);
+                }
+                section.set(index, cell);
+            }
+        }
+        capturedChunks.add(chunkKey(chunk.xPosition, chunk.zPosition));
+        lastSection = null;
+        lastSectionKey = Long.MIN_VALUE;
+    }
+
+    private byte cellOf(char stateId) {
+        if (!stateClassified[stateId]) {
+            IBlockState state = Block.BLOCK_STATE_IDS.getByValue(stateId);
+            stateCells[stateId] = state == null ? 0 : cellOf(state);
+            stateClassified[stateId] = true;
+        }
+        return stateCells[stateId];
+    }
+
+    private static byte cellOf(IBlockState state) {
+        Block block = state.getBlock();
+        FarmHelperConfig.CropEnum crop;
+        int age = 0;
+        boolean ready = true;
+        if (block == Blocks.wheat || block == Blocks.carrots || block == Blocks.potatoes) {
+            crop = block == Blocks.wheat ? FarmHelperConfig.CropEnum.WHEAT : block == Blocks.carrots ? FarmHelperConfig.CropEnum.CARROT : FarmHelperConfig.CropEnum.POTATO;
+            age = state.getValue(BlockCrops.AGE);
+            ready = age == 7;
+        } else if (block == Blocks.nether_wart) {
+            crop = FarmHelperConfig.CropEnum.NETHER_WART;
+            age = state.getValue(BlockNetherWart.AGE);
+            ready = age == 3;
+        } else if (block == Blocks.cocoa) {
+            crop = FarmHelperConfig.CropEnum.COCOA_BEANS;
+            age = state.getValue(BlockCocoa.AGE);
+            ready = age == 2;
+        } else if (block == Blocks.reeds) {
+            crop = FarmHelperConfig.CropEnum.SUGAR_CANE;
+        } else if (block == Blocks.cactus) {
+            crop = FarmHelperConfig.CropEnum.CACTUS;
+        } else if (block == Blocks.melon_block) {
+            crop = FarmHelperConfig.CropEnum.MELON;
+        } else if (block == Blocks.pumpkin) {
+            crop = FarmHelperConfig.CropEnum.PUMPKIN;
+        } else if (block == Blocks.red_mushroom || block == Blocks.brown_mushroom) {
+            crop = FarmHelperConfig.CropEnum.MUSHROOM;
+        } else if (block == Blocks.red_mushroom_block || block == Blocks.brown_mushroom_block) {
+            return HUGE_MUSHROOM;
+        } else {
+            return 0;
+        }
+        return (byte) (crop.ordinal() | age << AGE_SHIFT | (ready ? READY : 0));
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+    }
+
+    private static long sectionKey(int chunkX, int sectionY, int chunkZ) {
+        return ((long) chunkX & 0x3FFFFFF) << 38 | ((long) chunkZ & 0x3FFFFFF) << 12 | sectionY;
+    }
+
+    private static class Section {
+        private final byte[] cells = new byte[4096];
+        private int ready = 0;
+
+        private void set(int index, byte cell) {
+            if ((cells[index] & READY) != 0) ready--;
+            if ((cell & READY) != 0) ready++;
+            cells[index] = cell;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import com.jelly.farmhelperv2.event.BlockChangeEvent;
+import com.jelly.farmhelperv2.util.BlockUtils;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.BlockPos;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The 7x7x7 blocks around the player, read once per tick into a flat array the first time any of them is asked for.
+ * The walkability checks and the macros ask for the same handful of blocks several times a tick, those all become array reads.
+ * Blocks are stored by absolute position, so lookups stay right when the player moves during the tick, and block changes
+ * inside the window are written into it. Anything outside of it, or asked for from another thread, is read from the world.
+ */
+public class PlayerBlockWindow {
+    private static final Minecraft mc = Minecraft.getMinecraft();
+    private static final int RADIUS = 3;
+    private static final int SIZE = RADIUS * 2 + 1;
+    private static final byte UNKNOWN = 0;
+    private static final byte GROUND = 1;
+    private static final byte NO_GROUND = 2;
+    // World x and z steps of one block forward and one block to the right, indexed by yawClass
+    private static final int[] FORWARD_X = new int[9];
+    private static final int[] FORWARD_Z = new int[9];
+    private static final int[] RIGHT_X = new int[9];
+    private static final int[] RIGHT_Z = new int[9];
+    private static PlayerBlockWindow instance;
+
+    static {
+        for (int unitX = -1; unitX <= 1; unitX++) {
+            for (int unitZ = -1; unitZ <= 1; unitZ++) {
+                // Same rotation BlockUtils.getRelativeBlockPos applies
+                int yawClass = (unitX + 1) * 3 + unitZ + 1;
+                FORWARD_X[yawClass] = unitX;
+                FORWARD_Z[yawClass] = unitZ;
+                RIGHT_X[yawClass] = -unitZ;
+                RIGHT_Z[yawClass] = unitX;
+            }
+        }
+    }
+
+    private final IBlockState[] states = new IBlockState[SIZE * SIZE * SIZE];
+    // Whether each column has a block that isn't air below the window, down to groundMinY
+    private final byte[] ground = new byte[SIZE * SIZE];
+    private int groundMinY = -1;
+    private World world;
+    private int minX;
+    private int minY;
+    private int minZ;
+    private boolean captured = false;
+
+    public static PlayerBlockWindow getInstance() {
+        if (instance == null) {
+            instance = new PlayerBlockWindow();
+        }
+        return instance;
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onTick(TickEvent.ClientTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            captured = false;
+        }
+    }
+
+    /**
+     * Only changes inside the window matter, and only once it was read this tick.
+     */
+    public boolean isInWindow(World world, int x, int y, int z, IBlockState old, IBlockState update) {
+        return captured && world == this.world && column(x, z) >= 0;
+    }
+
+    public void onBlockChanges(List<BlockChangeEvent> changes) {
+        for (BlockChangeEvent event : changes) {
+            BlockPos pos = event.pos;
+            int index = index(pos.getX(), pos.getY(), pos.getZ());
+            if (index >= 0) {
+                states[index] = event.update;
+            }
+            int column = column(pos.getX(), pos.getZ());
+            if (column >= 0) {
+                ground[column] = UNKNOWN;
+            }
+        }
+    }
+
+    public IBlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public IBlockState getBlockState(int x, int y, int z) {
+        if (!usable()) return mc.theWorld.getBlockState(new BlockPos(x, y, z));
+        ensureCaptured();
+        int index = index(x, y, z);
+        if (index >= 0) return states[index];
+        return mc.theWorld.getBlockState(new BlockPos(x, y, z));
+    }
+
+    /**
+     * Same block as {@code BlockUtils.getRelativeBlockPos(x, y, z, yaw)} points at, without creating the position.
+     */
+    public IBlockState getRelativeBlockState(int x, int y, int z, float yaw) {
+        int yawClass = yawClass(yaw);
+        return getBlockState(
+                originX() + FORWARD_X[yawClass] * z + RIGHT_X[yawClass] * x,
+                originY() + y,
+                originZ() + FORWARD_Z[yawClass] * z + RIGHT_Z[yawClass] * x
+        );
+    }
+
+    /**
+     * Returns true if any block from {@code y} down to {@code minY} in the column isn't air.
+     */
+    public boolean hasBlockBelow(int x, int y, int z, int minY) {
+        if (!usable()) return scanColumn(x, y, z, minY);
+        ensureCaptured();
+        int column = column(x, z);
+        if (column < 0 || y < this.minY || y >= this.minY + SIZE) return scanColumn(x, y, z, minY);
+        for (; y >= this.minY; y--) {
+            if (y < minY) return false;
+            if (states[index(x, y, z)].getBlock() != Blocks.air) return true;
+        }
+        if (y < minY) return false;
+        // The rest of the column is below the window, it's read once per tick and kept
+        if (minY != groundMinY) {
+            Arrays.fill(ground, UNKNOWN);
+            groundMinY = minY;
+        }
+        if (ground[column] == UNKNOWN) {
+            ground[column] = scanColumn(x, y, z, minY) ? GROUND : NO_GROUND;
+        }
+        return ground[column] == GROUND;
+    }
+
+    // The window isn't synchronized, packet handlers on the Netty thread read the world instead
+    private static boolean usable() {
+        return mc.thePlayer != null && mc.isCallingFromMinecraftThread();
+    }
+
+    private void ensureCaptured() {
+        if (captured && world == mc.theWorld) return;
+        world = mc.theWorld;
+        minX = originX() - RADIUS;
+        minY = originY() - RADIUS;
+        minZ = originZ() - RADIUS;
+        for (int dx = 0; dx < SIZE; dx++) {
+            for (int dz = 0; dz < SIZE; dz++) {
+                int x = minX + dx;
+                int z = minZ + dz;
+                Chunk chunk = world.getChunkFromChunkCoords(x >> 4, z >> 4);
+                ExtendedBlockStorage[] storages = chunk.getBlockStorageArray();
+                for (int dy = 0; dy < SIZE; dy++) {
+                    int y = minY + dy;
+                    IBlockState state = null;
+                    if (y >= 0 && y >> 4 < storages.length && storages[y >> 4] != null) {
+                        state = storages[y >> 4].get(x & 15, y & 15, z & 15);
+                    }
+                    states[(dx * SIZE + dz) * SIZE + dy] = state != null ? state : Blocks.air.getDefaultState();
+                }
+            }
+        }
+        Arrays.fill(ground, UNKNOWN);
+        captured = true;
+    }
+
+    private static boolean scanColumn(int x, int y, int z, int minY) {
+        for (; y >= minY; y--) {
+            if (mc.theWorld.getBlockState(new BlockPos(x, y, z)).getBlock() != Blocks.air) return true;
+        }
+        return false;
+    }
+
+    private int index(int x, int y, int z) {
+        int dx = x - minX;
+        int dy = y - minY;
+        int dz = z - minZ;
+        if (dx < 0 || dx >= SIZE || dy < 0 || dy >= SIZE || dz < 0 || dz >= SIZE) return -1;
+        return (dx * SIZE + dz) * SIZE + dy;
+    }
+
+    private int column(int x, int z) {
+        int dx = x - minX;
+        int dz = z - minZ;
+        if (dx < 0 || dx >= SIZE || dz < 0 || dz >= SIZE) return -1;
+        return dx * SIZE + dz;
+    }
+
+    private static int yawClass(float yaw) {
+        return ((int) BlockUtils.getUnitX(yaw) + 1) * 3 + (int) BlockUtils.getUnitZ(yaw) + 1;
+    }
+
+    private static int originX() {
+        return MathHelper.floor_double(mc.thePlayer.posX);
+    }
+
+    // Rounded up near the top of a block like BlockUtils.getRelativeBlockPos does, for slabs and farmland
+    private static int originY() {
+        return MathHelper.floor_double(mc.thePlayer.posY % 1 > 0.7 ? Math.ceil(mc.thePlayer.posY) : mc.thePlayer.posY);
+    }
+
+    private static int originZ() {
+        return MathHelper.floor_double(mc.thePlayer.posZ);
+    }
+}
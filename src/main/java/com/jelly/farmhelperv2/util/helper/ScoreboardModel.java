@@ -0,0 +1,226 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import com.jelly.farmhelperv2.event.UpdateScoreboardLineEvent;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.play.server.*;
+import net.minecraft.util.StringUtils;
+import net.minecraftforge.common.MinecraftForge;
+
+import java.util.*;
+
+/**
+ * Sidebar scoreboard rebuilt from S3B/S3C/S3D/S3E packets on the network thread.
+ * Lines are kept bottom to top, the same order {@link net.minecraft.scoreboard.Scoreboard#getSortedScores} returns them.
+ * Only slots whose text changed are re-cleaned and reported through {@link UpdateScoreboardLineEvent}.
+ */
+public class ScoreboardModel {
+    public static final int MAX_LINES = 15;
+    private static ScoreboardModel instance;
+
+    private final Map<String, Map<String, Integer>> scoresByObjective = new HashMap<>();
+    private final Map<String, String[]> teamAffixes = new HashMap<>();
+    private final Map<String, String> playerTeams = new HashMap<>();
+    private final String[] slotPlayers = new String[MAX_LINES];
+    private final String[] rawLines = new String[MAX_LINES];
+    private final String[] cleanLines = new String[MAX_LINES];
+    private final ScoreEntry[] sortBuffer = new ScoreEntry[MAX_LINES + 1];
+    private String sidebarObjective = null;
+    private int lineCount = 0;
+
+    private volatile List<String> lines = Collections.emptyList();
+    private volatile List<String> cleanedLines = Collections.emptyList();
+    private volatile boolean listChanged = false;
+
+    public static ScoreboardModel getInstance() {
+        if (instance == null) {
+            instance = new ScoreboardModel();
+        }
+        return instance;
+    }
+
+    public List<String> getLines(boolean clean) {
+        return clean ? cleanedLines : lines;
+    }
+
+    /**
+     * Returns true once after the visible lines changed, used to post the list event from the client thread.
+     */
+    public boolean consumeListChanged() {
+        if (!listChanged) return false;
+        listChanged = false;
+        return true;
+    }
+
+    /**
+     * Only a join starts a new scoreboard, a respawn carries the old one over into the new world.
+     */
+    public void onJoinGame(S01PacketJoinGame packet) {
+        reset();
+    }
+
+    public void onObjective(S3BPacketScoreboardObjective packet) {
+        if (packet.func_149338_e() != 1) return;
+        scoresByObjective.remove(packet.func_149339_c());
+        if (packet.func_149339_c().equals(sidebarObjective)) {
+            sidebarObjective = null;
+            rebuild();
+        }
+    }
+
+    public void onDisplayObjective(S3DPacketDisplayScoreboard packet) {
+        if (packet.func_149371_c() != 1) return;
+        String objective = packet.func_149370_d();
+        sidebarObjective = objective == null || objective.isEmpty() ? null : objective;
+        rebuild();
+    }
+
+    public void onScore(S3CPacketUpdateScore packet) {
+        String player = packet.getPlayerName();
+        String objective = packet.getObjectiveName();
+        if (packet.getScoreAction() == S3CPacketUpdateScore.Action.CHANGE) {
+            scoresByObjective.computeIfAbsent(objective, k -> new HashMap<>()).put(player, packet.getScoreValue());
+            if (objective.equals(sidebarObjective)) rebuild();
+        } else if (objective == null || objective.isEmpty()) {
+            boolean visible = false;
+            for (Map.Entry<String, Map<String, Integer>> entry : scoresByObjective.entrySet()) {
+                if (entry.getValue().remove(player) != null && entry.getKey().equals(sidebarObjective)) {
+                    visible = true;
+                }
+            }
+            if (visible) rebuild();
+        } else {
+            Map<String, Integer> scores = scoresByObjective.get(objective);
+            if (scores != null && scores.remove(player) != null && objective.equals(sidebarObjective)) rebuild();
+        }
+    }
+
+    public void onTeam(S3EPacketTeams packet) {
+        String team = packet.getName();
+        switch (packet.getAction()) {
+            case 0:
+                teamAffixes.put(team, new String[]{packet.getPrefix(), packet.getSuffix()});
+                for (String player : packet.getPlayers()) {
+                    playerTeams.put(player, team);
+                }
+                break;
+            case 1:
+                teamAffixes.remove(team);
+                playerTeams.values().removeIf(team::equals);
+                break;
+            case 2:
+                teamAffixes.put(team, new String[]{packet.getPrefix(), packet.getSuffix()});
+                break;
+            case 3:
+                for (String player : packet.getPlayers()) {
+                    playerTeams.put(player, team);
+                }
+                break;
+            case 4:
+                for (String player : packet.getPlayers()) {
+                    playerTeams.remove(player, team);
+                }
+                break;
+            default:
+                return;
+        }
+        // Team changes never reorder the sidebar, slots whose text stays the same are skipped in updateSlot
+        boolean changed = false;
+        for (int i = 0; i < lineCount; i++) {
+            changed |= updateSlot(i, slotPlayers[i]);
+        }
+        if (changed) publish();
+    }
+
+    private void reset() {
+        scoresByObjective.clear();
+        teamAffixes.clear();
+        playerTeams.clear();
+        sidebarObjective = null;
+        rebuild();
+    }
+
+    private void rebuild() {
+        Map<String, Integer> scores = sidebarObjective == null ? null : scoresByObjective.get(sidebarObjective);
+        int count = 0;
+        if (scores != null) {
+            // Keep only the 15 highest entries, sorted ascending like the vanilla comparator
+            for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                if (entry.getKey().startsWith("#")) continue;
+                ScoreEntry candidate = sortBuffer[count];
+                if (candidate == null) {
+                    candidate = sortBuffer[count] = new ScoreEntry();
+                }
+                candidate.player = entry.getKey();
+                candidate.value = entry.getValue();
+                int i = count;
+                while (i > 0 && compare(sortBuffer[i - 1], candidate) > 0) {
+                    sortBuffer[i] = sortBuffer[i - 1];
+                    i--;
+                }
+                sortBuffer[i] = candidate;
+                if (count == MAX_LINES) {
+                    ScoreEntry lowest = sortBuffer[0];
+                    System.arraycopy(sortBuffer, 1, sortBuffer, 0, MAX_LINES);
+                    sortBuffer[MAX_LINES] = lowest;
+                } else {
+                    count++;
+                }
+            }
+        }
+        boolean changed = count != lineCount;
+        for (int i = 0; i < count; i++) {
+            changed |= updateSlot(i, sortBuffer[i].player);
+        }
+        for (int i = count; i < lineCount; i++) {
+            slotPlayers[i] = null;
+            rawLines[i] = null;
+            cleanLines[i] = null;
+        }
+        lineCount = count;
+        if (changed) publish();
+    }
+
+    private boolean updateSlot(int slot, String player) {
+        String team = playerTeams.get(player);
+        String[] affixes = team == null ? null : teamAffixes.get(team);
+        String raw = affixes == null ? player : affixes[0] + player + affixes[1];
+        slotPlayers[slot] = player;
+        if (raw.equals(rawLines[slot])) return false;
+        rawLines[slot] = raw;
+        String clean = clean(raw);
+        if (clean.equals(cleanLines[slot])) return true;
+        cleanLines[slot] = clean;
+        if (Minecraft.getMinecraft().thePlayer != null && Minecraft.getMinecraft().theWorld != null) {
+            MinecraftForge.EVENT_BUS.post(new UpdateScoreboardLineEvent(clean));
+        }
+        return true;
+    }
+
+    private void publish() {
+        lines = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(rawLines).subList(0, lineCount)));
+        cleanedLines = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(cleanLines).subList(0, lineCount)));
+        listChanged = true;
+    }
+
+    private static int compare(ScoreEntry a, ScoreEntry b) {
+        if (a.value != b.value) return a.value > b.value ? 1 : -1;
+        return b.player.compareToIgnoreCase(a.player);
+    }
+
+    public static String clean(String scoreboard) {
+        String stripped = StringUtils.stripControlCodes(scoreboard);
+        StringBuilder cleaned = new StringBuilder(stripped.length());
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (c >= 32 && c < 127 || c == 'ൠ') {
+                cleaned.append(c);
+            }
+        }
+        return cleaned.toString();
+    }
+
+    private static class ScoreEntry {
+        private String player;
+        private int value;
+    }
+}
@@ -0,0 +1,235 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Append-only log of macro sessions made of fixed-width binary records behind a small header.
+ * Records are written in timestamp order, so range queries binary search the file instead of reading all of it.
+ * <pre>
+ * header: int magic "FHSL", short version, short record size, long reserved
+ * record: long timestamp, long time macroing, int flags, int reserved
+ * </pre>
+ */
+public class SessionLog {
+    private static final int MAGIC = 0x4648534C;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 24;
+    private static final int FLAG_FAST_BREAK = 1;
+
+    private final File file;
+
+    public SessionLog(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Appends a single record, creating the file with its header when needed.
+     */
+    public synchronized void append(long timestamp, long timeMacroing, boolean fastBreak) throws IOException {
+        migrateIfNeeded();
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < HEADER_SIZE) {
+                raf.setLength(0);
+                writeHeader(raf);
+            }
+            // Drop a torn record left by a crash mid-write
+            long end = alignedEnd(raf.length());
+            raf.setLength(end);
+            raf.seek(end);
+            raf.write(encode(new Record(timestamp, timeMacroing, fastBreak)));
+        }
+    }
+
+    public synchronized List<Record> readAll() {
+        return readSince(Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns every record with a timestamp at or after {@code since}, seeking straight to the first one.
+     */
+    public synchronized List<Record> readSince(long since) {
+        List<Record> records = new ArrayList<>();
+        try {
+            migrateIfNeeded();
+            if (!file.exists()) return records;
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                if (!hasValidHeader(raf)) return records;
+                int count = recordCount(raf);
+                int first = firstIndexAtOrAfter(raf, count, since);
+                raf.seek(HEADER_SIZE + (long) first * RECORD_SIZE);
+                byte[] buffer = new byte[RECORD_SIZE];
+                for (int i = first; i < count; i++) {
+                    raf.readFully(buffer);
+                    records.add(decode(buffer));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return records;
+    }
+
+    /**
+     * Rewrites the log without records older than {@code keepSince}. Does nothing if there is nothing to drop.
+     */
+    public synchronized void compact(long keepSince) throws IOException {
+        migrateIfNeeded();
+        if (!file.exists()) return;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (!hasValidHeader(raf)) return;
+            if (firstIndexAtOrAfter(raf, recordCount(raf), keepSince) == 0 && raf.length() == alignedEnd(raf.length())) {
+                return;
+            }
+        }
+        writeAll(readSince(keepSince));
+    }
+
+    /**
+     * Converts a gzip JSON stats file written by older versions into the binary log, keeping the original as a backup.
+     */
+    public synchronized void migrateIfNeeded() throws IOException {
+        if (!file.exists() || !isGzip()) return;
+        List<Record> records = new ArrayList<>();
+        try (GZIPInputStream gzis = new GZIPInputStream(new FileInputStream(file));
+             InputStreamReader isr = new InputStreamReader(gzis, StandardCharsets.UTF_8)) {
+            JsonElement parsed = new JsonParser().parse(isr);
+            JsonArray array = parsed.isJsonArray() ? parsed.getAsJsonArray() : new JsonArray();
+            for (JsonElement element : array) {
+                JsonObject session = element.getAsJsonObject();
+                records.add(new Record(
+                        session.get("timestamp").getAsLong(),
+                        session.get("timeMacroing").getAsLong(),
+                        session.has("fastBreak") && session.get("fastBreak").getAsBoolean()));
+            }
+        } catch (Exception e) {
+            // A corrupted legacy file is kept in the backup, the log starts empty
+            e.printStackTrace();
+        }
+        records.sort((a, b) -> Long.compare(a.timestamp, b.timestamp));
+        Files.copy(file.toPath(), new File(file.getPath() + ".json.gz.bak").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        writeAll(records);
+    }
+
+    private void writeAll(List<Record> records) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(RECORD_SIZE);
+            out.writeLong(0);
+            for (Record record : records) {
+                out.write(encode(record));
+            }
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean isGzip() throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return in.read() == 0x1f && in.read() == 0x8b;
+        }
+    }
+
+    private static void writeHeader(RandomAccessFile raf) throws IOException {
+        raf.seek(0);
+        raf.writeInt(MAGIC);
+        raf.writeShort(VERSION);
+        raf.writeShort(RECORD_SIZE);
+        raf.writeLong(0);
+    }
+
+    private static boolean hasValidHeader(RandomAccessFile raf) throws IOException {
+        if (raf.length() < HEADER_SIZE) return false;
+        raf.seek(0);
+        return raf.readInt() == MAGIC && raf.readShort() == VERSION && raf.readShort() == RECORD_SIZE;
+    }
+
+    private static long alignedEnd(long length) {
+        return HEADER_SIZE + (length - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+    }
+
+    private static int recordCount(RandomAccessFile raf) throws IOException {
+        return (int) ((raf.length() - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    private static int firstIndexAtOrAfter(RandomAccessFile raf, int count, long timestamp) throws IOException {
+        if (timestamp == Long.MIN_VALUE) return 0;
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            raf.seek(HEADER_SIZE + (long) mid * RECORD_SIZE);
+            if (raf.readLong() < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static byte[] encode(Record record) {
+        byte[] bytes = new byte[RECORD_SIZE];
+        putLong(bytes, 0, record.timestamp);
+        putLong(bytes, 8, record.timeMacroing);
+        putLong(bytes, 16, (long) (record.fastBreak ? FLAG_FAST_BREAK : 0) << 32);
+        return bytes;
+    }
+
+    private static Record decode(byte[] bytes) {
+        int flags = (int) (getLong(bytes, 16) >>> 32);
+        return new Record(getLong(bytes, 0), getLong(bytes, 8), (flags & FLAG_FAST_BREAK) != 0);
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    public static class Record {
+        public final long timestamp;
+        public final long timeMacroing;
+        public final boolean fastBreak;
+
+        public Record(long timestamp, long timeMacroing, boolean fastBreak) {
+            this.timestamp = timestamp;
+            this.timeMacroing = timeMacroing;
+            this.fastBreak = fastBreak;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import lombok.Getter;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Deadline driven timer for work that needs finer resolution than a client tick.
+ * The worker thread parks until the earliest registered deadline and stays fully parked while nothing is registered.
+ */
+public class SubTickScheduler {
+    private static SubTickScheduler instance;
+    private final PriorityQueue<Registration> queue = new PriorityQueue<>((a, b) -> Long.compare(a.deadline, b.deadline));
+    @Getter
+    private final CopyOnWriteArrayList<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private Thread worker;
+
+    public static SubTickScheduler getInstance() {
+        if (instance == null) {
+            instance = new SubTickScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs the task every {@code period} on the scheduler thread, starting one period from now.
+     */
+    public Registration schedulePeriodic(String name, long period, TimeUnit unit, Runnable task) {
+        long periodNanos = unit.toNanos(period);
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("The period must be greater than 0");
+        }
+        return register(new Registration(name, task, System.nanoTime() + periodNanos, periodNanos));
+    }
+
+    /**
+     * Runs the task once on the scheduler thread after {@code delay}.
+     */
+    public Registration scheduleOnce(String name, long delay, TimeUnit unit, Runnable task) {
+        return register(new Registration(name, task, System.nanoTime() + unit.toNanos(Math.max(0, delay)), 0));
+    }
+
+    private Registration register(Registration registration) {
+        synchronized (lock) {
+            queue.add(registration);
+            registrations.add(registration);
+            ensureWorker();
+        }
+        LockSupport.unpark(worker);
+        return registration;
+    }
+
+    private void cancel(Registration registration) {
+        synchronized (lock) {
+            queue.remove(registration);
+            registrations.remove(registration);
+        }
+        LockSupport.unpark(worker);
+    }
+
+    private void ensureWorker() {
+        if (worker != null) return;
+        worker = new Thread(this::loop, "FarmHelper-SubTickScheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void loop() {
+        while (true) {
+            Registration due = null;
+            long parkNanos = -1;
+            synchronized (lock) {
+                Registration head = queue.peek();
+                if (head != null) {
+                    long remaining = head.deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        due = queue.poll();
+                    } else {
+                        parkNanos = remaining;
+                    }
+                }
+            }
+            if (due == null) {
+                if (parkNanos < 0) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, parkNanos);
+                }
+                continue;
+            }
+            long now = System.nanoTime();
+            due.recordLateness(now - due.deadline);
+            try {
+                due.task.run();
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+            synchronized (lock) {
+                if (due.cancelled) continue;
+                if (due.period > 0) {
+                    // Fixed rate, but never try to catch up on missed runs
+                    due.deadline += due.period;
+                    long after = System.nanoTime();
+                    if (due.deadline < after) {
+                        due.deadline = after + due.period;
+                    }
+                    queue.add(due);
+                } else {
+                    due.cancelled = true;
+                    registrations.remove(due);
+                }
+            }
+        }
+    }
+
+    public class Registration {
+        @Getter
+        private final String name;
+        private final Runnable task;
+        @Getter
+        private final long period;
+        private long deadline;
+        private volatile boolean cancelled = false;
+
+        @Getter
+        private volatile long runs = 0;
+        @Getter
+        private volatile long lastLatenessNanos = 0;
+        @Getter
+        private volatile long maxLatenessNanos = 0;
+        private volatile double meanLatenessNanos = 0;
+        private volatile double jitterNanos = 0;
+
+        private Registration(String name, Runnable task, long deadline, long period) {
+            this.name = name;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        private void recordLateness(long lateness) {
+            if (runs == 0) {
+                meanLatenessNanos = lateness;
+            } else {
+                // RFC 3550 style smoothing, jitter is the variation between consecutive wake-ups
+                meanLatenessNanos += (lateness - meanLatenessNanos) / 16d;
+                jitterNanos += (Math.abs(lateness - lastLatenessNanos) - jitterNanos) / 16d;
+            }
+            lastLatenessNanos = lateness;
+            maxLatenessNanos = Math.max(maxLatenessNanos, lateness);
+            runs++;
+        }
+
+        public double getMeanLatenessMs() {
+            return meanLatenessNanos / 1_000_000d;
+        }
+
+        public double getJitterMs() {
+            return jitterNanos / 1_000_000d;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            SubTickScheduler.this.cancel(this);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: runs %d, late %.2fms avg / %.2fms max, jitter %.2fms", name, runs, getMeanLatenessMs(), maxLatenessNanos / 1_000_000d, getJitterMs());
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockBush;
+import net.minecraft.block.BlockLilyPad;
+import net.minecraft.block.BlockReed;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.BlockPos;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.MathHelper;
+import net.minecraft.util.MovingObjectPosition;
+import net.minecraft.util.Vec3;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * Block ray tracing like {@code World.rayTraceBlocks}, walking the blocks with primitive coordinates instead of a new
+ * {@link BlockPos} and {@link Vec3} at every step. Blocks are read straight from the chunk storage and air is skipped
+ * without creating anything, so a trace through open air allocates nothing. The exact hit test is left to the block,
+ * so custom hitboxes still apply.
+ * The result of the last cast is kept in this object and overwritten by the next one. Instances aren't thread safe,
+ * every caller keeps its own.
+ */
+public class VoxelRaycaster {
+    /**
+     * Blocks the ray goes through as if they were air.
+     */
+    public interface BlockFilter {
+        boolean skip(int x, int y, int z, IBlockState state);
+    }
+
+    public static final BlockFilter NONE = (x, y, z, state) -> false;
+    // Same limit as the vanilla ray trace
+    private static final int MAX_STEPS = 200;
+    // Faces in the order vanilla tests them, min then max plane of x, y and z
+    private static final EnumFacing[] FACES = {EnumFacing.WEST, EnumFacing.EAST, EnumFacing.DOWN, EnumFacing.UP, EnumFacing.NORTH, EnumFacing.SOUTH};
+
+    private final boolean stopOnLiquid;
+    private final boolean ignoreBlockWithoutBoundingBox;
+    private final boolean fullBlocks;
+    @Setter
+    private BlockFilter filter = NONE;
+
+    @Getter
+    private boolean hit;
+    @Getter
+    private int blockX;
+    @Getter
+    private int blockY;
+    @Getter
+    private int blockZ;
+    @Getter
+    private double hitX;
+    @Getter
+    private double hitY;
+    @Getter
+    private double hitZ;
+    @Getter
+    private EnumFacing sideHit;
+    @Getter
+    private IBlockState state;
+
+    private World world;
+    private Chunk chunk;
+    private int chunkX;
+    private int chunkZ;
+    private double fromX;
+    private double fromY;
+    private double fromZ;
+    private double toX;
+    private double toY;
+    private double toZ;
+    // Only created when a block needs its own hit test
+    private Vec3 start;
+    private Vec3 end;
+
+    /**
+     * Same as {@code World.rayTraceBlocks(start, end, false, true, false)}, the way most callers trace.
+     */
+    public VoxelRaycaster() {
+        this(false, true, false);
+    }
+
+    /**
+     * @param fullBlocks whether every block that stops the ray counts as a full cube
+     */
+    public VoxelRaycaster(boolean stopOnLiquid, boolean ignoreBlockWithoutBoundingBox, boolean fullBlocks) {
+        this.stopOnLiquid = stopOnLiquid;
+        this.ignoreBlockWithoutBoundingBox = ignoreBlockWithoutBoundingBox;
+        this.fullBlocks = fullBlocks;
+    }
+
+    /**
+     * Traces from one point to the other and returns true if a block was hit, the hit is then described by the getters.
+     */
+    public boolean cast(World world, double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        // Chunks can be unloaded between two casts
+        chunk = null;
+        return castRay(world, fromX, fromY, fromZ, toX, toY, toZ);
+    }
+
+    private boolean castRay(World world, double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        hit = false;
+        state = null;
+        sideHit = null;
+        if (Double.isNaN(fromX) || Double.isNaN(fromY) || Double.isNaN(fromZ) || Double.isNaN(toX) || Double.isNaN(toY) || Double.isNaN(toZ)) {
+            return false;
+        }
+        if (world != this.world) {
+            this.world = world;
+            chunk = null;
+        }
+        this.fromX = fromX;
+        this.fromY = fromY;
+        this.fromZ = fromZ;
+        this.toX = toX;
+        this.toY = toY;
+        this.toZ = toZ;
+        start = null;
+        end = null;
+
+        int x = MathHelper.floor_double(fromX);
+        int y = MathHelper.floor_double(fromY);
+        int z = MathHelper.floor_double(fromZ);
+        int endX = MathHelper.floor_double(toX);
+        int endY = MathHelper.floor_double(toY);
+        int endZ = MathHelper.floor_double(toZ);
+        if (test(x, y, z)) return true;
+
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+        int stepX = Integer.signum(endX - x);
+        int stepY = Integer.signum(endY - y);
+        int stepZ = Integer.signum(endZ - z);
+        // Same walk as LineOfSight.trace, as fractions of the segment
+        double deltaX = stepX != 0 ? Math.abs(1 / dx) : Double.POSITIVE_INFINITY;
+        double deltaY = stepY != 0 ? Math.abs(1 / dy) : Double.POSITIVE_INFINITY;
+        double deltaZ = stepZ != 0 ? Math.abs(1 / dz) : Double.POSITIVE_INFINITY;
+        double nextX = stepX > 0 ? (x + 1 - fromX) / dx : stepX < 0 ? (fromX - x) / -dx : Double.POSITIVE_INFINITY;
+        double nextY = stepY > 0 ? (y + 1 - fromY) / dy : stepY < 0 ? (fromY - y) / -dy : Double.POSITIVE_INFINITY;
+        double nextZ = stepZ > 0 ? (z + 1 - fromZ) / dz : stepZ < 0 ? (fromZ - z) / -dz : Double.POSITIVE_INFINITY;
+
+        for (int steps = 0; steps < MAX_STEPS && (x != endX || y != endY || z != endZ); steps++) {
+            double tx = x != endX ? nextX : Double.POSITIVE_INFINITY;
+            double ty = y != endY ? nextY : Double.POSITIVE_INFINITY;
+            double tz = z != endZ ? nextZ : Double.POSITIVE_INFINITY;
+            if (tx <= ty && tx <= tz) {
+                x += stepX;
+                nextX += deltaX;
+            } else if (ty <= tz) {
+                y += stepY;
+                nextY += deltaY;
+            } else {
+                z += stepZ;
+                nextZ += deltaZ;
+            }
+            if (test(x, y, z)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Casts one ray from the origin to every target, {@code targets} holding x, y and z of each target in a row.
+     * The rays share the chunk lookups, which is most of the cost of short rays.
+     *
+     * @param hits receives whether each ray hit a block; may be null, then casting stops at the first ray that hits
+     * @return how many rays hit a block, the getters describe the last ray cast
+     */
+    public int castFan(World world, double fromX, double fromY, double fromZ, double[] targets, boolean[] hits) {
+        chunk = null;
+        int hitCount = 0;
+        for (int ray = 0; ray < targets.length / 3; ray++) {
+            boolean rayHit = castRay(world, fromX, fromY, fromZ, targets[ray * 3], targets[ray * 3 + 1], targets[ray * 3 + 2]);
+            if (hits != null) {
+                hits[ray] = rayHit;
+            } else if (rayHit) {
+                return 1;
+            }
+            if (rayHit) hitCount++;
+        }
+        return hitCount;
+    }
+
+    public boolean isHitAt(BlockPos pos) {
+        return hit && blockX == pos.getX() && blockY == pos.getY() && blockZ == pos.getZ();
+    }
+
+    public double getHitDistanceSq(double x, double y, double z) {
+        double dx = hitX - x;
+        double dy = hitY - y;
+        double dz = hitZ - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * The last hit the way the vanilla ray trace returns it, or null if nothing was hit. Allocates, meant for callers that keep the hit.
+     */
+    public MovingObjectPosition toMovingObjectPosition() {
+        if (!hit) return null;
+        return new MovingObjectPosition(new Vec3(hitX, hitY, hitZ), sideHit, new BlockPos(blockX, blockY, blockZ));
+    }
+
+    private boolean test(int x, int y, int z) {
+        IBlockState blockState = getBlockState(x, y, z);
+        Block block = blockState.getBlock();
+        if (block == Blocks.air || filter.skip(x, y, z, blockState)) return false;
+        if (!block.canCollideCheck(blockState, stopOnLiquid)) return false;
+        // Crops, flowers and canes never have a collision box, they're rejected before a position is created. Lily pads do have one
+        if (ignoreBlockWithoutBoundingBox && (block instanceof BlockBush && !(block instanceof BlockLilyPad) || block instanceof BlockReed)) return false;
+        BlockPos pos = new BlockPos(x, y, z);
+        if (ignoreBlockWithoutBoundingBox && block.getCollisionBoundingBox(world, pos, blockState) == null) return false;
+        if (fullBlocks) {
+            if (!intersectCube(x, y, z)) return false;
+        } else {
+            if (start == null) {
+                start = new Vec3(fromX, fromY, fromZ);
+                end = new Vec3(toX, toY, toZ);
+            }
+            MovingObjectPosition mop = block.collisionRayTrace(world, pos, start, end);
+            if (mop == null) return false;
+            hitX = mop.hitVec.xCoord;
+            hitY = mop.hitVec.yCoord;
+            hitZ = mop.hitVec.zCoord;
+            sideHit = mop.sideHit;
+        }
+        hit = true;
+        blockX = x;
+        blockY = y;
+        blockZ = z;
+        state = blockState;
+        return true;
+    }
+
+    /**
+     * The vanilla hit test against the whole block: the closest of the six faces the segment crosses inside their bounds.
+     */
+    private boolean intersectCube(int x, int y, int z) {
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+        double best = Double.POSITIVE_INFINITY;
+        EnumFacing side = null;
+        for (int face = 0; face < 6; face++) {
+            int axis = face >> 1;
+            double plane = (axis == 0 ? x : axis == 1 ? y : z) + (face & 1);
+            double delta = axis == 0 ? dx : axis == 1 ? dy : dz;
+            if (delta * delta < 1.0E-7) continue;
+            double t = (plane - (axis == 0 ? fromX : axis == 1 ? fromY : fromZ)) / delta;
+            if (t < 0 || t > 1 || t >= best) continue;
+            double px = fromX + dx * t;
+            double py = fromY + dy * t;
+            double pz = fromZ + dz * t;
+            if (axis != 0 && (px < x || px > x + 1)) continue;
+            if (axis != 1 && (py < y || py > y + 1)) continue;
+            if (axis != 2 && (pz < z || pz > z + 1)) continue;
+            best = t;
+            side = FACES[face];
+        }
+        if (side == null) return false;
+        hitX = fromX + dx * best;
+        hitY = fromY + dy * best;
+        hitZ = fromZ + dz * best;
+        sideHit = side;
+        return true;
+    }
+
+    private IBlockState getBlockState(int x, int y, int z) {
+        if (y < 0 || y >= 256) return Blocks.air.getDefaultState();
+        int cx = x >> 4;
+        int cz = z >> 4;
+        if (chunk == null || cx != chunkX || cz != chunkZ) {
+            chunk = world.getChunkFromChunkCoords(cx, cz);
+            chunkX = cx;
+            chunkZ = cz;
+        }
+        ExtendedBlockStorage storage = chunk.getBlockStorageArray()[y >> 4];
+        IBlockState blockState = storage != null ? storage.get(x & 15, y & 15, z & 15) : null;
+        return blockState != null ? blockState : Blocks.air.getDefaultState();
+    }
+}
@@ -0,0 +1,231 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jelly.farmhelperv2.config.struct.DiscordWebhook;
+import com.jelly.farmhelperv2.util.HttpClient;
+import com.jelly.farmhelperv2.util.LogUtils;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single sender for every Discord webhook message.
+ * Messages wait in a bounded queue, the oldest one is dropped when it's full.
+ * Messages queued close together for the same webhook are merged into one request of up to 10 embeds.
+ * A 429 answer is waited out using its retry_after, any other failure backs off per message and gives up after a few attempts.
+ */
+public class WebhookDispatcher {
+    private static final int QUEUE_CAPACITY = 50;
+    private static final int MAX_EMBEDS_PER_MESSAGE = 10;
+    private static final long COALESCE_WINDOW = 500L;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF = 1_000L;
+    private static WebhookDispatcher instance;
+
+    private final LinkedBlockingDeque<Pending> queue = new LinkedBlockingDeque<>(QUEUE_CAPACITY);
+    private final JsonParser jsonParser = new JsonParser();
+    private Thread sender;
+
+    @Getter
+    private final AtomicLong sent = new AtomicLong();
+    @Getter
+    private final AtomicLong requests = new AtomicLong();
+    @Getter
+    private final AtomicLong dropped = new AtomicLong();
+    @Getter
+    private final AtomicLong failed = new AtomicLong();
+    @Getter
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    public static WebhookDispatcher getInstance() {
+        if (instance == null) {
+            instance = new WebhookDispatcher();
+        }
+        return instance;
+    }
+
+    public synchronized void enqueue(DiscordWebhook webhook) {
+        Pending pending = new Pending(webhook);
+        while (!queue.offerLast(pending)) {
+            if (queue.pollFirst() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        if (sender == null) {
+            sender = new Thread(this::loop, "FarmHelper-WebhookDispatcher");
+            sender.setDaemon(true);
+            sender.start();
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void loop() {
+        while (true) {
+            try {
+                Pending first = queue.takeFirst();
+                // Give a burst a moment to arrive, so it goes out as one request
+                Thread.sleep(COALESCE_WINDOW);
+                List<Pending> batch = new ArrayList<>();
+                batch.add(first);
+                int embeds = first.webhook.getEmbeds().size();
+                Pending next;
+                while ((next = queue.peekFirst()) != null
+                        && canMerge(first.webhook, next.webhook)
+                        && embeds + next.webhook.getEmbeds().size() <= MAX_EMBEDS_PER_MESSAGE) {
+                    queue.pollFirst();
+                    batch.add(next);
+                    embeds += next.webhook.getEmbeds().size();
+                }
+                deliver(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void deliver(List<Pending> batch) throws InterruptedException {
+        while (!batch.isEmpty()) {
+            // Rebuilt every attempt, messages that ran out of attempts are no longer part of it
+            DiscordWebhook merged = merge(batch);
+            byte[] payload = merged.toJson().getBytes(StandardCharsets.UTF_8);
+            long waitMillis;
+            try {
+                requests.incrementAndGet();
+                HttpClient.Response response = HttpClient.getInstance().post(merged.getUrl(), "application/json", payload)
+                        .header("User-Agent", "Java-DiscordWebhook-BY-Gelox_")
+                        .execute();
+                if (response.isSuccessful()) {
+                    sent.addAndGet(batch.size());
+                    waitForBucket(response);
+                    return;
+                }
+                if (response.getStatus() == 429) {
+                    // Not the message's fault, wait and try again without using up an attempt
+                    rateLimited.incrementAndGet();
+                    Thread.sleep(retryAfter(response));
+                    continue;
+                }
+                if (response.getStatus() >= 400 && response.getStatus() < 500) {
+                    // The payload itself was rejected, retrying won't help
+                    fail(batch, "HTTP " + response.getStatus() + " " + response.string());
+                    return;
+                }
+                waitMillis = backoff(batch, "HTTP " + response.getStatus());
+            } catch (IOException e) {
+                waitMillis = backoff(batch, e.getMessage());
+            }
+            if (batch.isEmpty()) return;
+            LogUtils.sendDebug("[Webhook Log] Retrying sending a webhook message...");
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    /**
+     * Counts an attempt against every message in the batch and drops the ones that ran out of attempts.
+     */
+    private long backoff(List<Pending> batch, String reason) {
+        long waitMillis = 0;
+        List<Pending> exhausted = new ArrayList<>();
+        for (Pending pending : batch) {
+            pending.attempts++;
+            if (pending.attempts >= MAX_ATTEMPTS) {
+                exhausted.add(pending);
+            } else {
+                waitMillis = Math.max(waitMillis, BASE_BACKOFF << (pending.attempts - 1));
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            batch.removeAll(exhausted);
+            fail(exhausted, reason);
+        }
+        return waitMillis;
+    }
+
+    private void fail(List<Pending> messages, String reason) {
+        failed.addAndGet(messages.size());
+        LogUtils.sendError("[Webhook Log] Error: " + reason);
+        messages.clear();
+    }
+
+    private long retryAfter(HttpClient.Response response) throws IOException {
+        try {
+            JsonElement body = jsonParser.parse(response.string());
+            if (body.isJsonObject()) {
+                JsonObject object = body.getAsJsonObject();
+                if (object.has("retry_after")) {
+                    return (long) Math.ceil(object.get("retry_after").getAsDouble() * 1_000);
+                }
+            }
+        } catch (Exception ignored) {
+        }
+        String header = response.getHeader("Retry-After");
+        if (header != null) {
+            try {
+                return (long) Math.ceil(Double.parseDouble(header) * 1_000);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return BASE_BACKOFF;
+    }
+
+    /**
+     * Waits out the current rate limit bucket before the next request when Discord says it's empty.
+     */
+    private void waitForBucket(HttpClient.Response response) throws InterruptedException {
+        if (!"0".equals(response.getHeader("X-RateLimit-Remaining"))) return;
+        String resetAfter = response.getHeader("X-RateLimit-Reset-After");
+        if (resetAfter == null) return;
+        try {
+            Thread.sleep((long) Math.ceil(Double.parseDouble(resetAfter) * 1_000));
+        } catch (NumberFormatException ignored) {
+        }
+    }
+
+    /**
+     * Only embeds are combined, two plain messages with the same content are two pings and both have to be sent.
+     */
+    private static boolean canMerge(DiscordWebhook a, DiscordWebhook b) {
+        return !a.getEmbeds().isEmpty() && !b.getEmbeds().isEmpty()
+                && Objects.equals(a.getUrl(), b.getUrl())
+                && Objects.equals(a.getUsername(), b.getUsername())
+                && Objects.equals(a.getAvatarUrl(), b.getAvatarUrl())
+                && Objects.equals(a.getContent(), b.getContent())
+                && a.isTts() == b.isTts();
+    }
+
+    private static DiscordWebhook merge(List<Pending> batch) {
+        DiscordWebhook first = batch.get(0).webhook;
+        if (batch.size() == 1) return first;
+        DiscordWebhook merged = new DiscordWebhook(first.getUrl());
+        merged.setUsername(first.getUsername());
+        merged.setAvatarUrl(first.getAvatarUrl());
+        merged.setContent(first.getContent());
+        merged.setTts(first.isTts());
+        for (Pending pending : batch) {
+            pending.webhook.getEmbeds().forEach(merged::addEmbed);
+        }
+        return merged;
+    }
+
+    private static class Pending {
+        private final DiscordWebhook webhook;
+        private int attempts = 0;
+
+        private Pending(DiscordWebhook webhook) {
+            this.webhook = webhook;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.jelly.farmhelperv2.handler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the TablistParser line classification and row cache
+ */
+public class TablistParserTest {
+
+    private TablistParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new TablistParser();
+    }
+
+    @Test
+    @DisplayName("Should read the area only from an unindented line with a known location")
+    void testArea() {
+        List<TablistParser.Line> lines = parser.parse(Arrays.asList("Area: Garden", "Area: Nowhere", " Area: Garden"));
+
+        assertEquals(TablistParser.Kind.AREA, lines.get(0).kind);
+        assertEquals(GameStateHandler.Location.GARDEN, lines.get(0).location);
+        assertEquals(TablistParser.Kind.OTHER, lines.get(1).kind);
+        assertNull(lines.get(1).location);
+        assertEquals(TablistParser.Kind.OTHER, lines.get(2).kind);
+    }
+
+    @Test
+    @DisplayName("Should tell whether there are guests")
+    void testGuests() {
+        List<TablistParser.Line> lines = parser.parse(Arrays.asList("Guests (0)", "Guests (2)"));
+
+        assertEquals(TablistParser.Kind.GUESTS, lines.get(0).kind);
+        assertFalse(lines.get(0).active);
+        assertEquals(TablistParser.Kind.GUESTS, lines.get(1).kind);
+        assertTrue(lines.get(1).active);
+    }
+
+    @Test
+    @DisplayName("Should read the infested plot numbers")
+    void testInfestedPlots() {
+        List<TablistParser.Line> lines = parser.parse(Collections.singletonList(" Plots: 1, 4, 12"));
+
+        assertEquals(TablistParser.Kind.INFESTED_PLOTS, lines.get(0).kind);
+        assertEquals(Arrays.asList(1, 4, 12), lines.get(0).plots);
+    }
+
+    @Test
+    @DisplayName("Should tell whether the pest hunter bonus, the spray and the composter are active")
+    void testActiveLines() {
+        List<TablistParser.Line> lines = parser.parse(Arrays.asList(
+                " Bonus: +10% Farming Fortune",
+                " Bonus: INACTIVE",
+                " Spray: None",
+                " Spray: Plant Matter",
+                " Time Left: 12m 30s",
+                " Time Left: INACTIVE",
+                " Starts In: 14m 2s"));
+
+        assertLine(TablistParser.Kind.PEST_HUNTER_BONUS, true, lines.get(0));
+        assertLine(TablistParser.Kind.PEST_HUNTER_BONUS, false, lines.get(1));
+        assertLine(TablistParser.Kind.SPRAY, false, lines.get(2));
+        assertLine(TablistParser.Kind.SPRAY, true, lines.get(3));
+        assertLine(TablistParser.Kind.COMPOSTER_TIME_LEFT, true, lines.get(4));
+        assertLine(TablistParser.Kind.COMPOSTER_TIME_LEFT, false, lines.get(5));
+        assertEquals(TablistParser.Kind.JACOB_STARTS_IN, lines.get(6).kind);
+    }
+
+    @Test
+    @DisplayName("Should read the composter resources in units")
+    void testComposterResources() {
+        List<TablistParser.Line> lines = parser.parse(Arrays.asList(" Organic Matter: 12.5k", " Fuel: 40k", " Fuel: lots", "   "));
+
+        assertEquals(TablistParser.Kind.ORGANIC_MATTER, lines.get(0).kind);
+        assertEquals(12_500, lines.get(0).amount);
+        assertEquals(TablistParser.Kind.FUEL, lines.get(1).kind);
+        assertEquals(40_000, lines.get(1).amount);
+        assertEquals(TablistParser.Kind.OTHER, lines.get(2).kind);
+        assertEquals(TablistParser.Kind.OTHER, lines.get(3).kind);
+    }
+
+    @Test
+    @DisplayName("Should reuse the rows and only parse the ones that changed")
+    void testRowCache() {
+        List<TablistParser.Line> first = parser.parse(Arrays.asList("Guests (2)", " Fuel: 40k", "Area: Garden"));
+        TablistParser.Line fuel = first.get(1);
+        assertEquals(40_000, fuel.amount);
+
+        List<TablistParser.Line> second = parser.parse(Arrays.asList("Guests (0)", " Fuel: 40k"));
+
+        assertSame(first, second);
+        assertEquals(2, second.size());
+        assertSame(fuel, second.get(1));
+        assertEquals(40_000, second.get(1).amount);
+        assertFalse(second.get(0).active);
+
+        second = parser.parse(Arrays.asList("Guests (0)", " Spray: None", "Area: Hub"));
+
+        assertEquals(TablistParser.Kind.SPRAY, second.get(1).kind);
+        assertEquals(0, second.get(1).amount);
+        assertEquals(GameStateHandler.Location.HUB, second.get(2).location);
+    }
+
+    private static void assertLine(TablistParser.Kind kind, boolean active, TablistParser.Line line) {
+        assertEquals(kind, line.kind);
+        assertEquals(active, line.active);
+    }
+}
@@ -0,0 +1,123 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import net.minecraft.util.Vec3;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the FlyAStar search and its cell packing
+ */
+public class FlyAStarTest {
+
+    private static final FlyAStar.Passability OPEN = (x, y, z) -> true;
+
+    private FlyAStar search;
+
+    @BeforeEach
+    void setUp() {
+        search = new FlyAStar(1, 1, 1);
+    }
+
+    @Test
+    @DisplayName("Should find the straight path in open air")
+    void testOpenAir() {
+        List<Vec3> path = search.search(OPEN, 0, 0, 0, 5, 0, 0, 32, 10_000);
+
+        assertNotNull(path);
+        assertEquals(6, path.size());
+        assertCell(0, 0, 0, path.get(0));
+        assertCell(5, 0, 0, path.get(5));
+        assertAdjacent(path);
+        assertEquals(FlyAStar.StopReason.COMPLETED, search.getLastStopReason());
+    }
+
+    @Test
+    @DisplayName("Should find the shortest path through a hole that fits the whole body")
+    void testHoleInWall() {
+        FlyAStar tall = new FlyAStar(1, 2, 1);
+        FlyAStar.Passability wall = (x, y, z) -> x != 2 || z == 3 && (y == 0 || y == 1);
+
+        List<Vec3> path = tall.search(wall, 0, 0, 0, 4, 0, 0, 32, 100_000);
+
+        assertNotNull(path);
+        assertEquals(11, path.size());
+        assertAdjacent(path);
+        boolean throughHole = false;
+        for (Vec3 cell : path) {
+            if ((int) cell.xCoord == 2) {
+                assertCell(2, 0, 3, cell);
+                throughHole = true;
+            }
+        }
+        assertTrue(throughHole);
+    }
+
+    @Test
+    @DisplayName("Should end next to a goal that can't be reached")
+    void testUnreachableGoal() {
+        FlyAStar.Passability world = (x, y, z) -> x != 5 || y != 0 || z != 0;
+
+        List<Vec3> path = search.search(world, 0, 0, 0, 5, 0, 0, 8, 100_000);
+
+        assertNotNull(path);
+        assertCell(0, 0, 0, path.get(0));
+        Vec3 end = path.get(path.size() - 1);
+        assertEquals(1, end.distanceTo(new Vec3(5, 0, 0)), 1e-9);
+        assertEquals(FlyAStar.StopReason.COMPLETED, search.getLastStopReason());
+    }
+
+    @Test
+    @DisplayName("Should give up when the node budget runs out")
+    void testNodeBudget() {
+        assertNull(search.search(OPEN, 0, 0, 0, 100, 0, 0, 200, 10));
+        assertEquals(FlyAStar.StopReason.NODE_BUDGET, search.getLastStopReason());
+    }
+
+    @Test
+    @DisplayName("Should give up when the time budget runs out")
+    void testTimeBudget() {
+        assertNull(search.search(OPEN, 0, 0, 0, 5000, 0, 0, 10_000, 1_000_000, 0));
+        assertEquals(FlyAStar.StopReason.TIME_BUDGET, search.getLastStopReason());
+
+        // The reason of the last search is not kept around
+        assertNotNull(search.search(OPEN, 0, 0, 0, 5, 0, 0, 32, 10_000));
+        assertEquals(FlyAStar.StopReason.COMPLETED, search.getLastStopReason());
+    }
+
+    @Test
+    @DisplayName("Should return null when nothing but the start can be reached")
+    void testEnclosedStart() {
+        FlyAStar.Passability world = (x, y, z) -> x == 0 && y == 0 && z == 0;
+
+        assertNull(search.search(world, 0, 0, 0, 5, 0, 0, 32, 10_000));
+    }
+
+    @Test
+    @DisplayName("Should pack and unpack cells, negative ones included")
+    void testPacking() {
+        int[][] cells = {{0, 0, 0}, {1, 2, 3}, {-1, -1, -1}, {-30_000_000, 255, 30_000_000}, {12345, -64, -54321}};
+        for (int[] cell : cells) {
+            long key = FlyAStar.pack(cell[0], cell[1], cell[2]);
+            assertEquals(cell[0], FlyAStar.unpackX(key));
+            assertEquals(cell[1], FlyAStar.unpackY(key));
+            assertEquals(cell[2], FlyAStar.unpackZ(key));
+        }
+        assertNotEquals(FlyAStar.pack(1, 0, 0), FlyAStar.pack(0, 0, 1));
+        assertNotEquals(FlyAStar.pack(-1, 0, 0), FlyAStar.pack(0, -1, 0));
+    }
+
+    private static void assertCell(int x, int y, int z, Vec3 cell) {
+        assertArrayEquals(new int[]{x, y, z}, new int[]{(int) cell.xCoord, (int) cell.yCoord, (int) cell.zCoord});
+    }
+
+    private static void assertAdjacent(List<Vec3> path) {
+        for (int i = 1; i < path.size(); i++) {
+            assertEquals(1, path.get(i - 1).distanceTo(path.get(i)), 1e-9, "step " + i);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import net.minecraft.util.Vec3;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the block traversal and path smoothing of LineOfSight
+ */
+public class LineOfSightTest {
+
+    private Set<Long> solid;
+    private List<int[]> visited;
+    private FlyAStar.Passability world;
+
+    @BeforeEach
+    void setUp() {
+        solid = new HashSet<>();
+        visited = new ArrayList<>();
+        world = (x, y, z) -> {
+            visited.add(new int[]{x, y, z});
+            return !solid.contains(FlyAStar.pack(x, y, z));
+        };
+    }
+
+    @Test
+    @DisplayName("Should stop at the first solid block on a straight line")
+    void testStraightLineHit() {
+        solid.add(FlyAStar.pack(3, 0, 0));
+        solid.add(FlyAStar.pack(5, 0, 0));
+        int[] hit = new int[3];
+
+        assertTrue(LineOfSight.trace(world, 0.5, 0.5, 0.5, 8.5, 0.5, 0.5, hit));
+        assertArrayEquals(new int[]{3, 0, 0}, hit);
+        assertEquals(4, visited.size());
+    }
+
+    @Test
+    @DisplayName("Should visit both end blocks")
+    void testEndsIncluded() {
+        assertTrue(LineOfSight.isClear(world, 0.5, 0.5, 0.5, 4.5, 0.5, 0.5));
+        assertCells(new int[][]{{0, 0, 0}, {1, 0, 0}, {2, 0, 0}, {3, 0, 0}, {4, 0, 0}});
+
+        solid.add(FlyAStar.pack(4, 0, 0));
+        assertFalse(LineOfSight.isClear(world, 0.5, 0.5, 0.5, 4.5, 0.5, 0.5));
+
+        solid.clear();
+        solid.add(FlyAStar.pack(0, 0, 0));
+        int[] hit = new int[3];
+        assertTrue(LineOfSight.trace(world, 0.5, 0.5, 0.5, 4.5, 0.5, 0.5, hit));
+        assertArrayEquals(new int[]{0, 0, 0}, hit);
+    }
+
+    @Test
+    @DisplayName("Should cross a block edge through one of the two blocks next to it")
+    void testEdgeCrossing() {
+        // The segment meets the edge between the four blocks exactly, x is stepped first on ties
+        solid.add(FlyAStar.pack(0, 0, 1));
+        assertTrue(LineOfSight.isClear(world, 0.5, 0.5, 0.5, 1.5, 0.5, 1.5));
+        assertCells(new int[][]{{0, 0, 0}, {1, 0, 0}, {1, 0, 1}});
+
+        solid.clear();
+        solid.add(FlyAStar.pack(1, 0, 0));
+        int[] hit = new int[3];
+        assertTrue(LineOfSight.trace(world, 0.5, 0.5, 0.5, 1.5, 0.5, 1.5, hit));
+        assertArrayEquals(new int[]{1, 0, 0}, hit);
+    }
+
+    @Test
+    @DisplayName("Should step one axis at a time through a block corner")
+    void testCornerCrossing() {
+        assertTrue(LineOfSight.isClear(world, 0.5, 0.5, 0.5, 1.5, 1.5, 1.5));
+        assertCells(new int[][]{{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {1, 1, 1}});
+    }
+
+    @Test
+    @DisplayName("Should visit every block a diagonal segment passes through")
+    void testDiagonal() {
+        assertTrue(LineOfSight.isClear(world, 0.2, 0.5, 0.5, 2.8, 0.5, 1.5));
+        assertCells(new int[][]{{0, 0, 0}, {1, 0, 0}, {1, 0, 1}, {2, 0, 1}});
+    }
+
+    @Test
+    @DisplayName("Should floor negative coordinates to the block below")
+    void testNegativeCoordinates() {
+        assertTrue(LineOfSight.isClear(world, -0.5, 0.5, 0.5, -2.5, 0.5, 0.5));
+        assertCells(new int[][]{{-1, 0, 0}, {-2, 0, 0}, {-3, 0, 0}});
+    }
+
+    @Test
+    @DisplayName("Should check the whole body when telling if a segment is traversable")
+    void testTraversable() {
+        assertTrue(LineOfSight.isTraversable(world, 0, 0, 0, 4, 0, 0));
+
+        // Head height
+        solid.add(FlyAStar.pack(2, 1, 0));
+        assertFalse(LineOfSight.isTraversable(world, 0, 0, 0, 4, 0, 0));
+
+        // Above the head
+        solid.clear();
+        solid.add(FlyAStar.pack(2, 2, 0));
+        assertTrue(LineOfSight.isTraversable(world, 0, 0, 0, 4, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should keep only the ends of a straight path")
+    void testSmoothStraightPath() {
+        List<Vec3> path = Arrays.asList(new Vec3(0, 0, 0), new Vec3(1, 0, 0), new Vec3(2, 0, 0), new Vec3(3, 0, 0), new Vec3(4, 0, 0));
+
+        List<Vec3> smoothed = LineOfSight.smooth(world, path);
+
+        assertPoints(new int[][]{{0, 0, 0}, {4, 0, 0}}, smoothed);
+        assertEquals(3, LineOfSight.getLastSmoothChecks());
+    }
+
+    @Test
+    @DisplayName("Should keep the corner of a path around an obstacle")
+    void testSmoothAroundCorner() {
+        for (int x = 0; x <= 1; x++) {
+            for (int y = 0; y <= 1; y++) {
+                for (int z = 1; z <= 2; z++) {
+                    solid.add(FlyAStar.pack(x, y, z));
+                }
+            }
+        }
+        List<Vec3> path = Arrays.asList(new Vec3(0, 0, 0), new Vec3(1, 0, 0), new Vec3(2, 0, 0), new Vec3(2, 0, 1), new Vec3(2, 0, 2));
+
+        List<Vec3> smoothed = LineOfSight.smooth(world, path);
+
+        assertPoints(new int[][]{{0, 0, 0}, {2, 0, 0}, {2, 0, 2}}, smoothed);
+        assertEquals(3, LineOfSight.getLastSmoothChecks());
+    }
+
+    @Test
+    @DisplayName("Should return short paths unchanged")
+    void testSmoothShortPath() {
+        List<Vec3> path = Arrays.asList(new Vec3(0, 0, 0), new Vec3(5, 0, 0));
+
+        assertSame(path, LineOfSight.smooth(world, path));
+        assertEquals(0, LineOfSight.getLastSmoothChecks());
+    }
+
+    private void assertCells(int[][] expected) {
+        assertEquals(expected.length, visited.size(), "visited blocks");
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], visited.get(i), "block " + i);
+        }
+    }
+
+    private static void assertPoints(int[][] expected, List<Vec3> actual) {
+        assertEquals(expected.length, actual.size(), "points");
+        for (int i = 0; i < expected.length; i++) {
+            Vec3 point = actual.get(i);
+            assertArrayEquals(expected[i], new int[]{(int) point.xCoord, (int) point.yCoord, (int) point.zCoord}, "point " + i);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.jelly.farmhelperv2.pathfinder;
+
+import com.jelly.farmhelperv2.config.FarmHelperConfig;
+import net.minecraft.util.Vec3;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test suite for the RouteCache lookups and its LRU eviction
+ */
+public class RouteCacheTest {
+
+    private static final String LOCATION = "GARDEN";
+    // Same limits as the cache
+    private static final int MAX_ROUTES = 256;
+    private static final int MAX_POINTS = 32_768;
+
+    private RouteCache cache;
+    private World world;
+    private PassabilitySnapshot.View view;
+    private long revision;
+
+    @BeforeEach
+    void setUp() {
+        FarmHelperConfig.persistFlyRoutes = false;
+        cache = new RouteCache();
+        // Every chunk is the client's empty chunk, so nothing gets captured and all of it is air
+        Chunk empty = mock(Chunk.class);
+        when(empty.isEmpty()).thenReturn(true);
+        world = mock(World.class);
+        when(world.getChunkFromChunkCoords(anyInt(), anyInt())).thenReturn(empty);
+        view = PassabilitySnapshot.getInstance().view(false);
+        revision = PassabilitySnapshot.getInstance().getRevision().get();
+    }
+
+    @Test
+    @DisplayName("Should return a stored route and count hits and misses")
+    void testPutAndGet() {
+        put(line(0, 10));
+
+        List<Vec3> route = get(0, 10);
+
+        assertNotNull(route);
+        assertEquals(10, route.size());
+        assertCell(0, 64, 0, route.get(0));
+        assertCell(9, 64, 0, route.get(9));
+        assertNull(get(1, 10));
+        assertEquals(1, cache.getHits().get());
+        assertEquals(1, cache.getMisses().get());
+    }
+
+    @Test
+    @DisplayName("Should not keep routes that stop short of the goal")
+    void testPartialRoute() {
+        cache.put(LOCATION, true, line(0, 10), 20, 64, 0, revision);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should share a route between starts in the same rounded cell")
+    void testRoundedStart() {
+        put(line(0, 10));
+
+        List<Vec3> route = cache.get(world, view, LOCATION, true, 1, 64, 0, 9, 64, 0);
+
+        assertNotNull(route);
+        assertCell(1, 64, 0, route.get(0));
+        assertCell(9, 64, 0, route.get(route.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used route past the route limit")
+    void testEvictionByRouteCount() {
+        for (int route = 0; route < MAX_ROUTES; route++) {
+            put(line(route, 2));
+        }
+        assertEquals(MAX_ROUTES, cache.size());
+
+        // Route 0 is used again, so route 1 becomes the eldest
+        assertNotNull(get(0, 2));
+        put(line(MAX_ROUTES, 2));
+
+        assertEquals(MAX_ROUTES, cache.size());
+        assertNotNull(get(0, 2));
+        assertNull(get(1, 2));
+        assertNotNull(get(2, 2));
+        assertNotNull(get(MAX_ROUTES, 2));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used routes past the point budget")
+    void testEvictionByPoints() {
+        int length = MAX_POINTS / 4;
+        for (int route = 0; route < 4; route++) {
+            put(line(route, length));
+        }
+        assertEquals(4, cache.size());
+
+        assertNotNull(get(0, length));
+        put(line(4, 2));
+
+        assertEquals(4, cache.size());
+        assertNotNull(get(0, length));
+        assertNull(get(1, length));
+        assertNotNull(get(2, length));
+        assertNotNull(get(4, 2));
+    }
+
+    @Test
+    @DisplayName("Should replace a route stored under the same key")
+    void testReplace() {
+        put(line(0, 10));
+        put(line(0, 10));
+
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * A straight route along x, every route index gets its own rounded start and goal.
+     */
+    private static List<Vec3> line(int route, int length) {
+        List<Vec3> cells = new ArrayList<>(length);
+        for (int x = 0; x < length; x++) {
+            cells.add(new Vec3(x, 64, route * 4));
+        }
+        return cells;
+    }
+
+    private void put(List<Vec3> cells) {
+        Vec3 goal = cells.get(cells.size() - 1);
+        cache.put(LOCATION, true, cells, (int) goal.xCoord, (int) goal.yCoord, (int) goal.zCoord, revision);
+    }
+
+    private List<Vec3> get(int route, int length) {
+        return cache.get(world, view, LOCATION, true, 0, 64, route * 4, length - 1, 64, route * 4);
+    }
+
+    private static void assertCell(int x, int y, int z, Vec3 cell) {
+        assertArrayEquals(new int[]{x, y, z}, new int[]{(int) cell.xCoord, (int) cell.yCoord, (int) cell.zCoord});
+    }
+}
@@ -0,0 +1,80 @@
+package com.jelly.farmhelperv2.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the streaming bazaar extractor against a recorded response served from localhost
+ */
+public class BazaarPriceExtractorTest {
+
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        byte[] fixture = readFixture("/bazaar.json");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/skyblock/bazaar", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, fixture.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(fixture);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/skyblock/bazaar";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Uses the second sell order when there is one, otherwise the first")
+    void testSellSummaryPrice() throws Exception {
+        Map<String, Double> prices = extract("ENCHANTED_CARROT", "CROPIE");
+        assertEquals(211.9, prices.get("ENCHANTED_CARROT"), 1e-9);
+        assertEquals(24000.5, prices.get("CROPIE"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Skips products that weren't requested or have no sell orders")
+    void testOnlyRequestedProducts() throws Exception {
+        Map<String, Double> prices = extract("ENCHANTED_CARROT", "SQUASH", "FERMENTO");
+        assertEquals(1, prices.size());
+        assertFalse(prices.containsKey("SQUASH"));
+        assertFalse(prices.containsKey("ENCHANTED_DIAMOND"));
+    }
+
+    private Map<String, Double> extract(String... productIds) throws Exception {
+        return HttpClient.getInstance().get(url)
+                .header("User-Agent", "test")
+                .stream(response -> BazaarPriceExtractor.extract(response.reader(), new HashSet<>(Arrays.asList(productIds))));
+    }
+
+    private static byte[] readFixture(String name) throws Exception {
+        try (InputStream in = BazaarPriceExtractorTest.class.getResourceAsStream(name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the BlockRateWindow rate, moving average and percentile
+ */
+public class BlockRateWindowTest {
+
+    private BlockRateWindow window;
+
+    @BeforeEach
+    void setUp() {
+        window = new BlockRateWindow(64, 5_000);
+    }
+
+    @Test
+    @DisplayName("Should reject capacities below 2")
+    void testCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new BlockRateWindow(1, 5_000));
+    }
+
+    @Test
+    @DisplayName("Should not count the blocks of the first sample")
+    void testRate() {
+        assertEquals(0, window.getRate());
+
+        window.add(7, 0);
+        window.add(10, 1_000);
+        window.add(10, 2_000);
+
+        assertEquals(20, window.getBlocksInWindow());
+        assertEquals(2, window.getElapsedSeconds(), 1e-6);
+        assertEquals(10, window.getRate(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Should drop samples older than the window")
+    void testWindowEviction() {
+        for (long time = 0; time <= 10_000; time += 1_000) {
+            window.add(5, time);
+        }
+
+        assertEquals(6, window.size());
+        assertEquals(5_000, window.getFirstTimestamp());
+        assertEquals(25, window.getBlocksInWindow());
+        assertEquals(5, window.getRate(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest sample when full")
+    void testCapacityEviction() {
+        BlockRateWindow small = new BlockRateWindow(3, 60_000);
+        for (long time = 0; time < 5_000; time += 1_000) {
+            small.add(1, time);
+        }
+
+        assertEquals(3, small.size());
+        assertEquals(2_000, small.getFirstTimestamp());
+        assertEquals(2, small.getBlocksInWindow());
+    }
+
+    @Test
+    @DisplayName("Should hide a pause by shifting the samples")
+    void testShift() {
+        window.add(0, 0);
+        window.add(10, 1_000);
+        window.shiftTimestamps(5_000);
+
+        assertEquals(5_000, window.getFirstTimestamp());
+        assertEquals(6_000, window.getLastTimestamp());
+
+        window.add(10, 7_000);
+        assertEquals(10, window.getRate(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Should seed the moving average and decay it while idle")
+    void testEma() {
+        assertEquals(0, window.getEma(0));
+
+        window.add(0, 0);
+        window.add(10, 1_000);
+        assertEquals(10, window.getEma(1_000), 1e-6);
+
+        window.add(10, 2_000);
+        window.add(10, 3_000);
+        assertEquals(10, window.getEma(3_000), 1e-6);
+        assertEquals(10 * Math.exp(-1), window.getEma(6_000), 1e-5);
+
+        window.clear();
+        assertEquals(0, window.size());
+        assertEquals(0, window.getEma(6_000));
+    }
+
+    @Test
+    @DisplayName("Should take percentiles of the full seconds only")
+    void testPercentile() {
+        window.add(0, 0);
+        window.add(5, 500);
+        window.add(5, 1_500);
+        window.add(20, 2_500);
+        // The partial last second is left out
+        window.add(10, 3_500);
+
+        assertEquals(5, window.getPercentile(0), 1e-6);
+        assertEquals(5, window.getPercentile(50), 1e-6);
+        assertEquals(20, window.getPercentile(100), 1e-6);
+    }
+}
@@ -0,0 +1,173 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import com.jelly.farmhelperv2.config.FarmHelperConfig;
+import com.jelly.farmhelperv2.event.BlockChangeEvent;
+import com.jelly.farmhelperv2.event.ChunkServerLoadEvent;
+import net.minecraft.block.BlockCocoa;
+import net.minecraft.block.BlockCrops;
+import net.minecraft.block.BlockNetherWart;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test suite for the CropIndex cell encoding and ready counts
+ */
+public class CropIndexTest {
+
+    private CropIndex index;
+    private IBlockAccess world;
+
+    @BeforeAll
+    static void registerBlocks() {
+        Bootstrap.register();
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new CropIndex();
+        world = mock(IBlockAccess.class);
+        // Chunks that aren't indexed would be read from the client world, so every chunk the tests look at is loaded empty first
+        for (int chunkX = -1; chunkX <= 1; chunkX++) {
+            for (int chunkZ = -1; chunkZ <= 1; chunkZ++) {
+                index.onChunkLoad(new ChunkServerLoadEvent(chunkX, chunkZ, new Chunk(null, chunkX, chunkZ)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should encode the crop type, age and readiness")
+    void testEncoding() {
+        set(0, 70, 0, wheat(7));
+        set(1, 70, 0, Blocks.carrots.getDefaultState().withProperty(BlockCrops.AGE, 3));
+        set(2, 70, 0, Blocks.nether_wart.getDefaultState().withProperty(BlockNetherWart.AGE, 3));
+        set(3, 70, 0, Blocks.cocoa.getDefaultState().withProperty(BlockCocoa.AGE, 1));
+        set(4, 70, 0, Blocks.melon_block.getDefaultState());
+        set(5, 70, 0, Blocks.red_mushroom_block.getDefaultState());
+
+        assertCell(FarmHelperConfig.CropEnum.WHEAT, 7, true, 0, 70, 0);
+        assertCell(FarmHelperConfig.CropEnum.CARROT, 3, false, 1, 70, 0);
+        assertCell(FarmHelperConfig.CropEnum.NETHER_WART, 3, true, 2, 70, 0);
+        assertCell(FarmHelperConfig.CropEnum.COCOA_BEANS, 1, false, 3, 70, 0);
+        assertCell(FarmHelperConfig.CropEnum.MELON, 0, true, 4, 70, 0);
+
+        // Huge mushroom blocks are indexed, but aren't a crop
+        assertEquals(FarmHelperConfig.CropEnum.NONE, index.getCrop(5, 70, 0));
+        assertTrue(index.isIndexed(new BlockPos(5, 70, 0)));
+        assertFalse(index.isReady(5, 70, 0));
+
+        assertEquals(FarmHelperConfig.CropEnum.NONE, index.getCrop(6, 70, 0));
+        assertFalse(index.isIndexed(new BlockPos(6, 70, 0)));
+    }
+
+    @Test
+    @DisplayName("Should index the crops of a loaded chunk")
+    void testChunkCapture() {
+        Chunk chunk = new Chunk(null, 0, 0);
+        ExtendedBlockStorage storage = new ExtendedBlockStorage(64, false);
+        storage.set(1, 2, 3, wheat(7));
+        storage.set(4, 5, 6, Blocks.potatoes.getDefaultState().withProperty(BlockCrops.AGE, 2));
+        storage.set(7, 8, 9, Blocks.stone.getDefaultState());
+        chunk.getBlockStorageArray()[4] = storage;
+
+        index.onChunkLoad(new ChunkServerLoadEvent(0, 0, chunk));
+
+        assertCell(FarmHelperConfig.CropEnum.WHEAT, 7, true, 1, 66, 3);
+        assertCell(FarmHelperConfig.CropEnum.POTATO, 2, false, 4, 69, 6);
+        assertFalse(index.isIndexed(new BlockPos(7, 72, 9)));
+        assertEquals(1, index.countReady(0, 64, 0, 16, 80, 16));
+    }
+
+    @Test
+    @DisplayName("Should keep the ready count of a section up to date")
+    void testReadyCounts() {
+        set(0, 64, 0, wheat(7));
+        set(5, 70, 5, wheat(7));
+        set(15, 79, 15, wheat(7));
+        set(8, 72, 8, wheat(3));
+        // Covers the whole section, so the section count is used
+        assertEquals(3, index.countReady(0, 64, 0, 16, 80, 16));
+        // Minimum corner included and maximum corner excluded
+        assertEquals(2, index.countReady(0, 64, 0, 15, 80, 15));
+        assertEquals(2, index.countReady(5, 70, 5, 16, 80, 16));
+
+        set(5, 70, 5, wheat(0));
+        assertEquals(2, index.countReady(0, 64, 0, 16, 80, 16));
+
+        set(0, 64, 0, Blocks.air.getDefaultState());
+        assertEquals(1, index.countReady(0, 64, 0, 16, 80, 16));
+
+        set(8, 72, 8, wheat(7));
+        set(15, 79, 15, wheat(7));
+        assertEquals(2, index.countReady(0, 64, 0, 16, 80, 16));
+    }
+
+    @Test
+    @DisplayName("Should count ready crops across chunks and negative coordinates")
+    void testCountAcrossChunks() {
+        set(-1, 70, -1, wheat(7));
+        set(0, 70, 0, wheat(7));
+        set(15, 70, 15, wheat(7));
+        set(16, 70, 16, wheat(7));
+
+        assertEquals(4, index.countReady(-1, 70, -1, 17, 71, 17));
+        assertEquals(2, index.countReady(0, 70, 0, 16, 71, 16));
+        assertEquals(1, index.countReady(-16, 64, -16, 0, 80, 0));
+        assertEquals(2, index.countReadyWithin(new BlockPos(0, 70, 0), 1));
+        assertEquals(0, index.countReady(0, 71, 0, 16, 80, 16));
+    }
+
+    @Test
+    @DisplayName("Should count what the macro would break for the ready fraction")
+    void testReadyFraction() {
+        set(0, 70, 0, wheat(7));
+        set(1, 70, 0, Blocks.carrots.getDefaultState().withProperty(BlockCrops.AGE, 7));
+        set(2, 70, 0, Blocks.potatoes.getDefaultState().withProperty(BlockCrops.AGE, 4));
+        set(3, 70, 0, Blocks.pumpkin.getDefaultState());
+
+        assertEquals(0.5f, index.getReadyFraction(Arrays.asList(new BlockPos(0, 70, 0), new BlockPos(1, 70, 0), new BlockPos(2, 70, 0), new BlockPos(3, 70, 0)), FarmHelperConfig.CropEnum.WHEAT), 1e-6);
+        assertEquals(1f, index.getReadyFraction(Collections.singletonList(new BlockPos(3, 70, 0)), FarmHelperConfig.CropEnum.MELON), 1e-6);
+        assertEquals(0f, index.getReadyFraction(Collections.emptyList(), FarmHelperConfig.CropEnum.WHEAT), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Should only track changes from or to a crop in an indexed chunk")
+    void testTracked() {
+        IBlockState air = Blocks.air.getDefaultState();
+
+        assertTrue(index.isTracked(null, 0, 70, 0, wheat(7), air));
+        assertTrue(index.isTracked(null, 0, 70, 0, air, Blocks.cactus.getDefaultState()));
+        assertFalse(index.isTracked(null, 0, 70, 0, Blocks.stone.getDefaultState(), Blocks.dirt.getDefaultState()));
+        assertFalse(index.isTracked(null, 100, 70, 100, wheat(7), air));
+        assertFalse(index.isTracked(null, 0, 256, 0, wheat(7), air));
+    }
+
+    private static IBlockState wheat(int age) {
+        return Blocks.wheat.getDefaultState().withProperty(BlockCrops.AGE, age);
+    }
+
+    private void set(int x, int y, int z, IBlockState state) {
+        index.onBlockChanges(Collections.singletonList(new BlockChangeEvent(new BlockPos(x, y, z), Blocks.air.getDefaultState(), state, world)));
+    }
+
+    private void assertCell(FarmHelperConfig.CropEnum crop, int age, boolean ready, int x, int y, int z) {
+        assertEquals(crop, index.getCrop(x, y, z));
+        assertEquals(age, index.getAge(x, y, z));
+        assertEquals(ready, index.isReady(x, y, z));
+        assertTrue(index.isIndexed(new BlockPos(x, y, z)));
+    }
+}
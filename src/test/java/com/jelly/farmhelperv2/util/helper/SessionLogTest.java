@@ -0,0 +1,129 @@
+package com.jelly.farmhelperv2.util.helper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the SessionLog binary format, range queries and migration
+ */
+public class SessionLogTest {
+
+    @TempDir
+    Path directory;
+
+    private File file;
+    private SessionLog log;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("sessions.bin").toFile();
+        log = new SessionLog(file);
+    }
+
+    @Test
+    @DisplayName("Should read back appended records")
+    void testAppendAndRead() throws IOException {
+        assertTrue(log.readAll().isEmpty());
+
+        log.append(1_000, 60_000, true);
+        log.append(2_000, 120_000, false);
+
+        List<SessionLog.Record> records = log.readAll();
+        assertEquals(2, records.size());
+        assertRecord(1_000, 60_000, true, records.get(0));
+        assertRecord(2_000, 120_000, false, records.get(1));
+        assertEquals(16 + 2 * 24, file.length());
+    }
+
+    @Test
+    @DisplayName("Should return the records at or after a timestamp")
+    void testReadSince() throws IOException {
+        for (long timestamp = 1_000; timestamp <= 10_000; timestamp += 1_000) {
+            log.append(timestamp, timestamp / 10, false);
+        }
+
+        assertEquals(10, log.readSince(0).size());
+        assertEquals(6, log.readSince(5_000).size());
+        assertEquals(5, log.readSince(5_001).size());
+        assertRecord(6_000, 600, false, log.readSince(5_001).get(0));
+        assertEquals(1, log.readSince(10_000).size());
+        assertTrue(log.readSince(10_001).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record before appending")
+    void testTornRecord() throws IOException {
+        log.append(1_000, 10, false);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{1, 2, 3, 4, 5});
+        }
+
+        log.append(2_000, 20, true);
+
+        List<SessionLog.Record> records = log.readAll();
+        assertEquals(2, records.size());
+        assertRecord(2_000, 20, true, records.get(1));
+    }
+
+    @Test
+    @DisplayName("Should drop old records when compacting")
+    void testCompact() throws IOException {
+        log.append(1_000, 10, false);
+        log.append(2_000, 20, false);
+        log.append(3_000, 30, true);
+
+        log.compact(2_000);
+
+        List<SessionLog.Record> records = log.readAll();
+        assertEquals(2, records.size());
+        assertRecord(2_000, 20, false, records.get(0));
+        assertRecord(3_000, 30, true, records.get(1));
+        assertEquals(16 + 2 * 24, file.length());
+    }
+
+    @Test
+    @DisplayName("Should ignore a file without a valid header")
+    void testInvalidHeader() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[40]);
+        }
+
+        assertTrue(log.readAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should migrate the old gzip JSON stats in timestamp order and keep a backup")
+    void testMigration() throws IOException {
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file)), StandardCharsets.UTF_8)) {
+            writer.write("[{\"timestamp\":2000,\"timeMacroing\":20,\"fastBreak\":true},{\"timestamp\":1000,\"timeMacroing\":10}]");
+        }
+
+        List<SessionLog.Record> records = log.readAll();
+
+        assertEquals(2, records.size());
+        assertRecord(1_000, 10, false, records.get(0));
+        assertRecord(2_000, 20, true, records.get(1));
+        assertTrue(new File(file.getPath() + ".json.gz.bak").exists());
+        assertEquals(16 + 2 * 24, file.length());
+    }
+
+    private static void assertRecord(long timestamp, long timeMacroing, boolean fastBreak, SessionLog.Record record) {
+        assertEquals(timestamp, record.timestamp);
+        assertEquals(timeMacroing, record.timeMacroing);
+        assertEquals(fastBreak, record.fastBreak);
+    }
+}